@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Builds the game and the JMH benchmarks and runs them.
+#
+# Needs in ../lib (the project's dependency folder):
+#   javafx-base, javafx-graphics, javafx-controls  (17.x, platform jars)
+#   jmh-core, jmh-generator-annprocess             (1.37)
+#   jopt-simple, commons-math3                     (JMH dependencies)
+#
+# Usage: bench/run.sh [JMH options] [benchmark regex]
+#   bench/run.sh                                   all benchmarks
+#   bench/run.sh CollisionBenchmark -p threads=4   one benchmark, one thread count
+#
+# Results go to bench/results/<commit>.json so runs on different commits can be compared,
+# e.g. with https://jmh.morethan.io
+set -euo pipefail
+
+BENCH_DIR="$(cd "$(dirname "$0")" && pwd)"
+PROJECT_DIR="$(dirname "$BENCH_DIR")"
+LIB_DIR="$PROJECT_DIR/lib"
+BUILD_DIR="$BENCH_DIR/build"
+RESULTS_DIR="$BENCH_DIR/results"
+
+if ! ls "$LIB_DIR"/jmh-core-*.jar > /dev/null 2>&1; then
+    echo "JMH jars not found in $LIB_DIR (see the header of this script)" >&2
+    exit 1
+fi
+CLASSPATH="$(ls "$LIB_DIR"/*.jar | tr '\n' ':')"
+
+rm -rf "$BUILD_DIR"
+mkdir -p "$BUILD_DIR/classes" "$RESULTS_DIR"
+
+# Game sources and resources, then the benchmarks (the annotation processor
+# generates the JMH harness and META-INF/BenchmarkList)
+javac -encoding UTF-8 -d "$BUILD_DIR/classes" -cp "$CLASSPATH" \
+    $(find "$PROJECT_DIR/src" "$BENCH_DIR/src" -name '*.java')
+(cd "$PROJECT_DIR/src" && find . -type f ! -name '*.java' -exec cp --parents {} "$BUILD_DIR/classes" \;)
+
+COMMIT="$(git -C "$PROJECT_DIR" rev-parse --short HEAD 2>/dev/null || echo local)"
+if [ -n "$(git -C "$PROJECT_DIR" status --porcelain -- src bench/src 2>/dev/null)" ]; then
+    COMMIT="$COMMIT-dirty"
+fi
+
+java -cp "$BUILD_DIR/classes:$CLASSPATH" org.openjdk.jmh.Main \
+    -prof gc \
+    -rf json -rff "$RESULTS_DIR/$COMMIT.json" \
+    "$@"
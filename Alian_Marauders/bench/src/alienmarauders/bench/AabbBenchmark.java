@@ -0,0 +1,94 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.CollisionDetection;
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Shot;
+
+/**
+ * Cost of a single {@link CollisionDetection#Aabb} test for each overload,
+ * averaged over a fixed set of enemy/shot pairs (about half of them overlap).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AabbBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    private Enemy[] enemyViews;
+    private Shot[] standaloneShots;
+    private EntityStore<Enemy> enemies;
+    private EntityStore<Shot> shots;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(Fixtures.SEED);
+        enemyViews = Fixtures.enemies(PAIRS, rng);
+        standaloneShots = new Shot[PAIRS];
+        Shot[] storedShots = new Shot[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            // Every other shot overlaps its enemy
+            double x = enemyViews[i].getPositionX() + (i % 2 == 0 ? 10 : 200);
+            double y = enemyViews[i].getPositionY() + 10;
+            standaloneShots[i] = new Shot(x, y, Fixtures.SHOT_WIDTH, Fixtures.SHOT_HEIGHT, null);
+            storedShots[i] = new Shot(x, y, Fixtures.SHOT_WIDTH, Fixtures.SHOT_HEIGHT, null);
+        }
+        enemies = Fixtures.store(enemyViews);
+        shots = Fixtures.store(storedShots);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int entities() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (CollisionDetection.Aabb(standaloneShots[i], enemyViews[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int entityAndStore() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (CollisionDetection.Aabb(standaloneShots[i], enemies, i)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int stores() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (CollisionDetection.Aabb(shots, i, enemies, i)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
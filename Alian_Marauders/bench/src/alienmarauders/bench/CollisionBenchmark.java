@@ -0,0 +1,81 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.CollisionScheduler;
+import alienmarauders.game.SpatialHash;
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Shot;
+
+/**
+ * The collision phase of a tick ({@code GameModel#handleCollisionsConcurrent}
+ * without applying the hits): rebuilding the enemy grid and finding the first
+ * hit of every shot, for different worker thread counts.
+ * <p>
+ * Whether the queries actually run in parallel still depends on the
+ * threshold the scheduler calibrates at startup; it is printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CollisionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int enemyCount;
+
+    @Param({"10", "1000", "100000"})
+    public int shotCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private EntityStore<Enemy> enemies;
+    private EntityStore<Shot> shots;
+    private final SpatialHash grid = new SpatialHash();
+    private CollisionScheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(Fixtures.SEED);
+        enemies = Fixtures.store(Fixtures.enemies(enemyCount, rng));
+        shots = Fixtures.store(Fixtures.shots(shotCount, rng));
+
+        // Move half of the shots into the enemy band so there are hits
+        double[] ys = shots.ys();
+        for (int i = 0; i < shots.size(); i += 2) {
+            ys[i] -= Fixtures.ENEMY_BAND;
+        }
+
+        scheduler = new CollisionScheduler(threads);
+        System.out.println("Parallel threshold: " + scheduler.getParallelThreshold() + " shots");
+    }
+
+    @Benchmark
+    public int[] findHits() {
+        grid.rebuild(enemies, Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT);
+        return scheduler.findHits(shots, grid);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+}
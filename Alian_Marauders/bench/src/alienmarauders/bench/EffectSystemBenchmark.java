@@ -0,0 +1,75 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.graphics.EffectSystem;
+import alienmarauders.game.graphics.SpriteBatch;
+
+/**
+ * Spawn/expire churn in {@link EffectSystem}: a full system of effects where
+ * every frame some finish and are replaced, as in a long swarm volley.
+ * <p>
+ * The effect kinds have the frame counts and timings of the game's effects
+ * but no sprite sheets, so update, culling and the render pass's bookkeeping
+ * are measured and no JavaFX toolkit is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectSystemBenchmark {
+
+    /** Game time of one frame at 60 Hz. */
+    private static final double FRAME_MILLIS = 1000.0 / 60.0;
+
+    @Param({"10", "1000", "100000"})
+    public int effectCount;
+
+    private final SpriteBatch batch = new SpriteBatch();
+    private EffectSystem effects;
+    private int[] kinds;
+    private Random rng;
+
+    @Setup
+    public void setUp() {
+        effects = new EffectSystem(effectCount);
+        kinds = new int[] {
+                effects.registerKind(null, 3, 50.0),  // muzzle flash
+                effects.registerKind(null, 6, 60.0),  // hit spark
+                effects.registerKind(null, 8, 60.0)   // explosion
+        };
+        rng = new Random(Fixtures.SEED);
+        refill();
+    }
+
+    @Benchmark
+    public EffectSystem updateRenderAndRefill() {
+        effects.update(FRAME_MILLIS);
+        effects.render(batch, Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT);
+        refill();
+        return effects;
+    }
+
+    private void refill() {
+        for (int i = effects.size(); i < effectCount; i++) {
+            double x = rng.nextDouble() * (Fixtures.PLAY_WIDTH - Fixtures.ENEMY_SIZE);
+            double y = rng.nextDouble() * (Fixtures.PLAY_HEIGHT - Fixtures.ENEMY_SIZE);
+            effects.spawn(kinds[i % kinds.length], x, y, Fixtures.ENEMY_SIZE, Fixtures.ENEMY_SIZE);
+        }
+    }
+}
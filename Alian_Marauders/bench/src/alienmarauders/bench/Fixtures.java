@@ -0,0 +1,90 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.Entity;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Shot;
+
+/**
+ * Deterministic entity layouts shared by the benchmarks.
+ * <p>
+ * Everything is placed from a fixed seed, so a given parameter set produces
+ * the same scene on every run and on every commit.
+ */
+final class Fixtures {
+
+    /** Play area used by all benchmarks. */
+    static final double PLAY_WIDTH = 800;
+    static final double PLAY_HEIGHT = 600;
+
+    /** One simulation tick at 60 ticks per second. */
+    static final double TICK_MILLIS = 1000.0 / 60.0;
+
+    /** Enemy frame size of the real sprite sheets. */
+    static final double ENEMY_SIZE = 32;
+
+    static final double SHOT_WIDTH = 5;
+    static final double SHOT_HEIGHT = 15;
+
+    /** Enemies fill the upper band, shots start below it. */
+    static final double ENEMY_BAND = 280;
+
+    static final long SEED = 42L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates image-free enemies spread over the upper band of the play area.
+     *
+     * @param count number of enemies
+     * @param rng   source of positions
+     * @return enemies, not stored yet
+     */
+    static Enemy[] enemies(int count, Random rng) {
+        Enemy[] enemies = new Enemy[count];
+        for (int i = 0; i < count; i++) {
+            double x = rng.nextDouble() * (PLAY_WIDTH - ENEMY_SIZE);
+            double y = rng.nextDouble() * (ENEMY_BAND - ENEMY_SIZE);
+            enemies[i] = new Enemy(x, y, ENEMY_SIZE, ENEMY_SIZE, null, 2);
+            enemies[i].setBounds(PLAY_WIDTH, PLAY_HEIGHT);
+        }
+        return enemies;
+    }
+
+    /**
+     * Creates image-free shots spread over the area between the enemies and
+     * the player.
+     *
+     * @param count number of shots
+     * @param rng   source of positions
+     * @return shots, not stored yet
+     */
+    static Shot[] shots(int count, Random rng) {
+        Shot[] shots = new Shot[count];
+        for (int i = 0; i < count; i++) {
+            double x = rng.nextDouble() * (PLAY_WIDTH - SHOT_WIDTH);
+            double y = ENEMY_BAND + rng.nextDouble() * (PLAY_HEIGHT - 100 - ENEMY_BAND);
+            shots[i] = new Shot(x, y, SHOT_WIDTH, SHOT_HEIGHT, null);
+        }
+        return shots;
+    }
+
+    /**
+     * Stores all entities in a new store.
+     *
+     * @param entities entities that are not stored anywhere yet
+     * @param <T>      entity type
+     * @return store holding the entities in array order
+     */
+    @SafeVarargs
+    static <T extends Entity> EntityStore<T> store(T... entities) {
+        EntityStore<T> store = new EntityStore<>(entities.length);
+        for (T entity : entities) {
+            store.add(entity);
+        }
+        return store;
+    }
+}
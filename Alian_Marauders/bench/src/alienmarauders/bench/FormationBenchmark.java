@@ -0,0 +1,73 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.GameAssets;
+import alienmarauders.game.formation.ArcFormation;
+import alienmarauders.game.formation.Formation;
+import alienmarauders.game.formation.GridFormation;
+import alienmarauders.game.formation.VFormation;
+import alienmarauders.game.movement.NoMovementStrategy;
+
+/**
+ * {@link Formation#createEnemies()} for every formation, sized to create
+ * about {@code enemyCount} enemies. Run with {@code -prof gc} to see the
+ * allocation per wave.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int enemyCount;
+
+    @Param({"grid", "v", "arc"})
+    public String shape;
+
+    private Formation formation;
+
+    @Setup
+    public void setUp() {
+        GameAssets assets = GameAssets.headless();
+        Random rng = new Random(Fixtures.SEED);
+        NoMovementStrategy movement = new NoMovementStrategy();
+        formation = switch (shape) {
+            case "grid" -> new GridFormation(Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, 1.0,
+                    Math.max(1, enemyCount / 10), Math.min(10, enemyCount), 50, rng);
+            case "v" -> new VFormation(Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, 1.0,
+                    (enemyCount + 1) / 2, rng);
+            case "arc" -> new ArcFormation(Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, 1.0,
+                    enemyCount, rng);
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+    }
+
+    @Benchmark
+    public int createEnemies() {
+        formation.createEnemies();
+        return formation.getEnemies().size();
+    }
+}
@@ -0,0 +1,107 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.GameAssets;
+import alienmarauders.game.GameModel;
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Player;
+import alienmarauders.game.entities.Shot;
+
+/**
+ * One full simulation tick of a headless {@link GameModel}: movement, shot
+ * update, collisions (including the parallel path above the scheduler's
+ * threshold) and cleanup.
+ * <p>
+ * The scene is kept in a steady state so every invocation does the same
+ * work: enemies get so many hit points that they never die, and every shot
+ * that hit something or left the screen is put back at its start position
+ * after the tick. Refilling costs one pass over the shots and is part of the
+ * measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class GameModelBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int enemyCount;
+
+    @Param({"10", "1000", "100000"})
+    public int shotCount;
+
+    private GameModel model;
+    private Shot[] shots;
+    private double[] startX;
+    private double[] startY;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(Fixtures.SEED);
+        model = new GameModel(new Player(0, 0, 60, 60), GameAssets.headless(), rng);
+        model.reset(Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT);
+
+        // Let the wave banner run out so update() does real work
+        while (model.isWaveBannerActive()) {
+            model.update(Fixtures.TICK_MILLIS);
+        }
+
+        EntityStore<Enemy> enemies = model.getEnemies();
+        enemies.clear();
+        for (Enemy enemy : Fixtures.enemies(enemyCount, rng)) {
+            int slot = enemies.add(enemy);
+            enemies.hitPoints()[slot] = Integer.MAX_VALUE;
+        }
+
+        shots = Fixtures.shots(shotCount, rng);
+        startX = new double[shotCount];
+        startY = new double[shotCount];
+        EntityStore<Shot> store = model.getShots();
+        for (int i = 0; i < shotCount; i++) {
+            startX[i] = shots[i].getPositionX();
+            startY[i] = shots[i].getPositionY();
+            store.add(shots[i]);
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        model.update(Fixtures.TICK_MILLIS);
+        refillShots();
+        return model.getShots().size();
+    }
+
+    @TearDown
+    public void tearDown() {
+        model.shutdown();
+    }
+
+    private void refillShots() {
+        EntityStore<Shot> store = model.getShots();
+        for (int i = 0; i < shots.length; i++) {
+            // Removed shots are detached and report dead
+            if (!shots[i].isAlive()) {
+                shots[i].reset(startX[i], startY[i]);
+                store.add(shots[i]);
+            }
+        }
+    }
+}
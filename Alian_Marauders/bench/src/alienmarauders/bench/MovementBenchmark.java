@@ -0,0 +1,66 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.movement.MoveDownStrategy;
+import alienmarauders.game.movement.MovementStrategy;
+import alienmarauders.game.movement.NoMovementStrategy;
+import alienmarauders.game.movement.ZigZagMovementStrategy;
+
+/**
+ * {@link MovementStrategy#moveEnemies(EntityStore, double)} for every
+ * strategy, one tick per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int enemyCount;
+
+    @Param({"none", "down", "zigzag"})
+    public String strategy;
+
+    private EntityStore<Enemy> enemies;
+    private MovementStrategy movement;
+
+    @Setup
+    public void setUp() {
+        movement = switch (strategy) {
+            case "none" -> new NoMovementStrategy();
+            case "down" -> new MoveDownStrategy();
+            case "zigzag" -> new ZigZagMovementStrategy();
+            default -> throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        };
+        Enemy[] created = Fixtures.enemies(enemyCount, new Random(Fixtures.SEED));
+        for (Enemy enemy : created) {
+            enemy.setMovementStrategy(movement);
+        }
+        enemies = Fixtures.store(created);
+    }
+
+    @Benchmark
+    public EntityStore<Enemy> moveEnemies() {
+        movement.moveEnemies(enemies, Fixtures.TICK_MILLIS);
+        return enemies;
+    }
+}
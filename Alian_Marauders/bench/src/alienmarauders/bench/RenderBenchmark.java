@@ -0,0 +1,143 @@
+package alienmarauders.bench;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import alienmarauders.game.RenderBackend;
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Shot;
+import alienmarauders.game.graphics.PixelBufferRenderer;
+import alienmarauders.game.graphics.SpriteBatch;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Draws one frame of enemies and shots with each {@link RenderBackend}.
+ * <p>
+ * The canvas backend clears the canvas and flushes the {@link SpriteBatch}
+ * into its {@link GraphicsContext}, which records the commands; replaying them
+ * on the render thread at the next pulse is not included. The pixel buffer
+ * backend rasterizes the same batch into its pixels; the final
+ * {@code updateBuffer} call must run on the JavaFX thread and is left out too.
+ * <p>
+ * Needs the JavaFX toolkit for the sprite images. Without a display, run
+ * with Monocle (see {@code bench/README.md}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int enemyCount;
+
+    @Param({"CANVAS", "PIXEL_BUFFER"})
+    public RenderBackend backend;
+
+    /** Shots in flight, like a swarm volley. */
+    private static final int SHOT_COUNT = 2000;
+
+    private final SpriteBatch batch = new SpriteBatch();
+    private EntityStore<Enemy> enemies;
+    private EntityStore<Shot> shots;
+    private GraphicsContext gc;
+    private PixelBufferRenderer renderer;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        startToolkit();
+        int width = (int) Fixtures.PLAY_WIDTH;
+        int height = (int) Fixtures.PLAY_HEIGHT;
+
+        // Two-frame enemy sheet and a shot sprite with some transparency
+        WritableImage sheet = sprite(2 * (int) Fixtures.ENEMY_SIZE, (int) Fixtures.ENEMY_SIZE, 0xFF40C040);
+        WritableImage laser = sprite((int) Fixtures.SHOT_WIDTH, (int) Fixtures.SHOT_HEIGHT, 0xC0FF4040);
+
+        Random rng = new Random(Fixtures.SEED);
+        Enemy[] enemyArray = new Enemy[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            double x = rng.nextDouble() * (Fixtures.PLAY_WIDTH - Fixtures.ENEMY_SIZE);
+            double y = rng.nextDouble() * (Fixtures.ENEMY_BAND - Fixtures.ENEMY_SIZE);
+            enemyArray[i] = new Enemy(x, y, Fixtures.ENEMY_SIZE, Fixtures.ENEMY_SIZE, sheet, 2);
+        }
+        enemies = Fixtures.store(enemyArray);
+
+        Shot[] shotArray = new Shot[SHOT_COUNT];
+        for (int i = 0; i < SHOT_COUNT; i++) {
+            double x = rng.nextDouble() * (Fixtures.PLAY_WIDTH - Fixtures.SHOT_WIDTH);
+            double y = Fixtures.ENEMY_BAND + rng.nextDouble() * (Fixtures.PLAY_HEIGHT - 100 - Fixtures.ENEMY_BAND);
+            shotArray[i] = new Shot(x, y, Fixtures.SHOT_WIDTH, Fixtures.SHOT_HEIGHT, laser);
+        }
+        shots = Fixtures.store(shotArray);
+
+        gc = new Canvas(width, height).getGraphicsContext2D();
+        renderer = new PixelBufferRenderer(width, height);
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Benchmark
+    public SpriteBatch drawFrame() {
+        if (backend == RenderBackend.CANVAS) {
+            // Clearing the whole canvas also drops the previous frame's commands
+            gc.clearRect(0, 0, Fixtures.PLAY_WIDTH, Fixtures.PLAY_HEIGHT);
+        }
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            enemies.get(i).render(batch);
+        }
+        for (int i = 0, n = shots.size(); i < n; i++) {
+            shots.get(i).render(batch);
+        }
+        if (backend == RenderBackend.CANVAS) {
+            batch.flush(gc);
+        } else {
+            renderer.rasterize(batch);
+        }
+        return batch;
+    }
+
+    private static WritableImage sprite(int width, int height, int argb) {
+        WritableImage image = new WritableImage(width, height);
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                writer.setArgb(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    private static void startToolkit() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException alreadyRunning) {
+            return;
+        }
+        started.await();
+    }
+}
@@ -18,6 +18,12 @@ public class SwitchModel {
     // Difficulty: "Easy" | "Medium" | "Hard"
     public final StringProperty difficulty = new SimpleStringProperty("Medium");
 
+    // Game mode: "Classic" | "Swarm" (see GameMode)
+    public final StringProperty gameMode = new SimpleStringProperty("Classic");
+
+    // Render backend: "Canvas" | "Pixel buffer" (see RenderBackend)
+    public final StringProperty renderBackend = new SimpleStringProperty("Canvas");
+
     
 
 }
@@ -0,0 +1,169 @@
+package alienmarauders.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * Checks that the steady-state game loop stays within an allocation budget.
+ * <p>
+ * Runs a {@link HeadlessSimulation} (optionally rendering every frame into a
+ * shown {@link GameViewBuilder}, one frame per pulse), warms it up, then
+ * measures the bytes allocated by all threads in each frame with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ * Frames that spawn a wave or restart the game, and the wave banner frames
+ * during which the next wave is prepared and then installed, create new
+ * enemies by design; they are counted separately and left out of the
+ * steady-state average.
+ * Exits with status 1 when that average exceeds the budget, so it can run as
+ * a build check.
+ * <p>
+ * The default budget of 128 bytes covers JavaFX itself: clearing the whole
+ * canvas resets the {@code GraphicsContext}'s internal state object, about
+ * 70 bytes per frame that the game cannot avoid. The simulation alone stays
+ * at a few bytes per frame.
+ * <p>
+ * Usage:
+ * {@code java alienmarauders.game.AllocationBudgetCheck [frames] [budgetBytes] [mode] [--render]}.
+ * Rendering needs a JavaFX platform; on machines without a display use
+ * Monocle ({@code -Dglass.platform=Monocle -Dmonocle.platform=Headless
+ * -Dprism.order=sw}).
+ */
+public final class AllocationBudgetCheck {
+
+    /** Frames run before measuring, so the JIT and all pools are warm. */
+    private static final int WARMUP_FRAMES = 3_000;
+
+    private static final int DEFAULT_FRAMES = 6_000;
+    private static final long DEFAULT_BUDGET_BYTES = 128;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private long[] threadIds;
+
+    private long steadyBytes;
+    private int steadyFrames;
+    private long maxSteadyFrameBytes;
+    private long transitionBytes;
+    private int transitionFrames;
+
+    private AllocationBudgetCheck() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_BUDGET_BYTES;
+        GameMode mode = args.length > 2 ? GameMode.fromLabel(args[2]) : GameMode.CLASSIC;
+        boolean render = args.length > 3 && args[3].equals("--render");
+
+        AllocationBudgetCheck check = new AllocationBudgetCheck();
+        if (render) {
+            CountDownLatch done = new CountDownLatch(1);
+            Platform.startup(() -> check.measureRendered(frames, mode, done));
+            done.await();
+            Platform.exit();
+        } else {
+            HeadlessSimulation simulation = new HeadlessSimulation(800, 600, mode);
+            try {
+                for (int i = 0; i < WARMUP_FRAMES + frames; i++) {
+                    check.runFrame(simulation, null, i);
+                }
+            } finally {
+                simulation.shutdown();
+            }
+        }
+
+        double perFrame = check.steadyFrames > 0 ? check.steadyBytes / (double) check.steadyFrames : 0;
+        boolean withinBudget = perFrame <= budget;
+        System.out.printf("%s%s: %.1f bytes per steady frame over %d frames (max %d, budget %d): %s%n",
+                mode.getLabel(), render ? " with rendering" : "", perFrame, check.steadyFrames,
+                check.maxSteadyFrameBytes, budget, withinBudget ? "OK" : "OVER BUDGET");
+        System.out.printf("%d wave spawn/restart/banner frames allocated %d bytes in total%n",
+                check.transitionFrames, check.transitionBytes);
+        if (!withinBudget) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Shows the game view in a window and runs one frame per pulse, like the
+     * real game loop. The canvas only hands its queued drawing commands to
+     * the renderer on a pulse, so rendering many frames within one pulse
+     * would measure the command buffer growing instead of the game.
+     */
+    private void measureRendered(int frames, GameMode mode, CountDownLatch done) {
+        HeadlessSimulation simulation = new HeadlessSimulation(800, 600, mode);
+        GameViewBuilder view = new GameViewBuilder(simulation.getModel());
+        Stage stage = new Stage();
+        stage.setScene(new Scene(view.build(), 800, 600));
+        stage.show();
+
+        new AnimationTimer() {
+            private int frame = 0;
+
+            @Override
+            public void handle(long now) {
+                runFrame(simulation, view, frame++);
+                if (frame == WARMUP_FRAMES + frames) {
+                    stop();
+                    stage.hide();
+                    simulation.shutdown();
+                    done.countDown();
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Runs one frame and, once past the warmup, records what it allocated.
+     */
+    private void runFrame(HeadlessSimulation simulation, GameViewBuilder view, int frame) {
+        if (frame < WARMUP_FRAMES) {
+            step(simulation, view);
+            return;
+        }
+        if (threadIds == null) {
+            threadIds = threads.getAllThreadIds(); // includes the collision workers by now
+        }
+        GameModel model = simulation.getModel();
+        int wave = model.getWave();
+        long seed = model.getSeed();
+        boolean banner = model.isWaveBannerActive();
+        long before = allocatedBytes();
+        step(simulation, view);
+        long bytes = allocatedBytes() - before;
+
+        if (banner || model.isWaveBannerActive()
+                || model.getWave() != wave || model.getSeed() != seed) {
+            transitionBytes += bytes;
+            transitionFrames++;
+        } else {
+            steadyBytes += bytes;
+            steadyFrames++;
+            maxSteadyFrameBytes = Math.max(maxSteadyFrameBytes, bytes);
+        }
+    }
+
+    private static void step(HeadlessSimulation simulation, GameViewBuilder view) {
+        simulation.run(1);
+        if (view != null) {
+            view.render();
+        }
+    }
+
+    // Threads that ended in the meantime report -1
+    private long allocatedBytes() {
+        long total = 0;
+        for (long id : threadIds) {
+            long bytes = threads.getThreadAllocatedBytes(id);
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
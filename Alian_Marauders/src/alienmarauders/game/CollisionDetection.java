@@ -1,6 +1,7 @@
 package alienmarauders.game;
 
 import alienmarauders.game.entities.Entity;
+import alienmarauders.game.entities.EntityStore;
 
 public class CollisionDetection {
     /* 
@@ -15,5 +16,43 @@ public class CollisionDetection {
                b.getPositionY() + b.getHeight() > a.getPositionY();
 
     }
+
+    /*
+     * Same test as Aabb(Entity, Entity) for an entity and a stored entity,
+     * read straight from the store's arrays (whole pixels, like the getters).
+     *
+     * @param a     an entity
+     * @param store store holding the other entity
+     * @param slot  slot of the other entity
+     * @return true if the two entities are colliding
+     */
+    public static boolean Aabb(Entity a, EntityStore<?> store, int slot) {
+        int bx = (int) store.xs()[slot];
+        int by = (int) store.ys()[slot];
+        return a.getPositionX() + a.getWidth() > bx &&
+               bx + (int) store.widths()[slot] > a.getPositionX() &&
+               a.getPositionY() + a.getHeight() > by &&
+               by + (int) store.heights()[slot] > a.getPositionY();
+    }
+
+    /*
+     * Same test as Aabb(Entity, Entity) for two stored entities.
+     *
+     * @param a     store holding the first entity
+     * @param i     slot of the first entity
+     * @param b     store holding the second entity
+     * @param j     slot of the second entity
+     * @return true if the two entities are colliding
+     */
+    public static boolean Aabb(EntityStore<?> a, int i, EntityStore<?> b, int j) {
+        int ax = (int) a.xs()[i];
+        int ay = (int) a.ys()[i];
+        int bx = (int) b.xs()[j];
+        int by = (int) b.ys()[j];
+        return ax + (int) a.widths()[i] > bx &&
+               bx + (int) b.widths()[j] > ax &&
+               ay + (int) a.heights()[i] > by &&
+               by + (int) b.heights()[j] > ay;
+    }
     
 }
@@ -0,0 +1,222 @@
+package alienmarauders.game;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import alienmarauders.game.entities.EntityStore;
+import alienmarauders.game.entities.Shot;
+
+/**
+ * Runs the per-frame shot queries against a {@link SpatialHash}, serially or
+ * in parallel depending on the amount of work.
+ * <p>
+ * Handing work to other threads costs tens of microseconds per frame, which is
+ * more than a handful of grid queries. The scheduler therefore measures, once
+ * at startup, how long a parallel dispatch takes and how long one query takes,
+ * and only goes parallel when the shot count is above the break-even point.
+ * Above it the shots are split into contiguous chunks that run on a
+ * {@link ForkJoinPool}. Chunk tasks, the root task and the result array are
+ * allocated once and reused every frame.
+ * <p>
+ * Results are plain slots: {@code hits[i]} is the slot (in the grid's
+ * store) of the enemy hit by the shot in slot {@code i}, or -1. Applying them is left
+ * to the caller, on its own thread and in shot order.
+ */
+public class CollisionScheduler {
+
+    /** Smallest number of shots worth handing to a worker thread. */
+    private static final int MIN_CHUNK = 32;
+
+    /** Bounds for the calibrated threshold. */
+    private static final int MIN_THRESHOLD = 64;
+    private static final int MAX_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final ChunkTask[] chunks;
+    private final RootTask root = new RootTask();
+
+    private EntityStore<?> shots;
+    private int shotCount;
+    private SpatialHash grid;
+    private int[] hits = new int[64];
+
+    private final int parallelThreshold;
+
+    /**
+     * Creates a scheduler using all but one of the available processors and
+     * calibrates the serial/parallel threshold.
+     */
+    public CollisionScheduler() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates a scheduler with a given parallelism and calibrates the
+     * serial/parallel threshold.
+     *
+     * @param parallelism number of worker threads
+     */
+    public CollisionScheduler(int parallelism) {
+        pool = new ForkJoinPool(parallelism, p -> {
+            var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            worker.setDaemon(true);
+            worker.setName("Collision-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+
+        // A few chunks per worker so uneven cells still balance
+        chunks = new ChunkTask[parallelism * 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ChunkTask();
+        }
+        parallelThreshold = calibrate();
+    }
+
+    /**
+     * Returns the shot count from which queries run in parallel.
+     *
+     * @return calibrated threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Finds the first enemy hit by every shot.
+     *
+     * @param shots store holding the shots; dead slots get -1
+     * @param grid  grid over the live enemies, already rebuilt for this frame
+     * @return array where entry {@code i} is the enemy slot hit by shot slot
+     *         {@code i} or -1; only the first {@code shots.size()} entries are
+     *         valid and the array is reused by the next call
+     */
+    public int[] findHits(EntityStore<?> shots, SpatialHash grid) {
+        int count = shots.size();
+        if (hits.length < count) {
+            hits = new int[Math.max(count, hits.length * 2)];
+        }
+        this.shots = shots;
+        this.shotCount = count;
+        this.grid = grid;
+
+        if (count < parallelThreshold) {
+            query(0, count);
+        } else {
+            root.reinitialize();
+            pool.invoke(root);
+        }
+
+        this.shots = null;
+        this.grid = null;
+        return hits;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void query(int from, int to) {
+        for (int i = from; i < to; i++) {
+            hits[i] = shots.isAlive(i) ? grid.firstHit(shots, i) : -1;
+        }
+    }
+
+    /**
+     * Measures a parallel dispatch and a single query on synthetic data and
+     * returns the shot count where going parallel starts to pay off.
+     */
+    private int calibrate() {
+        EntityStore<Shot> enemies = new EntityStore<>(40);
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 10; col++) {
+                enemies.add(new Shot(60 + col * 70, 50 + row * 60, 40, 40, null));
+            }
+        }
+        EntityStore<Shot> probes = new EntityStore<>(1024);
+        for (int i = 0; i < 1024; i++) {
+            probes.add(new Shot((i * 37) % 800, (i * 53) % 600, 5, 15, null));
+        }
+        SpatialHash calibrationGrid = new SpatialHash();
+        calibrationGrid.rebuild(enemies, 800, 600);
+
+        long[] serial = new long[20];
+        long[] dispatch = new long[20];
+        for (int round = 0; round < 2; round++) { // first round only warms up the JIT
+            for (int i = 0; i < serial.length; i++) {
+                this.shots = probes;
+                this.shotCount = probes.size();
+                this.grid = calibrationGrid;
+                if (hits.length < probes.size()) {
+                    hits = new int[probes.size()];
+                }
+
+                long start = System.nanoTime();
+                query(0, probes.size());
+                serial[i] = System.nanoTime() - start;
+
+                // Dispatch cost: a parallel run over an empty range
+                this.shotCount = 0;
+                start = System.nanoTime();
+                root.reinitialize();
+                pool.invoke(root);
+                dispatch[i] = System.nanoTime() - start;
+            }
+        }
+        this.shots = null;
+        this.grid = null;
+
+        Arrays.sort(serial);
+        Arrays.sort(dispatch);
+        double perShotNanos = Math.max(1.0, serial[serial.length / 2] / (double) probes.size());
+        double dispatchNanos = dispatch[dispatch.length / 2];
+
+        // Parallel pays off once the saved query time clearly exceeds the handoff
+        long threshold = Math.round(2 * dispatchNanos / perShotNanos);
+        return (int) Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, threshold));
+    }
+
+    /**
+     * Splits the current shot range into chunks, forks all but the first and
+     * runs the first on the invoking thread.
+     */
+    private final class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            int count = shotCount;
+            int chunkCount = Math.max(1, Math.min(chunks.length, count / MIN_CHUNK));
+            for (int c = 0; c < chunkCount; c++) {
+                chunks[c].reinitialize();
+                chunks[c].from = (int) ((long) count * c / chunkCount);
+                chunks[c].to = (int) ((long) count * (c + 1) / chunkCount);
+            }
+            for (int c = 1; c < chunkCount; c++) {
+                chunks[c].fork();
+            }
+            chunks[0].compute();
+            for (int c = chunkCount - 1; c >= 1; c--) {
+                chunks[c].join();
+            }
+        }
+    }
+
+    /**
+     * Queries one contiguous range of shots.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            query(from, to);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package alienmarauders.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Collects per-phase timings of every frame in fixed-size ring buffers.
+ * <p>
+ * Code being measured takes a {@link #start()} timestamp and reports each
+ * finished phase with {@link #lap(Phase, long)}, which returns the timestamp
+ * for the next phase, so back-to-back phases cost one {@link System#nanoTime()}
+ * each. Times of a phase that runs several times per frame (several simulation
+ * ticks) add up. {@link #endFrame()} moves the frame's totals into the ring
+ * buffers, which hold the last {@value #CAPACITY} frames.
+ * <p>
+ * Recording never allocates. Percentiles for the performance HUD are
+ * recomputed only every {@value #STATS_INTERVAL} frames, and the buffers can
+ * be written to CSV with {@link #writeCsv(Path)}.
+ * <p>
+ * Not thread-safe; used from the JavaFX Application Thread only.
+ */
+public final class FrameProfiler {
+
+    /**
+     * Measured phases. The update phases are parts of {@link #UPDATE}, the
+     * render phases parts of {@link #RENDER}; {@link #FRAME} is all work of
+     * one frame.
+     */
+    public enum Phase {
+        PLAYER("Player"),
+        ENEMIES("Enemy movement"),
+        SHOTS("Shots"),
+        COLLISIONS("Collisions"),
+        CLEANUP("Cleanup"),
+        WAVE_SPAWN("Wave spawn"),
+        UPDATE("Update total"),
+        ENTITIES("Draw entities"),
+        ANIMATIONS("Draw animations"),
+        OVERLAYS("Draw overlays"),
+        RENDER("Render total"),
+        FRAME("Frame");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the name shown in the HUD and the CSV header.
+         *
+         * @return display label
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** Number of frames kept per phase (10 s at 60 fps). */
+    public static final int CAPACITY = 600;
+
+    /** Frames between two percentile updates. */
+    private static final int STATS_INTERVAL = 30;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long[][] samples = new long[PHASES.length][CAPACITY];
+    private final long[] current = new long[PHASES.length];
+    private final double[] p50Millis = new double[PHASES.length];
+    private final double[] p99Millis = new double[PHASES.length];
+    private final long[] scratch = new long[CAPACITY];
+
+    private int next;        // ring index the next frame is written to
+    private int count;       // frames stored, at most CAPACITY
+    private long frameNumber;
+    private int statsVersion;
+
+    /**
+     * Returns a timestamp to measure the first phase from.
+     *
+     * @return current {@link System#nanoTime()}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time since {@code since} to a phase of the current frame.
+     *
+     * @param phase phase that just finished
+     * @param since timestamp the phase started at
+     * @return current timestamp, the start of the next phase
+     */
+    public long lap(Phase phase, long since) {
+        long now = System.nanoTime();
+        current[phase.ordinal()] += now - since;
+        return now;
+    }
+
+    /**
+     * Stores the current frame's totals and starts a new frame.
+     */
+    public void endFrame() {
+        for (int p = 0; p < PHASES.length; p++) {
+            samples[p][next] = current[p];
+            current[p] = 0;
+        }
+        next = (next + 1) % CAPACITY;
+        if (count < CAPACITY) {
+            count++;
+        }
+        frameNumber++;
+        if (frameNumber % STATS_INTERVAL == 0) {
+            updatePercentiles();
+        }
+    }
+
+    /**
+     * Returns the number of frames currently stored.
+     *
+     * @return stored frame count, at most {@link #CAPACITY}
+     */
+    public int getFrameCount() {
+        return count;
+    }
+
+    /**
+     * Returns the time of a phase in a stored frame.
+     *
+     * @param phase phase to read
+     * @param age   0 for the latest frame, up to {@link #getFrameCount()} - 1
+     * @return phase time in milliseconds
+     */
+    public double getMillis(Phase phase, int age) {
+        int index = Math.floorMod(next - 1 - age, CAPACITY);
+        return samples[phase.ordinal()][index] / 1_000_000.0;
+    }
+
+    /**
+     * Returns a number that changes whenever the percentiles were updated, so
+     * views can rebuild their text only then.
+     *
+     * @return percentile update counter
+     */
+    public int getStatsVersion() {
+        return statsVersion;
+    }
+
+    /**
+     * Returns the median time of a phase as of the last percentile update.
+     *
+     * @param phase phase to read
+     * @return 50th percentile in milliseconds
+     */
+    public double getP50Millis(Phase phase) {
+        return p50Millis[phase.ordinal()];
+    }
+
+    /**
+     * Returns the 99th percentile of a phase as of the last percentile update.
+     *
+     * @param phase phase to read
+     * @return 99th percentile in milliseconds
+     */
+    public double getP99Millis(Phase phase) {
+        return p99Millis[phase.ordinal()];
+    }
+
+    /**
+     * Writes all stored frames to a CSV file, oldest first, one column per
+     * phase in milliseconds.
+     *
+     * @param file target file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("frame");
+            for (Phase phase : PHASES) {
+                out.write(',');
+                out.write(phase.getLabel());
+            }
+            out.newLine();
+
+            long firstFrame = frameNumber - count;
+            for (int age = count - 1; age >= 0; age--) {
+                out.write(Long.toString(firstFrame + count - 1 - age));
+                for (Phase phase : PHASES) {
+                    out.write(',');
+                    out.write(String.format(Locale.ROOT, "%.4f", getMillis(phase, age)));
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    private void updatePercentiles() {
+        for (int p = 0; p < PHASES.length; p++) {
+            System.arraycopy(samples[p], 0, scratch, 0, count);
+            Arrays.sort(scratch, 0, count);
+            p50Millis[p] = scratch[(count - 1) / 2] / 1_000_000.0;
+            p99Millis[p] = scratch[(int) ((count - 1) * 0.99)] / 1_000_000.0;
+        }
+        statsVersion++;
+    }
+}
@@ -0,0 +1,83 @@
+package alienmarauders.game;
+
+import javafx.scene.image.Image;
+
+/**
+ * Sprites used by the game model plus the sprite dimensions the simulation
+ * depends on.
+ * <p>
+ * The simulation only needs sizes (enemy frame size); images are only needed
+ * for drawing. {@link #load()} reads the real sprites, which requires a
+ * running JavaFX toolkit. {@link #headless()} provides the same dimensions
+ * without any images, so a {@link GameModel} can run in a plain JVM for
+ * benchmarks, soak tests and bots. Entities and effects created from headless
+ * assets simply have no image.
+ *
+ * @param enemySheets       enemy sprite sheets (one horizontal row of frames
+ *                          each); entries are {@code null} when headless
+ * @param enemyFrameCounts  frame count of each enemy sheet
+ * @param enemyWidth        width of one enemy frame in pixels
+ * @param enemyHeight       height of one enemy frame in pixels
+ * @param laserShot         sprite for player shots, or {@code null}
+ * @param muzzleFlashSheet  muzzle-flash sprite sheet, or {@code null}
+ * @param hitSparkSheet     hit-spark sprite sheet, or {@code null}
+ * @param explosionSheet    explosion sprite sheet, or {@code null}
+ */
+public record GameAssets(Image[] enemySheets,
+                         int[] enemyFrameCounts,
+                         double enemyWidth,
+                         double enemyHeight,
+                         Image laserShot,
+                         Image muzzleFlashSheet,
+                         Image hitSparkSheet,
+                         Image explosionSheet) {
+
+    // Matching frame counts: blue=4, green=2, red=2
+    private static final int[] ENEMY_FRAME_COUNTS = {4, 2, 2};
+
+    // Frame size of the monster sheets (BlueMonster.png is 128x32 with 4 frames)
+    private static final double HEADLESS_ENEMY_WIDTH = 32;
+    private static final double HEADLESS_ENEMY_HEIGHT = 32;
+
+    /**
+     * Loads the game sprites from the classpath. Requires the JavaFX toolkit.
+     *
+     * @return assets with images; enemy size derived from the first sheet
+     */
+    public static GameAssets load() {
+        Image[] sheets = {
+                new Image("/alienmarauders/images/BlueMonster.png"),
+                new Image("/alienmarauders/images/GreenMonster.png"),
+                new Image("/alienmarauders/images/RedMonster.png")
+        };
+        // Use the first sheet just to derive base width/height
+        double frameWidth = sheets[0].getWidth() / ENEMY_FRAME_COUNTS[0];
+        double frameHeight = sheets[0].getHeight();
+
+        return new GameAssets(sheets, ENEMY_FRAME_COUNTS.clone(), frameWidth, frameHeight,
+                new Image("/alienmarauders/images/Laser.png"),
+                new Image("/alienmarauders/images/muzzle_flash.png"),
+                new Image("/alienmarauders/images/blood_small.png"),
+                new Image("/alienmarauders/images/Explosion.png"));
+    }
+
+    /**
+     * Returns image-free assets with the real sprite dimensions. Does not
+     * touch the JavaFX toolkit.
+     *
+     * @return headless assets
+     */
+    public static GameAssets headless() {
+        return new GameAssets(new Image[ENEMY_FRAME_COUNTS.length], ENEMY_FRAME_COUNTS.clone(),
+                HEADLESS_ENEMY_WIDTH, HEADLESS_ENEMY_HEIGHT, null, null, null, null);
+    }
+
+    /**
+     * Returns whether these assets carry no images.
+     *
+     * @return {@code true} for {@link #headless()} assets
+     */
+    public boolean isHeadless() {
+        return laserShot == null;
+    }
+}
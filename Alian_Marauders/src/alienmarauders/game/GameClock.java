@@ -0,0 +1,133 @@
+package alienmarauders.game;
+
+/**
+ * Game time for one frame.
+ * <p>
+ * The clock turns the pulse timestamps of the game loop into the game time
+ * that passed since the previous frame. Game time can be paused and scaled,
+ * so the simulation and every animation stop or speed up together. Everything
+ * that animates takes its time step from here instead of reading
+ * {@link System#nanoTime()} itself.
+ */
+public final class GameClock {
+
+    private final double maxFrameMillis;
+
+    private boolean started;
+    private long lastNanos;
+    private double realDeltaMillis;
+    private double deltaMillis;
+    private double elapsedMillis;
+
+    private boolean paused;
+    private double timeScale = 1.0;
+
+    /**
+     * Creates a stopped clock.
+     *
+     * @param maxFrameMillis longest real frame time turned into game time;
+     *                       longer hitches are clamped to it
+     */
+    public GameClock(double maxFrameMillis) {
+        this.maxFrameMillis = maxFrameMillis;
+    }
+
+    /**
+     * Forgets the last timestamp, so the next {@link #tick} starts measuring
+     * again and returns zero. Elapsed game time starts over too.
+     */
+    public void reset() {
+        started = false;
+        realDeltaMillis = 0;
+        deltaMillis = 0;
+        elapsedMillis = 0;
+    }
+
+    /**
+     * Advances the clock to a new frame.
+     *
+     * @param nowNanos timestamp of the frame in nanoseconds, e.g. the value
+     *                 passed to {@code AnimationTimer.handle}
+     * @return game time of this frame in milliseconds
+     */
+    public double tick(long nowNanos) {
+        if (!started) {
+            started = true;
+            lastNanos = nowNanos;
+            realDeltaMillis = 0;
+            deltaMillis = 0;
+            return 0;
+        }
+        realDeltaMillis = (nowNanos - lastNanos) / 1_000_000.0;
+        lastNanos = nowNanos;
+        deltaMillis = paused ? 0 : Math.min(realDeltaMillis, maxFrameMillis) * timeScale;
+        elapsedMillis += deltaMillis;
+        return deltaMillis;
+    }
+
+    /**
+     * Returns the game time of the last frame.
+     *
+     * @return scaled and clamped frame time in milliseconds, zero while paused
+     */
+    public double getDeltaMillis() {
+        return deltaMillis;
+    }
+
+    /**
+     * Returns the real time between the last two frames.
+     *
+     * @return unscaled frame interval in milliseconds
+     */
+    public double getRealDeltaMillis() {
+        return realDeltaMillis;
+    }
+
+    /**
+     * Returns the game time passed since the last {@link #reset()}.
+     *
+     * @return elapsed game time in milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Stops or resumes game time.
+     *
+     * @param paused {@code true} to stop game time
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Returns whether game time is stopped.
+     *
+     * @return {@code true} if paused
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Sets how fast game time runs compared to real time.
+     *
+     * @param timeScale factor applied to real time, e.g. 2 for double speed
+     */
+    public void setTimeScale(double timeScale) {
+        if (!(timeScale > 0)) {
+            throw new IllegalArgumentException("Time scale must be positive: " + timeScale);
+        }
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Returns how fast game time runs compared to real time.
+     *
+     * @return time scale factor
+     */
+    public double getTimeScale() {
+        return timeScale;
+    }
+}
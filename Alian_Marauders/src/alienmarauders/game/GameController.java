@@ -1,7 +1,12 @@
 package alienmarauders.game;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import alienmarauders.SwitchModel;
 import alienmarauders.game.entities.Player;
+import alienmarauders.game.replay.ReplayPlayer;
+import alienmarauders.game.replay.ReplayRecorder;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.image.Image;
@@ -16,13 +21,38 @@ import javafx.scene.layout.Region;
 public class GameController {
 
     private final GameModel model;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private boolean profilerHudVisible = false;
     private final SwitchModel switchModel;
     private final GameViewBuilder viewBuilder;
     private final Region root;
 
+    /** Length of one simulation tick (60 ticks per second). */
+    static final double TICK_MILLIS = 1000.0 / 60.0;
+
+    /** Longest frame time fed into the simulation; longer hitches are dropped. */
+    private static final double MAX_FRAME_MILLIS = 250.0;
+
+    /** Most ticks run in one frame, so a slow tick cannot snowball. */
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
+    /** System property with the game speed factor, e.g. 2 to fast-forward a replay. */
+    public static final String TIME_SCALE_PROPERTY = "alienmarauders.timeScale";
+
     private AnimationTimer gameLoop;
+    private final GameClock clock = new GameClock(MAX_FRAME_MILLIS);
     private boolean firstFrame = true;
-    private long lastNanoTime;
+    private double accumulatorMillis;
+
+    // Smoothed frame interval and per-frame work (update + render) for the readout
+    private static final double FRAME_STATS_SMOOTHING = 0.1;
+    private double frameMillis = TICK_MILLIS;
+    private double workMillis;
+
+    // Optional session recording and playback (see ReplayRecorder, ReplayPlayer)
+    private final Path recordDirectory = ReplayRecorder.getDirectory();
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private ReplayPlayer replayPlayer;
 
     /**
      * Creates a new game controller and initializes the game model and view.
@@ -36,14 +66,28 @@ public class GameController {
         Player player = new Player(200.0, 300.0, 60.0, 60.0, playerImage);
 
         this.model = new GameModel(player);
+        this.model.setProfiler(profiler);
 
         this.viewBuilder = new GameViewBuilder(model);
         this.viewBuilder.setOnBack(this::onBackToMain);
         this.viewBuilder.setOnRestart(this::onRestartGame);
+        this.viewBuilder.setOnToggleProfiler(this::onToggleProfiler);
+        this.viewBuilder.setOnDumpProfile(this::onDumpProfile);
+        this.viewBuilder.setOnTogglePause(this::onTogglePause);
         this.viewBuilder.withSwitchModel(switchModel);
 
         this.root = viewBuilder.build(); // build once (no UI rebuild surprises)
 
+        try {
+            this.replayPlayer = ReplayPlayer.fromProperty();
+        } catch (IOException e) {
+            System.err.println("Could not load replay: " + e.getMessage());
+        }
+        String timeScale = System.getProperty(TIME_SCALE_PROPERTY);
+        if (timeScale != null) {
+            clock.setTimeScale(Double.parseDouble(timeScale));
+        }
+
         initializeGameLoop();
     }
 
@@ -69,6 +113,34 @@ public class GameController {
         Platform.runLater(viewBuilder::requestCanvasFocus);
     }
 
+    /**
+     * Shows or hides the profiler HUD.
+     */
+    private void onToggleProfiler() {
+        profilerHudVisible = !profilerHudVisible;
+        viewBuilder.setProfilerHudVisible(profilerHudVisible);
+    }
+
+    /**
+     * Stops or resumes game time; the simulation and all animations freeze together.
+     */
+    private void onTogglePause() {
+        clock.setPaused(!clock.isPaused());
+    }
+
+    /**
+     * Writes the recorded frame timings to a CSV file in the working directory.
+     */
+    private void onDumpProfile() {
+        Path file = Path.of("frame-profile-" + System.currentTimeMillis() + ".csv");
+        try {
+            profiler.writeCsv(file);
+            System.out.println("Frame profile written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Could not write frame profile: " + e.getMessage());
+        }
+    }
+
     /**
      * Starts the game loop and resets the model using the provided play-area size.
      *
@@ -76,8 +148,20 @@ public class GameController {
      * @param h play area height in pixels
      */
     public void startGameLoop(double w, double h) {
-        model.reset(w, h);
+        if (replayPlayer != null) {
+            replayPlayer.start(model); // recorded mode, seed and play size
+        } else {
+            model.setGameMode(GameMode.fromLabel(switchModel.gameMode.get()));
+            model.reset(w, h);
+        }
+        viewBuilder.setRenderBackend(RenderBackend.fromLabel(switchModel.renderBackend.get()));
+        if (recordDirectory != null) {
+            recorder.start(model, TICK_MILLIS);
+        }
         firstFrame = true;
+        clock.reset();
+        clock.setPaused(false);
+        accumulatorMillis = 0;
         gameLoop.start();
     }
 
@@ -102,7 +186,8 @@ public class GameController {
     }
 
     /**
-     * Stops the game loop animation timer if it is currently running.
+     * Stops the game loop animation timer if it is currently running and
+     * saves the session if it was being recorded.
      * This does not shut down background resources in the model, so the
      * game can be started again later.
      */
@@ -110,6 +195,13 @@ public class GameController {
         if (gameLoop != null) {
             gameLoop.stop();
         }
+        if (recorder.isRecording()) {
+            try {
+                recorder.finishAndSave(model, recordDirectory);
+            } catch (IOException e) {
+                System.err.println("Could not save replay: " + e.getMessage());
+            }
+        }
     }
 
     /**
@@ -121,6 +213,8 @@ public class GameController {
      *   <li>Delegates to {@link GameModel#shutdown()} to terminate
      *       the internal executor service used for concurrent collision
      *       detection.</li>
+     *   <li>Shuts down the view, which stops the pixel buffer
+     *       renderer's worker threads.</li>
      * </ul>
      * It should be called once when the application is being closed, and
      * the controller will no longer be used afterwards.
@@ -128,6 +222,7 @@ public class GameController {
     public void shutdown() {
         stopGameLoop();
         model.shutdown();
+        viewBuilder.shutdown();
     }
 
     /**
@@ -141,30 +236,66 @@ public class GameController {
 
     /**
      * Initializes the AnimationTimer game loop used to update and render the game.
-     * Behavior is identical to the previous version.
+     * <p>
+     * The {@link GameClock} turns each pulse into game time, which is paused
+     * (P) or scaled there. The simulation runs in fixed ticks of
+     * {@link #TICK_MILLIS}: game time is accumulated and consumed one tick at a
+     * time, so the simulation costs the same on 60 Hz and 240 Hz displays and a
+     * hitch never produces one huge step. Frame time is clamped and the ticks
+     * per frame are capped (the rest is dropped) to avoid a spiral of death.
+     * Sprite and effect animations then advance once by the frame's game time,
+     * and rendering interpolates between the last two ticks using the leftover
+     * fraction of a tick.
+     * Every phase of the frame is timed into the {@link FrameProfiler}
+     * (F3 shows the HUD, F4 writes a CSV).
      */
     private void initializeGameLoop() {
         gameLoop = new AnimationTimer() {
             @Override
             public void handle(long currentNanoTime) {
+                double gameMillis = clock.tick(currentNanoTime);
                 if (firstFrame) {
-                    lastNanoTime = currentNanoTime;
                     firstFrame = false;
                     return;
                 }
 
-                long elapsedNanos = currentNanoTime - lastNanoTime;
-                lastNanoTime = currentNanoTime;
-                double deltaMillis = elapsedNanos / 1_000_000.0;
+                long workStart = System.nanoTime();
+                double deltaMillis = clock.getRealDeltaMillis();
 
-                // update model
-                model.update(deltaMillis);
+                // update model in fixed ticks
+                long phaseStart = workStart;
+                accumulatorMillis += gameMillis;
+                int ticks = 0;
+                while (accumulatorMillis >= TICK_MILLIS && ticks < MAX_TICKS_PER_FRAME) {
+                    if (replayPlayer != null && !replayPlayer.applyNextTick(model)) {
+                        break; // recording is over
+                    }
+                    model.update(TICK_MILLIS);
+                    recorder.recordTick(model.getTickInput());
+                    accumulatorMillis -= TICK_MILLIS;
+                    ticks++;
+                }
+                if (accumulatorMillis >= TICK_MILLIS) {
+                    accumulatorMillis %= TICK_MILLIS; // fell behind: drop whole ticks
+                }
+                model.animate(gameMillis);
+                phaseStart = profiler.lap(FrameProfiler.Phase.UPDATE, phaseStart);
 
-                // render
+                // render, interpolated between the last two ticks
+                model.setRenderAlpha(accumulatorMillis / TICK_MILLIS);
+                viewBuilder.setFrameStats(frameMillis, workMillis);
                 viewBuilder.render();
+                long workEnd = profiler.lap(FrameProfiler.Phase.RENDER, phaseStart);
+                profiler.lap(FrameProfiler.Phase.FRAME, workStart);
+                profiler.endFrame();
+
+                double frameWork = (workEnd - workStart) / 1_000_000.0;
+                frameMillis += (deltaMillis - frameMillis) * FRAME_STATS_SMOOTHING;
+                workMillis += (frameWork - workMillis) * FRAME_STATS_SMOOTHING;
 
-                // check for game over
-                if (model.isGameOver() && !model.isFlashRed()) {
+                // check for game over (or the end of a played recording)
+                boolean replayOver = replayPlayer != null && replayPlayer.isFinished();
+                if ((model.isGameOver() && !model.isFlashRed()) || replayOver) {
                     Platform.runLater(GameController.this::stopGameLoop);
                 }
             }
@@ -0,0 +1,49 @@
+package alienmarauders.game;
+
+/**
+ * Selectable game modes.
+ * <p>
+ * The settings menu stores the mode as its label in
+ * {@code SwitchModel#gameMode}; {@link #fromLabel(String)} maps it back.
+ */
+public enum GameMode {
+
+    /** Regular waves of a few dozen enemies. */
+    CLASSIC("Classic"),
+
+    /**
+     * Stress mode: waves of tens of thousands of enemies, spread fire with
+     * thousands of shots in flight and an on-screen performance readout.
+     */
+    SWARM("Swarm");
+
+    private final String label;
+
+    GameMode(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name shown in the settings menu.
+     *
+     * @return display label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the mode with the given label.
+     *
+     * @param label display label, may be {@code null}
+     * @return the matching mode, or {@link #CLASSIC} if none matches
+     */
+    public static GameMode fromLabel(String label) {
+        for (GameMode mode : values()) {
+            if (mode.label.equals(label)) {
+                return mode;
+            }
+        }
+        return CLASSIC;
+    }
+}
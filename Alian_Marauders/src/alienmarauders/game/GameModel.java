@@ -1,94 +1,98 @@
 package alienmarauders.game;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import alienmarauders.game.entities.*;
 import alienmarauders.game.movement.*;
 import alienmarauders.game.formation.*;
-import alienmarauders.game.graphics.Animatable;
-import alienmarauders.game.graphics.AnimationContainer;
-import alienmarauders.game.graphics.ExplosionAnimation;
-import alienmarauders.game.graphics.HitSparkAnimation;
-import alienmarauders.game.graphics.ShotFlashAnimation;
+import alienmarauders.game.graphics.EffectSystem;
+import alienmarauders.game.graphics.SpriteAtlas;
 import javafx.scene.image.Image;
 
 /**
  * Core game model holding all game state (player, enemies, shots, score).
  * <p>
- * The model is updated once per frame from the JavaFX Application Thread
- * via {@link #update(double)}. Collision detection is processed using a
- * thread pool so that collision checks and score updates are performed in
- * a concurrent, but thread-safe, fashion.
+ * The model is updated once per simulation tick via {@link #update(double)},
+ * normally from the JavaFX Application Thread. It only needs sprite sizes,
+ * not a JavaFX toolkit, when built with {@link GameAssets#headless()}.
+ * Collision checks may run on worker threads (see {@link CollisionScheduler})
+ * while score updates stay on the calling thread, so processing is
+ * concurrent, but thread-safe.
  */
 public class GameModel {
 
+    /** Input mask bit for the fire button, next to the {@code Player.INPUT_*} bits. */
+    public static final int INPUT_SHOOT = 1 << 4;
+
     private final Player player;
-    private final ArrayList<Enemy> enemies = new ArrayList<>();
-    private final ArrayList<Shot> shots = new ArrayList<>();
+    private final EntityStore<Enemy> enemies = new EntityStore<>(64);
+    private final EntityStore<Shot> shots;
+
+    // Movement shared by every enemy of the current wave
+    private MovementStrategy waveMovement = new NoMovementStrategy();
     private final Score score = new Score();
 
-    // Shooting state: true while SPACE is held
+    // Shooting state: true while SPACE is held (latched once per tick)
+    private boolean shootHeld = false;
     private boolean shooting = false;
 
     // Shooting cooldown (ms) and timer
-    private double shotCooldownMillis = 150; // tweak: smaller = faster fire
+    private double shotCooldownMillis = 75; // tweak: smaller = faster fire
     private double shotTimer = 0;
 
-    // Enemy sprite sheets (each is a row of animation frames)
-    private final Image blueMonsterSheet =
-            new Image("/alienmarauders/images/BlueMonster.png");
-    private final Image greenMonsterSheet =
-            new Image("/alienmarauders/images/GreenMonster.png");
-    private final Image redMonsterSheet =
-            new Image("/alienmarauders/images/RedMonster.png");
-
-    private final Image[] enemySheets = {
-            blueMonsterSheet,
-            greenMonsterSheet,
-            redMonsterSheet
-    };
-
-    // Matching frame counts: blue=4, green=2, red=2
-    private final int[] enemyFrameCounts = {
-            4,  // Blue
-            2,  // Green
-            2   // Red
-    };
-
-    // Sprite used for the actual player shots
-    private final Image laserShotImage =
-            new Image("/alienmarauders/images/Laser.png");
-
-    // Muzzle-flash sprite sheet (3 frames in a horizontal row)
-    private final Image muzzleFlashSheet =
-            new Image("/alienmarauders/images/muzzle_flash.png");
+    // ----- Swarm stress mode (see GameMode#SWARM) -----
 
-    private static final int MUZZLE_FLASH_FRAMES = 3;
+    private GameMode gameMode = GameMode.CLASSIC;
 
-        // Hit spark sprite sheet (small blood-like explosion)
-    private final Image hitSparkSheet =
-            new Image("/alienmarauders/images/blood_small.png");
+    // Enemies in the first swarm wave, added per wave, and the cap
+    private static final int SWARM_BASE_ENEMIES = 10_000;
+    private static final int SWARM_ENEMIES_PER_WAVE = 5_000;
+    private static final int SWARM_MAX_ENEMIES = 50_000;
 
-    // Number of frames in blood_small.png (horizontal sheet)
-    private static final int HIT_SPARK_FRAMES = 6;
+    // Spread fire: shots per volley, their horizontal gap and the volley cooldown
+    private static final int SWARM_VOLLEY_SHOTS = 64;
+    private static final double SWARM_VOLLEY_SPACING = 12;
+    private static final double SWARM_COOLDOWN_MILLIS = 20;
 
+    // Sprites and the sprite dimensions the simulation depends on
+    private final GameAssets assets;
 
-    // Explosion sprite sheet (short-lived death animation)
-    private final Image explosionSheet =
-            new Image("/alienmarauders/images/Explosion.png");
+    // Muzzle-flash sprite sheet: 3 frames in a horizontal row
+    private static final int MUZZLE_FLASH_FRAMES = 3;
+
+    // Number of frames in blood_small.png (horizontal sheet)
+    private static final int HIT_SPARK_FRAMES = 6;
 
     // Number of frames in Explosion.png (horizontal sprite sheet)
     private static final int EXPLOSION_FRAMES = 8;
 
-    // Container for short-lived animations (e.g., explosions)
-    private final AnimationContainer<Animatable> animations = 
-            new AnimationContainer<>();
+    // Most effects playing at once; swarm volleys hit many enemies per tick
+    private static final int EFFECT_CAPACITY = 4096;
+
+    // Short-lived effects (muzzle flashes, hit sparks, explosions)
+    private final EffectSystem effects = new EffectSystem(EFFECT_CAPACITY);
+    private final int muzzleFlashKind;
+    private final int hitSparkKind;
+    private final int explosionKind;
+
+    // ----- Pools: firing and hits reuse these instead of allocating -----
+
+    private static final double SHOT_WIDTH = 5;
+    private static final double SHOT_HEIGHT = 15;
+
+    // Large enough for swarm volleys: 64 shots every 20 ms for about a second of flight
+    private static final int SHOT_POOL_SIZE = 4096;
+
+    private final ObjectPool<Shot> shotPool;
+
+    // Created once so passing it per frame does not allocate
+    private final Consumer<Shot> releaseShot;
 
     private double playWidth = 800;
     private double playHeight = 600;
@@ -102,49 +106,137 @@ public class GameModel {
     private double waveMillisRemaining = 0;
     private String waveText = "";
 
-    private final Random rng = new Random();
+    // ----- Wave preparation -----
+
+    /** How long the wave banner shows; the wave is prepared meanwhile. */
+    private static final double WAVE_BANNER_MILLIS = 1200;
+
+    // Enemies of finished waves, revived by the next formations
+    private final EnemyPool enemyPool = new EnemyPool();
+    private final Consumer<Enemy> releaseEnemy = enemyPool::release;
+
+    /**
+     * Builds the next wave's enemies while its banner shows. The preparing
+     * thread uses {@link #rng} and {@link #enemyPool}; the game thread leaves
+     * both alone until {@link #installPreparedWave()} has joined it.
+     */
+    private final ExecutorService wavePreparer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Wave-preparer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<PreparedWave> pendingWave;
+
+    /** Enemies and their shared movement, ready to be stored. */
+    private record PreparedWave(MovementStrategy movement, ArrayList<Enemy> enemies) {
+    }
+
+    // Picks formations, movements and enemy sprites; reseeded for every game
+    private final Random rng;
+    private long seed;
 
     // ----- Concurrency support for collisions -----
 
     /**
-     * Executor used to process collision checks concurrently.
-     * All tasks are short-lived and CPU-bound.
+     * Runs collision queries serially for small loads and on a fork/join
+     * pool above its calibrated threshold.
      */
-    private final ExecutorService collisionExecutor =
-            Executors.newFixedThreadPool(
-                    Math.max(2, Runtime.getRuntime().availableProcessors() - 1)
-            );
+    private final CollisionScheduler collisionScheduler = new CollisionScheduler();
+
+    /** Broad phase over the live enemies, rebuilt once per frame. */
+    private final SpatialHash enemyGrid = new SpatialHash();
+
+    // Times the update phases; replaced by the controller's profiler
+    private FrameProfiler profiler = new FrameProfiler();
 
     /**
-     * Simple data holder for a collision result between a shot and an enemy.
+     * Creates a model that loads the game sprites. Requires the JavaFX toolkit.
      *
-     * @param shot  shot that hit an enemy
-     * @param enemy enemy that was hit
+     * @param player the player entity
      */
-    private record CollisionResult(Shot shot, Enemy enemy) {}
-
     public GameModel(Player player) {
+        this(player, GameAssets.load());
+    }
+
+    /**
+     * Creates a model with the given assets. With {@link GameAssets#headless()}
+     * the model runs without JavaFX, e.g. for benchmarks and soak tests.
+     *
+     * @param player the player entity
+     * @param assets sprites and sprite dimensions
+     */
+    public GameModel(Player player, GameAssets assets) {
+        this(player, assets, new Random());
+    }
+
+    /**
+     * Creates a model whose waves are picked by the given random generator.
+     * A seeded generator makes the sequence of games repeatable, e.g. so
+     * benchmark runs are comparable. Each game reseeds it, see
+     * {@link #reset(double, double, long)}.
+     *
+     * @param player the player entity
+     * @param assets sprites and sprite dimensions
+     * @param rng    random generator for formations, movements and sprites
+     */
+    public GameModel(Player player, GameAssets assets, Random rng) {
         this.player = player;
+        this.assets = assets;
+        this.rng = rng;
+
+        // Every shot comes from the pool, so the store never has to grow
+        shots = new EntityStore<>(SHOT_POOL_SIZE);
+        shotPool = new ObjectPool<>(SHOT_POOL_SIZE,
+                () -> new Shot(0, 0, SHOT_WIDTH, SHOT_HEIGHT, assets.laserShot()));
+        releaseShot = shotPool::release;
+
+        muzzleFlashKind = effects.registerKind(assets.muzzleFlashSheet(),
+                MUZZLE_FLASH_FRAMES, 50.0); // ms per frame → quick muzzle flash
+        hitSparkKind = effects.registerKind(assets.hitSparkSheet(),
+                HIT_SPARK_FRAMES, 60.0); // ms per frame → fairly quick hit effect
+        explosionKind = effects.registerKind(assets.explosionSheet(),
+                EXPLOSION_FRAMES, 60.0); // ms per frame; tweak for desired speed
+
+        if (SpriteAtlas.isEnabled() && !assets.isHeadless()) {
+            Image[] sheets = assets.enemySheets();
+            SpriteAtlas.install(SpriteAtlas.pack(
+                    player.getImage(), sheets[0], sheets[1], sheets[2], assets.laserShot(),
+                    assets.muzzleFlashSheet(), assets.hitSparkSheet(), assets.explosionSheet()));
+        }
     }
 
     public Player getPlayer() { return player; }
-    public ArrayList<Enemy> getEnemies() { return enemies; }
-    public ArrayList<Shot> getShots() { return shots; }
+    public EntityStore<Enemy> getEnemies() { return enemies; }
+    public EntityStore<Shot> getShots() { return shots; }
     public Score getScore() { return score; }
     public boolean isGameOver() { return gameOver; }
+    public GameMode getGameMode() { return gameMode; }
+    public long getSeed() { return seed; }
+    public double getPlayWidth() { return playWidth; }
+    public double getPlayHeight() { return playHeight; }
     public int getWave() { return wave; }
     public boolean isFlashRed() { return flashMillisRemaining > 0; }
     public boolean isWaveBannerActive() { return waveMillisRemaining > 0; }
     public String getWaveText() { return waveText; }
-    public AnimationContainer<Animatable> getAnimations() { return animations; }
+    public EffectSystem getEffects() { return effects; }
+    public FrameProfiler getProfiler() { return profiler; }
+
+    /**
+     * Sets the profiler that receives the timings of the update phases.
+     *
+     * @param profiler the profiler to report to
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
 
     /**
      * Spawns a single player shot at the top-center of the player sprite
      * and adds a short muzzle-flash animation at the gun barrel.
      */
     public void playerShoot() {
-        double shotWidth = 5;
-        double shotHeight = 15;
+        double shotWidth = SHOT_WIDTH;
+        double shotHeight = SHOT_HEIGHT;
 
         double px = player.getPositionX();
         double py = player.getPositionY();
@@ -153,14 +245,51 @@ public class GameModel {
         double shotX = px + pWidth / 2 - shotWidth / 2;
         double shotY = py - shotHeight;
 
-        // Use Laser.png for the actual shot sprite
-        shots.add(new Shot(shotX, shotY, shotWidth, shotHeight, laserShotImage));
+        // Pooled shots already use Laser.png as their sprite
+        Shot shot = shotPool.acquire();
+        if (shot == null) {
+            return; // every pooled shot is in flight
+        }
+        shot.reset(shotX, shotY);
+        shots.add(shot);
 
         // Add muzzle flash at the barrel when the shot is fired
         addShotMuzzleFlash(shotX, shotY, shotWidth, shotHeight);
     }
 
 
+    /**
+     * Fires a swarm-mode volley: a row of shots spread horizontally around
+     * the player, with a single muzzle flash in the middle.
+     */
+    private void fireVolley() {
+        double px = player.getPositionX();
+        double py = player.getPositionY();
+        double centerX = px + player.getWidth() / 2.0 - SHOT_WIDTH / 2.0;
+        double shotY = py - SHOT_HEIGHT;
+
+        for (int i = 0; i < SWARM_VOLLEY_SHOTS; i++) {
+            Shot shot = shotPool.acquire();
+            if (shot == null) {
+                break; // every pooled shot is in flight
+            }
+            double offset = (i - (SWARM_VOLLEY_SHOTS - 1) / 2.0) * SWARM_VOLLEY_SPACING;
+            shot.reset(centerX + offset, shotY);
+            shots.add(shot);
+        }
+
+        addShotMuzzleFlash(centerX, shotY, SHOT_WIDTH, SHOT_HEIGHT);
+    }
+
+    /**
+     * Selects the game mode. Takes effect with the next {@link #reset}.
+     *
+     * @param gameMode the mode to play
+     */
+    public void setGameMode(GameMode gameMode) {
+        this.gameMode = gameMode;
+    }
+
     /**
      * Enables or disables continuous shooting. Typically called from the
      * keyboard handler when SPACE is pressed or released.
@@ -168,7 +297,40 @@ public class GameModel {
      * @param shooting true if the player should currently be firing
      */
     public void setShooting(boolean shooting) {
-        this.shooting = shooting;
+        this.shootHeld = shooting;
+    }
+
+    /**
+     * Returns the input the current tick was simulated with: the player's
+     * movement bits plus {@link #INPUT_SHOOT}.
+     *
+     * @return input mask latched at the start of the last {@link #update}
+     */
+    public int getTickInput() {
+        return player.getInputMask() | (shooting ? INPUT_SHOOT : 0);
+    }
+
+    /**
+     * Holds the keys of an input mask until the next call, replacing the
+     * keyboard state. The next {@link #update} samples it as usual.
+     *
+     * @param mask input mask as returned by {@link #getTickInput()}
+     */
+    public void applyInput(int mask) {
+        player.setHeldInput(mask);
+        shootHeld = (mask & INPUT_SHOOT) != 0;
+    }
+
+    /**
+     * Sets how far rendering is between the previous and the current
+     * simulation tick, so moving entities are drawn interpolated.
+     *
+     * @param alpha interpolation factor in [0, 1]
+     */
+    public void setRenderAlpha(double alpha) {
+        player.setRenderAlpha(alpha);
+        enemies.setRenderAlpha(alpha);
+        shots.setRenderAlpha(alpha);
     }
 
     /**
@@ -189,13 +351,18 @@ public class GameModel {
         }
 
         if (shotTimer <= 0) {
-            playerShoot();
-            shotTimer = shotCooldownMillis;
+            if (gameMode == GameMode.SWARM) {
+                fireVolley();
+                shotTimer = SWARM_COOLDOWN_MILLIS;
+            } else {
+                playerShoot();
+                shotTimer = shotCooldownMillis;
+            }
         }
     }
 
     /**
-     * Adds a short muzzle-flash animation at the position where a new
+     * Adds a short muzzle-flash effect at the position where a new
      * player shot has just been spawned.
      *
      * @param shotX      the x coordinate of the newly spawned shot
@@ -215,22 +382,12 @@ public class GameModel {
         double fx = shotX + (shotWidth - flashWidth) / 2.0;
         double fy = shotY + (shotHeight - flashHeight) / 2.0 + 2.0; 
 
-        ShotFlashAnimation flash = new ShotFlashAnimation(
-                fx,
-                fy,
-                flashWidth,
-                flashHeight,
-                muzzleFlashSheet,
-                MUZZLE_FLASH_FRAMES,
-                50.0 // ms per frame → quick muzzle flash
-        );
-
-        animations.addAnimation(flash);
+        effects.spawn(muzzleFlashKind, fx, fy, flashWidth, flashHeight);
     }
 
 
     /**
-     * Creates a hit spark animation when a shot hits an enemy.
+     * Creates a hit spark effect when a shot hits an enemy.
      * <p>
      * The spark is positioned roughly at the center of the enemy sprite and
      * uses the blood_small.png sprite sheet to play a short non-looping
@@ -246,22 +403,12 @@ public class GameModel {
         double sparkX = enemy.getPositionX() + (enemy.getWidth() - sparkWidth) / 2.0;
         double sparkY = enemy.getPositionY() + (enemy.getHeight() - sparkHeight) / 2.0;
 
-        HitSparkAnimation spark = new HitSparkAnimation(
-                sparkX,
-                sparkY,
-                sparkWidth,
-                sparkHeight,
-                hitSparkSheet,
-                HIT_SPARK_FRAMES,
-                60.0 // ms per frame → fairly quick hit effect
-        );
-
-        animations.addAnimation(spark);
+        effects.spawn(hitSparkKind, sparkX, sparkY, sparkWidth, sparkHeight);
     }
 
     /**
-     * Adds an explosion animation for a given enemy to the animation
-     * container. The explosion is positioned at the enemy's current
+     * Adds an explosion effect for a given enemy to the effect system.
+     * The explosion is positioned at the enemy's current
      * location and uses the enemy's width and height.
      *
      * @param enemy the enemy that has just died
@@ -272,32 +419,39 @@ public class GameModel {
         double ew = enemy.getWidth();
         double eh = enemy.getHeight();
 
-        ExplosionAnimation explosion = new ExplosionAnimation(
-                ex,
-                ey,
-                ew,
-                eh,
-                explosionSheet,
-                EXPLOSION_FRAMES,
-                60.0 // ms per frame; tweak for desired speed
-        );
-
-        animations.addAnimation(explosion);
+        effects.spawn(explosionKind, ex, ey, ew, eh);
     }
 
     /**
      * Called when game starts or restarts.
-     * Resets all game state and spawns the first wave.
+     * Resets all game state and spawns the first wave with a fresh seed.
      *
      * @param playWidth  current playfield width in pixels
      * @param playHeight current playfield height in pixels
      */
     public void reset(double playWidth, double playHeight) {
+        discardPendingWave(); // before drawing the seed: the preparer still uses rng
+        reset(playWidth, playHeight, rng.nextLong());
+    }
+
+    /**
+     * Resets all game state and spawns the first wave. The same seed, play
+     * size and per-tick input always produce the same game.
+     *
+     * @param playWidth  playfield width in pixels
+     * @param playHeight playfield height in pixels
+     * @param seed       seed for formations, movements and sprites
+     */
+    public void reset(double playWidth, double playHeight, long seed) {
+        discardPendingWave(); // it still uses rng
+        this.seed = seed;
+        rng.setSeed(seed);
+
         this.playWidth = playWidth;
         this.playHeight = playHeight;
 
-        enemies.clear();
-        shots.clear();
+        enemies.clear(releaseEnemy);
+        shots.clear(releaseShot);
         score.resetScore();
 
         gameOver = false;
@@ -305,6 +459,7 @@ public class GameModel {
         speedMultiplier = 1.0;
         flashMillisRemaining = 0;
 
+        shootHeld = false;
         shooting = false;
         shotTimer = 0;
 
@@ -314,20 +469,45 @@ public class GameModel {
     }
 
     /**
-     * Main game update step, called once per frame from the JavaFX
-     * Application Thread by the game controller.
+     * Advances the enemy sprite animations and the short-lived effects by the
+     * game time of one frame; finished effects leave the {@link EffectSystem}.
+     * Called once per frame with the {@link GameClock} delta, separately from
+     * the fixed simulation ticks; animations do not affect the simulation.
+     *
+     * @param deltaMillis game time of the frame in milliseconds
+     */
+    public void animate(double deltaMillis) {
+        if (deltaMillis <= 0) {
+            return;
+        }
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            enemies.get(i).animate(deltaMillis);
+        }
+        effects.update(deltaMillis);
+    }
+
+    /**
+     * Main game update step, called once per fixed simulation tick from the
+     * JavaFX Application Thread by the game controller.
      * <p>
      * This method:
      * <ul>
+     *   <li>Remembers positions for render interpolation and samples input.</li>
      *   <li>Updates timers and early-exits during wave intro.</li>
      *   <li>Steps the player, enemies and shots.</li>
-     *   <li>Processes collisions using a thread pool.</li>
+     *   <li>Processes collisions (in parallel when there are many shots).</li>
      *   <li>Advances to the next wave when all enemies are dead.</li>
      * </ul>
      *
-     * @param deltaTimeMillis time elapsed since last update in milliseconds
+     * @param deltaTimeMillis length of one tick in milliseconds
      */
     public void update(double deltaTimeMillis) {
+        player.snapshotPosition();
+        enemies.snapshotPositions();
+        shots.snapshotPositions();
+
+        player.sampleInput();
+        shooting = shootHeld;
 
         // timers always tick
         if (flashMillisRemaining > 0) {
@@ -340,40 +520,49 @@ public class GameModel {
         // wave intro logic isolated here
         if (handleWaveIntro(deltaTimeMillis)) return;
 
-        handleShooting(deltaTimeMillis * 2);
+        long t = profiler.start();
+        handleShooting(deltaTimeMillis);
+        t = profiler.lap(FrameProfiler.Phase.SHOTS, t);
 
         player.update(deltaTimeMillis);
+        t = profiler.lap(FrameProfiler.Phase.PLAYER, t);
 
-        for (Enemy e : enemies) {
-            e.update(deltaTimeMillis);
+        waveMovement.moveEnemies(enemies, deltaTimeMillis);
 
+        double[] enemyY = enemies.ys();
+        double[] enemyHeight = enemies.heights();
+        for (int i = 0, n = enemies.size(); i < n; i++) {
             // lose if enemy reaches bottom
-            if (e.getPositionY() + e.getHeight() >= playHeight) {
+            if ((int) enemyY[i] + (int) enemyHeight[i] >= playHeight) {
                 flashMillisRemaining = 700;
                 gameOver = true;
             }
 
             // lose if enemy collides with player
-            if (CollisionDetection.Aabb(player, e)) {
+            if (CollisionDetection.Aabb(player, enemies, i)) {
                 flashMillisRemaining = 700;
                 gameOver = true;
             }
         }
 
-        for (Shot s : shots) {
-            s.update(deltaTimeMillis);
-        }
+        t = profiler.lap(FrameProfiler.Phase.ENEMIES, t);
+
+        Shot.updateAll(shots, deltaTimeMillis);
+        t = profiler.lap(FrameProfiler.Phase.SHOTS, t);
 
         // Collisions and scoring are processed concurrently here
         handleCollisionsConcurrent();
+        t = profiler.lap(FrameProfiler.Phase.COLLISIONS, t);
 
         cleanUp();
+        t = profiler.lap(FrameProfiler.Phase.CLEANUP, t);
 
         // If all enemies dead -> next wave, faster
         if (!gameOver && enemies.isEmpty()) {
             wave++;
             speedMultiplier *= 1.10; // 10% harder each wave
             spawnNewWave();
+            profiler.lap(FrameProfiler.Phase.WAVE_SPAWN, t);
         }
     }
 
@@ -388,117 +577,111 @@ public class GameModel {
             waveMillisRemaining -= deltaTimeMillis;
             if (waveMillisRemaining < 0) waveMillisRemaining = 0;
         }
-        return waveMillisRemaining > 0;
+        if (waveMillisRemaining > 0) {
+            return true;
+        }
+        if (pendingWave != null) {
+            installPreparedWave(); // banner is over: the wave starts this tick
+        }
+        return false;
     }
 
     /**
-     * Processes all shot-enemy collisions using a thread pool.
+     * Processes all shot-enemy collisions.
      * <p>
      * This method:
      * <ol>
-     *   <li>Takes snapshots of all currently alive shots and enemies.</li>
-     *   <li>Submits a task per shot to the executor service.</li>
-     *   <li>Each task checks that shot against all enemies and returns
-     *       the first collision, if any.</li>
-     *   <li>After all tasks complete, this method applies the results on
-     *       the calling thread (JavaFX Application Thread): killing shots,
-     *       damaging enemies and updating the score.</li>
+     *   <li>Indexes the live enemies in a {@link SpatialHash}.</li>
+     *   <li>Lets the {@link CollisionScheduler} find the first enemy hit by
+     *       each shot, serially or on worker threads depending on the load.</li>
+     *   <li>Applies the results on the calling thread (JavaFX Application
+     *       Thread) in shot slot order: killing shots, damaging enemies and
+     *       updating the score.</li>
      * </ol>
-     * By separating "collision detection" (done concurrently) from "state
+     * By separating "collision detection" (possibly concurrent) from "state
      * mutation" (done on a single thread), we remain thread-safe.
      */
     private void handleCollisionsConcurrent() {
-        // Snapshot currently alive shots and enemies so worker threads only read
-        List<Shot> liveShots = new ArrayList<>();
-        for (Shot s : shots) {
-            if (s.isAlive()) {
-                liveShots.add(s);
-            }
-        }
-
-        List<Enemy> liveEnemies = new ArrayList<>();
-        for (Enemy e : enemies) {
-            if (e.isAlive()) {
-                liveEnemies.add(e);
-            }
-        }
-
-        if (liveShots.isEmpty() || liveEnemies.isEmpty()) {
+        if (shots.isEmpty() || enemies.isEmpty()) {
             return;
         }
 
-        try {
-            // Create one task per shot
-            List<Callable<CollisionResult>> tasks = new ArrayList<>(liveShots.size());
-
-            for (Shot shot : liveShots) {
-                tasks.add(() -> {
-                    // Each worker reads from liveShots/liveEnemies only
-                    for (Enemy enemy : liveEnemies) {
-                        if (CollisionDetection.Aabb(shot, enemy)) {
-                            // First hit is enough for this shot
-                            return new CollisionResult(shot, enemy);
-                        }
-                    }
-                    return null; // no collision for this shot
-                });
-            }
-
-            // Invoke all tasks in parallel and wait for completion
-            List<Future<CollisionResult>> futures = collisionExecutor.invokeAll(tasks);
+        enemyGrid.rebuild(enemies, playWidth, playHeight);
+        int[] hits = collisionScheduler.findHits(shots, enemyGrid);
 
-            // Apply results on the calling thread (FX thread)
-            for (Future<CollisionResult> future : futures) {
-                CollisionResult result = future.get();
-                if (result == null) {
-                    continue;
-                }
+        for (int i = 0, n = shots.size(); i < n; i++) {
+            if (hits[i] < 0) {
+                continue;
+            }
 
-                Shot shot = result.shot();
-                Enemy enemy = result.enemy();
+            Shot shot = shots.get(i);
+            Enemy enemy = enemies.get(hits[i]);
 
-                // Re-check "aliveness" in case this shot/enemy was already
-                // processed by a previous collision in this same frame.
-                if (!shot.isAlive() || !enemy.isAlive()) {
-                    continue;
-                }
+            // Re-check "aliveness" in case this enemy was already
+            // killed by a previous shot in this same frame.
+            if (!shot.isAlive() || !enemy.isAlive()) {
+                continue;
+            }
 
-                shot.kill();
-                enemy.takeDamage(1);
+            shot.kill();
+            enemy.takeDamage(1);
 
-                // Small hit spark at the hit location
-                addEnemyHitSpark(enemy);
+            // Small hit spark at the hit location
+            addEnemyHitSpark(enemy);
 
-                if (!enemy.isAlive()) {
-                    score.updateScore(100);
-                    addExplosionForEnemy(enemy);
-                }
+            if (!enemy.isAlive()) {
+                score.updateScore(100);
+                addExplosionForEnemy(enemy);
             }
-        } catch (InterruptedException ie) {
-            // Restore interrupt status and continue; next frame will handle again
-            Thread.currentThread().interrupt();
-        } catch (Exception ex) {
-            // For robustness: log or handle unexpected exceptions here in a real project
-            ex.printStackTrace();
         }
     }
 
     /**
-     * Removes dead enemies and shots from their respective lists.
+     * Removes dead enemies and shots from their stores (swap-remove).
      * This is called once per frame after collision processing.
      */
     private void cleanUp() {
-        enemies.removeIf(e -> !e.isAlive());
-        shots.removeIf(s -> !s.isAlive());
+        enemies.compact(releaseEnemy);
+        shots.compact(releaseShot);
     }
 
     // ---------------- WAVES / FORMATIONS / STRATEGIES ----------------
 
     /**
-     * Spawns a new wave of enemies using a random formation and movement strategy.
-     * Increases the {@code waveText} and starts a short wave-intro banner.
+     * Starts a new wave: shows the wave banner right away and prepares the
+     * wave's enemies on a background thread meanwhile (see
+     * {@link #prepareWave}). The enemies are stored when the banner ends, so
+     * the frame where a wave ends does not pay for building the next one.
      */
     protected void spawnNewWave() {
+        waveText = "WAVE " + wave;
+        waveMillisRemaining = WAVE_BANNER_MILLIS;
+
+        // Copies, so the preparing thread never reads fields the game thread writes
+        int count = (gameMode == GameMode.SWARM)
+                ? Math.min(SWARM_MAX_ENEMIES, SWARM_BASE_ENEMIES + (wave - 1) * SWARM_ENEMIES_PER_WAVE)
+                : 0;
+        GameMode mode = gameMode;
+        double speed = speedMultiplier;
+        double width = playWidth;
+        double height = playHeight;
+        pendingWave = wavePreparer.submit(() -> prepareWave(mode, count, speed, width, height));
+    }
+
+    /**
+     * Builds a wave using a random formation and movement strategy. Runs on
+     * the wave-preparer thread; formation positions come from the
+     * {@link FormationLayout} cache and enemies from the {@link EnemyPool}.
+     *
+     * @param mode            game mode of the wave
+     * @param swarmCount      enemy count in swarm mode
+     * @param speedMultiplier speed multiplier of the wave
+     * @param playWidth       play area width in pixels
+     * @param playHeight      play area height in pixels
+     * @return the wave's movement strategy and enemies
+     */
+    private PreparedWave prepareWave(GameMode mode, int swarmCount, double speedMultiplier,
+                                     double playWidth, double playHeight) {
         // Choose random movement strategy
         MovementStrategy movement;
         int m = rng.nextInt(3); // 0,1,2
@@ -513,40 +696,93 @@ public class GameModel {
         Formation formation;
         int f = rng.nextInt(3); // 0, 1 or 2
 
-        if (f == 0) {
+        if (mode == GameMode.SWARM) {
+            formation = new SwarmFormation(
+                    playWidth, playHeight,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, speedMultiplier,
+                    swarmCount, rng
+            );
+        } else if (f == 0) {
             formation = new GridFormation(
                     playWidth, playHeight,
-                    enemySheets, enemyFrameCounts, movement, speedMultiplier,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, speedMultiplier,
                     8, 3, 50, rng   // cols, rows, startY
             );
         } else if (f == 1) {
             formation = new VFormation(
                     playWidth, playHeight,
-                    enemySheets, enemyFrameCounts, movement, speedMultiplier,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, speedMultiplier,
                     5, rng          // rows
             );
         } else {
             formation = new ArcFormation(
                     playWidth, playHeight,
-                    enemySheets, enemyFrameCounts, movement, speedMultiplier,
+                    assets.enemySheets(), assets.enemyFrameCounts(),
+                    assets.enemyWidth(), assets.enemyHeight(), movement, speedMultiplier,
                     9, rng          // enemyCount along the arc
             );
         }
 
-        waveText = "WAVE " + wave;
-        waveMillisRemaining = 1200;
-
+        formation.setEnemyPool(enemyPool);
         formation.createEnemies();
-        enemies.clear();
-        enemies.addAll(formation.getEnemies());
+        return new PreparedWave(movement, formation.getEnemies());
+    }
+
+    /**
+     * Waits for the pending wave if it is still being prepared and stores
+     * its enemies.
+     */
+    private void installPreparedWave() {
+        PreparedWave prepared = awaitPendingWave();
+        enemies.clear(releaseEnemy);
+        ArrayList<Enemy> created = prepared.enemies();
+        // Grow the buffers now rather than in the wave's first gameplay tick
+        enemies.ensureCapacity(created.size());
+        enemyGrid.reserve(created.size());
+        for (int i = 0, n = created.size(); i < n; i++) {
+            enemies.add(created.get(i));
+        }
+        waveMovement = prepared.movement();
+    }
+
+    /**
+     * Waits for a wave still being prepared and returns its enemies to the
+     * pool, e.g. when the game restarts during the banner.
+     */
+    private void discardPendingWave() {
+        if (pendingWave == null) {
+            return;
+        }
+        ArrayList<Enemy> created = awaitPendingWave().enemies();
+        for (int i = 0, n = created.size(); i < n; i++) {
+            enemyPool.release(created.get(i));
+        }
+    }
+
+    private PreparedWave awaitPendingWave() {
+        try {
+            return pendingWave.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing wave " + wave, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not prepare wave " + wave, e.getCause());
+        } finally {
+            pendingWave = null;
+        }
     }
 
     /**
-     * Shuts down the internal executor service used for collision detection.
+     * Shuts down the worker threads used for collision detection and wave
+     * preparation.
      * This should be called once when the game is being torn down, e.g. when
      * the application exits, to allow JVM shutdown without lingering threads.
      */
     public void shutdown() {
-        collisionExecutor.shutdownNow();
+        collisionScheduler.shutdown();
+        wavePreparer.shutdownNow();
     }
 }
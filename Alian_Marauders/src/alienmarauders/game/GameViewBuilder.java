@@ -3,18 +3,23 @@ package alienmarauders.game;
 import alienmarauders.SwitchModel;
 import alienmarauders.Styles;
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
 import alienmarauders.game.entities.Player;
 import alienmarauders.game.entities.Shot;
-import alienmarauders.game.graphics.AnimationContainer;
-import alienmarauders.game.graphics.Animatable;
+import alienmarauders.game.graphics.EffectSystem;
+import alienmarauders.game.graphics.GlyphStrip;
+import alienmarauders.game.graphics.PixelBufferRenderer;
+import alienmarauders.game.graphics.SpriteBatch;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 
@@ -23,11 +28,20 @@ import javafx.scene.input.KeyEvent;
  * <p>
  * The view owns JavaFX nodes (canvas, labels, buttons) and exposes only:
  * <ul>
- *     <li>event hooks (setOnBack, setOnRestart)</li>
+ *     <li>event hooks (setOnBack, setOnRestart, setOnToggleProfiler,
+ *         setOnDumpProfile)</li>
  *     <li>value getters (getPlayWidth, getPlayHeight)</li>
- *     <li>small view actions (requestCanvasFocus, render)</li>
+ *     <li>small view actions (requestCanvasFocus, setFrameStats, setProfilerHudVisible,
+ *         setRenderBackend, render)</li>
  * </ul>
  * This keeps controllers from touching JavaFX controls directly.
+ * <p>
+ * Drawing is split over stacked layers so that only what changed is redrawn:
+ * the background is the root's CSS image (redrawn by JavaFX only on resize or
+ * a settings change), the entity canvas is cleared and redrawn every frame, and
+ * the HUD canvas on top (score, swarm readout) only when its content changed.
+ * With the {@link RenderBackend#PIXEL_BUFFER} backend, enemies and shots are
+ * rasterized into an image below the entity canvas instead.
  */
 public class GameViewBuilder {
 
@@ -35,16 +49,71 @@ public class GameViewBuilder {
 
     private Runnable onBack;
     private Runnable onRestart;
+    private Runnable onToggleProfiler;
+    private Runnable onDumpProfile;
+    private Runnable onTogglePause;
     private SwitchModel switchModel;
 
+    // Entity layer, redrawn every frame; also receives the key input
     private Canvas canvas;
     private GraphicsContext gc;
+
+    // HUD layer, redrawn only when the score, the readout or the size changed
+    private Canvas hudCanvas;
+    private GraphicsContext hudGc;
+    private boolean hudDirty = true;
+    private int hudScore = -1;
+    private GameMode hudMode;
     private Label gameOverLabel;
     private Label waveLabel;
 
     private StackPane root;
     private boolean built = false;
 
+    // Enemies and shots are queued here and drawn grouped by image and paint
+    private final SpriteBatch batch = new SpriteBatch();
+
+    // Effects get their own pass so they stay on top of sprites and health bars
+    private final SpriteBatch effectBatch = new SpriteBatch();
+
+    // Enemies draw their health bar this far below the sprite
+    private static final double HEALTH_BAR_MARGIN = 8;
+    private int culledEntities;
+    private int culledEffects; // summed until the profiler HUD shows them
+
+    // Software backend; created when first selected
+    private RenderBackend renderBackend = RenderBackend.CANVAS;
+    private PixelBufferRenderer pixelRenderer;
+    private ImageView pixelView;
+
+    // Colors and fonts are created once; render() must not allocate per frame
+    private static final Color FLASH_COLOR = Color.rgb(255, 0, 0, 0.55);
+    private static final Color HUD_BACKGROUND = Color.rgb(0, 0, 0, 0.7);
+
+    // Performance readout (swarm mode); text is rebuilt a few times per second
+    private static final Font READOUT_FONT = Font.font("Monospaced", 13);
+    private GlyphStrip readoutGlyphs;
+    private GlyphStrip hudGlyphs;
+    private static final int READOUT_REFRESH_FRAMES = 15;
+    private double frameMillis;
+    private double workMillis;
+    private int readoutAge = READOUT_REFRESH_FRAMES;
+    private String readoutCounts = "";
+    private String readoutTiming = "";
+
+    // Profiler HUD: frame-time graph plus p50/p99 per phase
+    private static final int GRAPH_FRAMES = 300;
+    private static final double GRAPH_HEIGHT = 80;
+    private static final double GRAPH_MAX_MILLIS = 2 * GameController.TICK_MILLIS;
+    private static final double HUD_WIDTH = GRAPH_FRAMES + 20;
+    private static final double HUD_LINE_HEIGHT = 15;
+    private final double[] graphX = new double[GRAPH_FRAMES];
+    private final double[] graphY = new double[GRAPH_FRAMES];
+    private boolean profilerHudVisible = false;
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+    private final String[] hudLines = new String[PHASES.length + 3];
+    private int hudStatsVersion = -1;
+
     /**
      * Creates a new game view builder.
      *
@@ -72,6 +141,33 @@ public class GameViewBuilder {
         this.onRestart = action;
     }
 
+    /**
+     * Sets the callback invoked when the user toggles the profiler HUD (F3).
+     *
+     * @param action the action to run
+     */
+    public void setOnToggleProfiler(Runnable action) {
+        this.onToggleProfiler = action;
+    }
+
+    /**
+     * Sets the callback invoked when the user requests a profile dump (F4).
+     *
+     * @param action the action to run
+     */
+    public void setOnDumpProfile(Runnable action) {
+        this.onDumpProfile = action;
+    }
+
+    /**
+     * Sets the callback invoked when the user pauses or resumes the game (P).
+     *
+     * @param action the action to run
+     */
+    public void setOnTogglePause(Runnable action) {
+        this.onTogglePause = action;
+    }
+
     /**
      * Applies the global {@link SwitchModel} for background binding.
      *
@@ -97,6 +193,13 @@ public class GameViewBuilder {
         // initial size; listeners will keep it in sync after layout
         canvas = new Canvas(800, 600);
         gc = canvas.getGraphicsContext2D();
+        hudCanvas = new Canvas(800, 600);
+        hudGc = hudCanvas.getGraphicsContext2D();
+        hudCanvas.setMouseTransparent(true);
+        pixelView = new ImageView();
+        pixelView.setVisible(false);
+        pixelView.setManaged(false);
+        pixelView.setMouseTransparent(true);
 
         Button back = new Button("Back");
         back.setOnAction(e -> runIfSet(onBack));
@@ -117,7 +220,7 @@ public class GameViewBuilder {
         waveLabel.setStyle(Styles.waveBannerStyle());
         StackPane.setAlignment(waveLabel, Pos.TOP_CENTER);
 
-        root.getChildren().addAll(canvas, back, gameOverLabel, waveLabel);
+        root.getChildren().addAll(pixelView, canvas, hudCanvas, back, gameOverLabel, waveLabel);
         StackPane.setAlignment(back, Pos.BOTTOM_RIGHT);
 
         // Focus & key bindings on the model's player
@@ -135,6 +238,15 @@ public class GameViewBuilder {
             if (e.getCode() == KeyCode.ENTER && model.isGameOver() && onRestart != null) {
                 onRestart.run();
                 e.consume();
+            } else if (e.getCode() == KeyCode.F3) {
+                runIfSet(onToggleProfiler);
+                e.consume();
+            } else if (e.getCode() == KeyCode.F4) {
+                runIfSet(onDumpProfile);
+                e.consume();
+            } else if (e.getCode() == KeyCode.P) {
+                runIfSet(onTogglePause);
+                e.consume();
             }
         });
 
@@ -145,6 +257,8 @@ public class GameViewBuilder {
                 return;
             }
             canvas.setWidth(w);
+            hudCanvas.setWidth(w);
+            hudDirty = true;
             model.getPlayer().setBounds(canvas.getWidth(), canvas.getHeight());
         });
 
@@ -154,6 +268,8 @@ public class GameViewBuilder {
                 return;
             }
             canvas.setHeight(h);
+            hudCanvas.setHeight(h);
+            hudDirty = true;
             model.getPlayer().setBounds(canvas.getWidth(), canvas.getHeight());
         });
 
@@ -167,38 +283,69 @@ public class GameViewBuilder {
     }
 
     /**
-     * Renders the current model state to the canvas.
-     * Behavior is identical to the previous version.
+     * Renders the current model state: the entity layer every call, the HUD
+     * layer only when its content changed.
      */
     public void render() {
         if (gc == null || canvas == null) {
             return;
         }
 
+        FrameProfiler profiler = model.getProfiler();
+        long t = profiler.start();
+
         gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
 
         model.getPlayer().render(gc);
-        model.getScore().render(gc);
 
-        // hide enemies + shots during wave intro
+        // hide enemies + shots during wave intro; skip those outside the view
+        double viewWidth = canvas.getWidth();
+        double viewHeight = canvas.getHeight();
+        culledEntities = 0;
         if (!model.isWaveBannerActive()) {
-            for (Enemy e : model.getEnemies()) {
-                e.render(gc);
+            EntityStore<Enemy> enemies = model.getEnemies();
+            for (int i = 0, n = enemies.size(); i < n; i++) {
+                if (inView(enemies, i, viewWidth, viewHeight, HEALTH_BAR_MARGIN)) {
+                    enemies.get(i).render(batch);
+                } else {
+                    culledEntities++;
+                }
             }
-            for (Shot s : model.getShots()) {
-                s.render(gc);
+            EntityStore<Shot> shots = model.getShots();
+            for (int i = 0, n = shots.size(); i < n; i++) {
+                if (inView(shots, i, viewWidth, viewHeight, 0)) {
+                    shots.get(i).render(batch);
+                } else {
+                    culledEntities++;
+                }
             }
         }
+        if (renderBackend == RenderBackend.PIXEL_BUFFER) {
+            pixelRenderer.resize((int) canvas.getWidth(), (int) canvas.getHeight());
+            pixelRenderer.rasterize(batch);
+            pixelRenderer.present();
+            pixelView.setImage(pixelRenderer.getImage()); // replaced on resize
+        } else {
+            batch.flush(gc);
+        }
+
+        t = profiler.lap(FrameProfiler.Phase.ENTITIES, t);
 
-        // Render short-lived animations (e.g. explosions) on top
-        AnimationContainer<Animatable> animationContainer = model.getAnimations();
-        if (animationContainer != null && !animationContainer.isEmpty()) {
-            animationContainer.renderAnimations(gc);
+        // Render short-lived effects (e.g. explosions) on top
+        EffectSystem effects = model.getEffects();
+        effects.render(effectBatch, viewWidth, viewHeight);
+        effectBatch.flush(gc);
+        culledEffects += effects.getCulledCount();
+        t = profiler.lap(FrameProfiler.Phase.ANIMATIONS, t);
+
+        renderHud();
+        if (profilerHudVisible) {
+            renderProfilerHud(profiler);
         }
 
         // flash overlay
         if (model.isFlashRed()) {
-            gc.setFill(Color.rgb(255, 0, 0, 0.55));
+            gc.setFill(FLASH_COLOR);
             gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
         }
 
@@ -217,6 +364,146 @@ public class GameViewBuilder {
         } else {
             gameOverLabel.setVisible(false);
         }
+        profiler.lap(FrameProfiler.Phase.OVERLAYS, t);
+    }
+
+    /**
+     * Returns whether a stored entity, drawn at its interpolated position and
+     * extended downwards by {@code below} pixels, overlaps the view.
+     */
+    private static boolean inView(EntityStore<?> store, int slot, double viewWidth, double viewHeight,
+                                  double below) {
+        double x = store.drawX(slot);
+        double y = store.drawY(slot);
+        return x < viewWidth && y < viewHeight
+                && x + store.widths()[slot] > 0 && y + store.heights()[slot] + below > 0;
+    }
+
+    /**
+     * Sets the frame timing shown by the performance readout.
+     *
+     * @param frameMillis smoothed time between frames in milliseconds
+     * @param workMillis  smoothed update and render time per frame in milliseconds
+     */
+    public void setFrameStats(double frameMillis, double workMillis) {
+        this.frameMillis = frameMillis;
+        this.workMillis = workMillis;
+    }
+
+    /**
+     * Selects how enemies and shots are drawn from the next frame on.
+     *
+     * @param backend the backend to use
+     */
+    public void setRenderBackend(RenderBackend backend) {
+        this.renderBackend = backend;
+        if (backend == RenderBackend.PIXEL_BUFFER && pixelRenderer == null) {
+            pixelRenderer = new PixelBufferRenderer((int) getPlayWidth(), (int) getPlayHeight());
+        }
+        if (pixelView != null) {
+            pixelView.setVisible(backend == RenderBackend.PIXEL_BUFFER);
+        }
+    }
+
+    /**
+     * Shows or hides the profiler HUD.
+     *
+     * @param visible {@code true} to draw the HUD
+     */
+    public void setProfilerHudVisible(boolean visible) {
+        this.profilerHudVisible = visible;
+    }
+
+    /**
+     * Draws the profiler HUD in the top-right corner: the work time of the
+     * recent frames against the 60 fps budget, p50/p99 of every phase, then
+     * the draw calls and state changes of the entity and effect batches and what
+     * was culled.
+     *
+     * @param profiler the profiler to show
+     */
+    private void renderProfilerHud(FrameProfiler profiler) {
+        FrameProfiler.Phase[] phases = PHASES;
+        double left = canvas.getWidth() - HUD_WIDTH - 10;
+        double top = 10;
+        double height = GRAPH_HEIGHT + 30 + hudLines.length * HUD_LINE_HEIGHT;
+
+        gc.setFill(HUD_BACKGROUND);
+        gc.fillRect(left, top, HUD_WIDTH, height);
+
+        // Graph: newest frame on the right
+        double graphLeft = left + 10;
+        double graphBottom = top + 10 + GRAPH_HEIGHT;
+        int frames = Math.min(GRAPH_FRAMES, profiler.getFrameCount());
+        for (int i = 0; i < frames; i++) {
+            double millis = Math.min(GRAPH_MAX_MILLIS, profiler.getMillis(FrameProfiler.Phase.FRAME, i));
+            graphX[i] = graphLeft + GRAPH_FRAMES - 1 - i;
+            graphY[i] = graphBottom - millis / GRAPH_MAX_MILLIS * GRAPH_HEIGHT;
+        }
+        double budgetY = graphBottom - GameController.TICK_MILLIS / GRAPH_MAX_MILLIS * GRAPH_HEIGHT;
+        gc.setStroke(Color.ORANGE);
+        gc.strokeLine(graphLeft, budgetY, graphLeft + GRAPH_FRAMES, budgetY);
+        gc.setStroke(Color.LIGHTGREEN);
+        gc.strokePolyline(graphX, graphY, frames);
+
+        // Percentile table; the text only changes when the profiler updates it
+        if (hudStatsVersion != profiler.getStatsVersion()) {
+            hudStatsVersion = profiler.getStatsVersion();
+            hudLines[0] = String.format("%-16s %7s %7s", "ms", "p50", "p99");
+            for (int p = 0; p < phases.length; p++) {
+                hudLines[p + 1] = String.format("%-16s %7.2f %7.2f", phases[p].getLabel(),
+                        profiler.getP50Millis(phases[p]), profiler.getP99Millis(phases[p]));
+            }
+            hudLines[phases.length + 1] = String.format("%-12s draw calls %6d  state changes %4d",
+                    renderBackend.getLabel(), batch.getDrawCalls() + effectBatch.getDrawCalls(),
+                    batch.getStateChanges() + effectBatch.getStateChanges());
+            hudLines[phases.length + 2] = String.format("Culled %6d entities  %6d effects",
+                    culledEntities, culledEffects);
+            culledEffects = 0;
+        }
+        if (hudGlyphs == null) {
+            hudGlyphs = new GlyphStrip(READOUT_FONT, Color.WHITE);
+        }
+        double y = graphBottom + 20;
+        for (String line : hudLines) {
+            hudGlyphs.draw(gc, line, graphLeft, y);
+            y += HUD_LINE_HEIGHT;
+        }
+    }
+
+    /**
+     * Redraws the HUD layer (score and, in swarm mode, the performance
+     * readout) if anything on it changed since the last frame.
+     */
+    private void renderHud() {
+        GameMode mode = model.getGameMode();
+        boolean swarm = mode == GameMode.SWARM;
+        if (swarm && ++readoutAge >= READOUT_REFRESH_FRAMES) {
+            readoutAge = 0;
+            double fps = frameMillis > 0 ? 1000.0 / frameMillis : 0;
+            readoutCounts = String.format("Enemies %6d  Shots %5d  Effects %4d",
+                    model.getEnemies().size(), model.getShots().size(), model.getEffects().size());
+            readoutTiming = String.format("Frame %5.1f ms (%3.0f fps)  Work %5.1f ms",
+                    frameMillis, fps, workMillis);
+            hudDirty = true;
+        }
+        int score = model.getScore().getScore();
+        if (!hudDirty && score == hudScore && mode == hudMode) {
+            return;
+        }
+        hudDirty = false;
+        hudScore = score;
+        hudMode = mode;
+
+        hudGc.clearRect(0, 0, hudCanvas.getWidth(), hudCanvas.getHeight());
+        model.getScore().render(hudGc);
+        if (swarm) {
+            if (readoutGlyphs == null) {
+                readoutGlyphs = new GlyphStrip(READOUT_FONT, Color.LIGHTGREEN);
+            }
+            readoutGlyphs.draw(hudGc, readoutCounts, 10, 20);
+            readoutGlyphs.draw(hudGc, readoutTiming, 10, 38);
+        }
     }
 
     /**
@@ -246,6 +533,17 @@ public class GameViewBuilder {
         return (canvas != null && canvas.getHeight() > 0) ? canvas.getHeight() : 600;
     }
 
+    /**
+     * Stops the worker threads of the pixel buffer backend, if it was used.
+     * Call once the game loop has stopped; the view is not rendered afterwards.
+     */
+    public void shutdown() {
+        if (pixelRenderer != null) {
+            pixelRenderer.shutdown();
+            pixelRenderer = null;
+        }
+    }
+
     /**
      * Runs the given action if it is non-null.
      *
@@ -0,0 +1,113 @@
+package alienmarauders.game;
+
+import alienmarauders.game.entities.Player;
+
+/**
+ * Runs the game simulation without JavaFX.
+ * <p>
+ * A {@link GameModel} built with {@link GameAssets#headless()} is stepped at
+ * the fixed tick rate of {@link GameController} as fast as the CPU allows,
+ * with a simple bot at the controls: it keeps shooting and strafes across the
+ * screen. Useful as a soak test and for timing the simulation alone, e.g. on
+ * a build server without a display.
+ * <p>
+ * Usage:
+ * {@code java alienmarauders.game.HeadlessSimulation [ticks] [width] [height] [mode]},
+ * where mode is a {@link GameMode} label such as {@code Swarm}.
+ */
+public final class HeadlessSimulation {
+
+    /** Ticks the bot holds one strafe direction (two seconds). */
+    private static final int STRAFE_TICKS = 120;
+
+    private final GameModel model;
+    private final Player player;
+    private final double playWidth;
+    private final double playHeight;
+
+    private long ticks;
+    private int gamesOver;
+
+    /**
+     * Creates a simulation with a fresh headless model.
+     *
+     * @param playWidth  width of the play area in pixels
+     * @param playHeight height of the play area in pixels
+     * @param gameMode   mode to play
+     */
+    public HeadlessSimulation(double playWidth, double playHeight, GameMode gameMode) {
+        this.playWidth = playWidth;
+        this.playHeight = playHeight;
+        this.player = new Player(200.0, 300.0, 60.0, 60.0);
+        this.model = new GameModel(player, GameAssets.headless());
+        model.setGameMode(gameMode);
+        model.reset(playWidth, playHeight);
+    }
+
+    /**
+     * Returns the simulated model.
+     *
+     * @return the model
+     */
+    public GameModel getModel() {
+        return model;
+    }
+
+    /**
+     * Advances the simulation by a number of fixed ticks, animating one frame
+     * per tick, so effects play out and return to their pools as in the game.
+     * A game that ends is restarted right away.
+     *
+     * @param count number of ticks to run
+     */
+    public void run(long count) {
+        for (long i = 0; i < count; i++) {
+            steerBot();
+            model.update(GameController.TICK_MILLIS);
+            model.animate(GameController.TICK_MILLIS);
+            ticks++;
+
+            if (model.isGameOver()) {
+                gamesOver++;
+                model.reset(playWidth, playHeight);
+            }
+        }
+    }
+
+    /**
+     * Stops the model's worker threads.
+     */
+    public void shutdown() {
+        model.shutdown();
+    }
+
+    private void steerBot() {
+        boolean left = (ticks / STRAFE_TICKS) % 2 == 0;
+        player.movingLeft(left);
+        player.movingRight(!left);
+        model.setShooting(true);
+    }
+
+    public static void main(String[] args) {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 60L * 60 * 10; // ten minutes
+        double width = args.length > 1 ? Double.parseDouble(args[1]) : 800;
+        double height = args.length > 2 ? Double.parseDouble(args[2]) : 600;
+        GameMode mode = args.length > 3 ? GameMode.fromLabel(args[3]) : GameMode.CLASSIC;
+
+        HeadlessSimulation simulation = new HeadlessSimulation(width, height, mode);
+        try {
+            long start = System.nanoTime();
+            simulation.run(ticks);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            GameModel model = simulation.getModel();
+            System.out.printf("Simulated %d ticks (%.0f s of game time) in %.2f s: %.0f ticks/s%n",
+                    ticks, ticks * GameController.TICK_MILLIS / 1000.0, seconds, ticks / seconds);
+            System.out.printf("%s: wave %d, score %d, games over %d, %d enemies and %d shots left%n",
+                    mode.getLabel(), model.getWave(), model.getScore().getScore(), simulation.gamesOver,
+                    model.getEnemies().size(), model.getShots().size());
+        } finally {
+            simulation.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package alienmarauders.game;
+
+import java.util.function.Supplier;
+
+/**
+ * Fixed-capacity pool of reusable objects.
+ * <p>
+ * All objects are created up front, so acquiring and releasing never
+ * allocates. The pool does not reset objects itself: callers put an acquired
+ * object into its new state right away (e.g. {@code Shot#reset}), which keeps
+ * the pool independent of the pooled type. When the pool is exhausted
+ * {@link #acquire()} returns {@code null} and the caller skips the object
+ * (a missing muzzle flash is better than a GC pause).
+ * <p>
+ * Not thread-safe; used from the game loop thread only.
+ *
+ * @param <T> type of pooled objects
+ */
+public class ObjectPool<T> {
+
+    private final Object[] free;
+    private int freeCount;
+
+    /**
+     * Creates a pool and fills it.
+     *
+     * @param capacity number of objects to create
+     * @param factory  creates one pooled object
+     */
+    public ObjectPool(int capacity, Supplier<T> factory) {
+        free = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            free[i] = factory.get();
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Takes an object out of the pool.
+     *
+     * @return a free object to be reset by the caller, or {@code null} if
+     *         every object is in use
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (freeCount == 0) {
+            return null;
+        }
+        T object = (T) free[--freeCount];
+        free[freeCount] = null;
+        return object;
+    }
+
+    /**
+     * Returns an object to the pool. Each acquired object must be released
+     * at most once.
+     *
+     * @param object object that is no longer used
+     */
+    public void release(T object) {
+        if (object != null && freeCount < free.length) {
+            free[freeCount++] = object;
+        }
+    }
+
+    /**
+     * Returns the number of objects currently available.
+     *
+     * @return free object count
+     */
+    public int available() {
+        return freeCount;
+    }
+}
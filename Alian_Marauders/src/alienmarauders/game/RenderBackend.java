@@ -0,0 +1,49 @@
+package alienmarauders.game;
+
+/**
+ * Selectable ways of drawing the enemies and shots.
+ * <p>
+ * The settings menu stores the backend as its label in
+ * {@code SwitchModel#renderBackend}; {@link #fromLabel(String)} maps it back.
+ */
+public enum RenderBackend {
+
+    /** Draw commands on the game canvas (the default). */
+    CANVAS("Canvas"),
+
+    /**
+     * Software rasterizer writing sprites straight into a pixel buffer, in
+     * parallel bands; meant for very large waves.
+     */
+    PIXEL_BUFFER("Pixel buffer");
+
+    private final String label;
+
+    RenderBackend(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name shown in the settings menu.
+     *
+     * @return display label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the backend with the given label.
+     *
+     * @param label display label, may be {@code null}
+     * @return the matching backend, or {@link #CANVAS} if none matches
+     */
+    public static RenderBackend fromLabel(String label) {
+        for (RenderBackend backend : values()) {
+            if (backend.label.equals(label)) {
+                return backend;
+            }
+        }
+        return CANVAS;
+    }
+}
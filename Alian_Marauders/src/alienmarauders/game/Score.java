@@ -1,12 +1,21 @@
 package alienmarauders.game;
 
+import alienmarauders.game.graphics.GlyphStrip;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 
 public class Score {
+    private static final double FONT_SIZE = 22;
+    private static final Color COLOR = Color.BEIGE;
+    private static final String PREFIX = "Score: ";
+
     int score;
 
+    // Pre-rasterized glyphs, font included; created on first render (needs the
+    // JavaFX thread, and creating a Font would start the toolkit in headless runs)
+    private static GlyphStrip glyphs;
+
     public Score() {
         this.score = 0;
     }
@@ -15,17 +24,24 @@ public class Score {
         score += amount;
     }
 
+    public int getScore() {
+        return score;
+    }
+
     public void resetScore() {
         score = 0;
     }
 
     public void render(GraphicsContext gc) {
-        gc.setFont(new Font(22));
-        gc.setFill(Color.BEIGE);
+        if (glyphs == null) {
+            glyphs = new GlyphStrip(new Font(FONT_SIZE), COLOR);
+        }
 
         double x = gc.getCanvas().getWidth() * 0.025; // ~2.5% from the left
         double y = gc.getCanvas().getHeight() * 0.95; // ~95% down
 
-        gc.fillText("Score: " + score, x, y);
+        // Prefix and digits are drawn separately so no string is built per score
+        x = glyphs.draw(gc, PREFIX, x, y);
+        glyphs.drawNumber(gc, score, x, y);
     }
 }
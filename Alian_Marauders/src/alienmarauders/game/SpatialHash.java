@@ -0,0 +1,183 @@
+package alienmarauders.game;
+
+import java.util.Arrays;
+
+import alienmarauders.game.entities.EntityStore;
+
+/**
+ * Uniform-grid broad phase for AABB collision queries.
+ * <p>
+ * The play area is divided into square cells at least as large as the biggest
+ * indexed entity, so every entity overlaps at most four cells. The grid is
+ * rebuilt once per frame from the arrays of an {@link EntityStore} with a
+ * counting sort into two flat arrays: {@code cellStart[c] .. cellStart[c + 1]}
+ * is the range of {@code cellEntries} holding the slots of the live entities
+ * overlapping cell {@code c}, in slot order. Positions outside the play area
+ * are clamped to the border cells, so entities that have left the screen are
+ * still found.
+ * <p>
+ * A query only tests the entities in the cells its probe overlaps. After
+ * {@link #rebuild} the hash is read-only, so several threads may query it at
+ * the same time. The arrays grow as needed and are reused between frames.
+ */
+public class SpatialHash {
+
+    private EntityStore<?> entities;
+
+    private double cellSize = 1;
+    private int columns = 1;
+    private int rows = 1;
+
+    private int[] cellStart = new int[2];
+    private int[] cellFill = new int[2];
+    private int[] cellEntries = new int[0];
+
+    // Per-entity cell range, cached between the counting and the filling pass
+    private int[] minColumn = new int[0];
+    private int[] maxColumn = new int[0];
+    private int[] minRow = new int[0];
+    private int[] maxRow = new int[0];
+
+    /**
+     * Grows the per-entity buffers so that indexing up to {@code count}
+     * entities does not allocate. Lets callers move the growth to a moment
+     * where allocation is expected, e.g. spawning a wave.
+     *
+     * @param count number of entities the next rebuilds will index
+     */
+    public void reserve(int count) {
+        if (minColumn.length < count) {
+            minColumn = new int[count];
+            maxColumn = new int[count];
+            minRow = new int[count];
+            maxRow = new int[count];
+        }
+        // Every entity overlaps at most four cells
+        if (cellEntries.length < 4 * count) {
+            cellEntries = new int[4 * count];
+        }
+    }
+
+    /**
+     * Indexes the live entities of a store. The store must not be modified
+     * until the next rebuild. The cell size is derived from the largest entity.
+     *
+     * @param entities   entities to index (typically the enemies)
+     * @param playWidth  width of the play area in pixels
+     * @param playHeight height of the play area in pixels
+     */
+    public void rebuild(EntityStore<?> entities, double playWidth, double playHeight) {
+        this.entities = entities;
+        int count = entities.size();
+        double[] xs = entities.xs();
+        double[] ys = entities.ys();
+        double[] widths = entities.widths();
+        double[] heights = entities.heights();
+
+        int largest = 1;
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, Math.max((int) widths[i], (int) heights[i]));
+        }
+        cellSize = largest;
+        columns = Math.max(1, (int) Math.ceil(playWidth / cellSize));
+        rows = Math.max(1, (int) Math.ceil(playHeight / cellSize));
+
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+            cellFill = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        if (minColumn.length < count) {
+            int capacity = Math.max(count, minColumn.length * 2);
+            minColumn = new int[capacity];
+            maxColumn = new int[capacity];
+            minRow = new int[capacity];
+            maxRow = new int[capacity];
+        }
+
+        // Pass 1: count entries per cell (shifted by one for the prefix sum)
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            if (!entities.isAlive(i)) {
+                minRow[i] = 0;
+                maxRow[i] = -1; // empty range: not indexed
+                continue;
+            }
+            int x = (int) xs[i];
+            int y = (int) ys[i];
+            minColumn[i] = column(x);
+            maxColumn[i] = column(x + (int) widths[i]);
+            minRow[i] = row(y);
+            maxRow[i] = row(y + (int) heights[i]);
+            for (int r = minRow[i]; r <= maxRow[i]; r++) {
+                for (int c = minColumn[i]; c <= maxColumn[i]; c++) {
+                    cellStart[r * columns + c + 1]++;
+                    total++;
+                }
+            }
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // Pass 2: place indices; visiting entities in order keeps each cell sorted
+        if (cellEntries.length < total) {
+            cellEntries = new int[Math.max(total, cellEntries.length * 2)];
+        }
+        int[] fill = cellFill;
+        System.arraycopy(cellStart, 0, fill, 0, cells);
+        for (int i = 0; i < count; i++) {
+            for (int r = minRow[i]; r <= maxRow[i]; r++) {
+                for (int c = minColumn[i]; c <= maxColumn[i]; c++) {
+                    cellEntries[fill[r * columns + c]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the live indexed entity with the lowest slot that collides with
+     * the probe, i.e. the same entity a linear scan with
+     * {@link CollisionDetection#Aabb} would find first.
+     *
+     * @param probes store holding the probe (typically the shots)
+     * @param probe  slot of the probe
+     * @return slot in the indexed store, or -1 if nothing collides
+     */
+    public int firstHit(EntityStore<?> probes, int probe) {
+        int x = (int) probes.xs()[probe];
+        int y = (int) probes.ys()[probe];
+        int firstColumn = column(x);
+        int lastColumn = column(x + (int) probes.widths()[probe]);
+        int firstRow = row(y);
+        int lastRow = row(y + (int) probes.heights()[probe]);
+
+        int best = -1;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int index = cellEntries[k];
+                    if (best >= 0 && index >= best) {
+                        break; // cells are sorted: nothing lower left in this cell
+                    }
+                    if (CollisionDetection.Aabb(probes, probe, entities, index)) {
+                        best = index;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, (int) (x / cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, (int) (y / cellSize)));
+    }
+}
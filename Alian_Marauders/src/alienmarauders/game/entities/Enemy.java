@@ -1,9 +1,12 @@
 package alienmarauders.game.entities;
 
 import alienmarauders.game.graphics.ImageStride;
+import alienmarauders.game.graphics.SpriteAtlas;
+import alienmarauders.game.graphics.SpriteBatch;
 import alienmarauders.game.movement.MovementStrategy;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
 
 
 /**
@@ -21,7 +24,7 @@ public class Enemy extends Entity {
 
     // Base speed s (px/ms) from the assignment
     // Will be scaled by the MovementStrategy's speedMultiplier
-    private final double baseSpeed = 0.035;
+    public static final double BASE_SPEED = 0.035;
 
     // For zigzag: remember the spawn X as x0 in the sine formula
     private Double baseX = null;
@@ -33,6 +36,9 @@ public class Enemy extends Entity {
     private double maxX = 800;
     private double maxY = 600;
 
+    // Sprite sheet index this enemy is pooled under; -1 if not pooled
+    int poolIndex = -1;
+
     /**
      * Creates a new enemy that uses a sprite sheet with several frames.
      *
@@ -60,6 +66,36 @@ public class Enemy extends Entity {
     }
 
 
+    /**
+     * Revives a recycled enemy at a new position: full health, no movement
+     * strategy and its animation back at the first frame. Only valid while
+     * the enemy is not stored in an {@link EntityStore}.
+     *
+     * @param x      new X position in pixels
+     * @param y      new Y position in pixels
+     * @param width  drawing width in pixels
+     * @param height drawing height in pixels
+     */
+    public void reset(double x, double y, double width, double height) {
+        if (store != null) {
+            throw new IllegalStateException("Enemy is still stored");
+        }
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.alive = true;
+        this.hitPoints = maxHitPoints;
+        this.baseX = null;
+        this.movementStrategy = null;
+        this.maxX = 800;
+        this.maxY = 600;
+        if (imageStride != null) {
+            imageStride.reset();
+        }
+        snapshotPosition();
+    }
+
     // ----- Movement strategy wiring -----
 
     /**
@@ -104,7 +140,7 @@ public class Enemy extends Entity {
      * @return base speed in pixels per millisecond
      */
     public double getBaseSpeed() {
-        return baseSpeed;
+        return BASE_SPEED;
     }
 
     /**
@@ -113,6 +149,9 @@ public class Enemy extends Entity {
      * @return base X position used by zigzag logic
      */
     public double getBaseX() {
+        if (store != null) {
+            return store.anchorX[slot]; // the X it was stored with, i.e. its spawn X
+        }
         if (baseX == null) {
             baseX = x;
         }
@@ -127,7 +166,8 @@ public class Enemy extends Entity {
      * @return current hit points divided by maximum hit points
      */
     public double getHealthRatio() {
-        return Math.max(0, (double) hitPoints / maxHitPoints);
+        int hp = (store != null) ? store.hitPoints[slot] : hitPoints;
+        return Math.max(0, (double) hp / maxHitPoints);
     }
 
     /**
@@ -137,20 +177,35 @@ public class Enemy extends Entity {
      * @param amount damage to apply
      */
     public void takeDamage(int amount) {
-        this.hitPoints -= amount;
-        if (hitPoints <= 0) {
+        int hp;
+        if (store != null) {
+            hp = store.hitPoints[slot] -= amount;
+        } else {
+            hp = this.hitPoints -= amount;
+        }
+        if (hp <= 0) {
             kill();
         }
     }
 
+    @Override
+    int detachedHitPoints() {
+        return hitPoints;
+    }
+
+    @Override
+    void restoreHitPoints(int hitPoints) {
+        this.hitPoints = hitPoints;
+    }
+
     // ----- Update / Render -----
 
     /**
      * Updates the enemy:
      * <ul>
      *   <li>Moves it according to the active movement strategy.</li>
-     *   <li>Animation timing is handled inside {@link ImageStride}.</li>
      * </ul>
+     * The sprite animation is advanced separately by {@link #animate(double)}.
      *
      * @param deltaTimeMillis
      *         time elapsed since last update in milliseconds
@@ -161,7 +216,17 @@ public class Enemy extends Entity {
         if (movementStrategy != null) {
             movementStrategy.moveEnemy(this, deltaTimeMillis);
         }
-        // No explicit animation step needed; ImageStride advances on render.
+    }
+
+    /**
+     * Advances the sprite animation by an amount of game time.
+     *
+     * @param deltaMillis game time elapsed since the last call, in milliseconds
+     */
+    public void animate(double deltaMillis) {
+        if (imageStride != null) {
+            imageStride.advance(deltaMillis);
+        }
     }
 
     /**
@@ -173,19 +238,44 @@ public class Enemy extends Entity {
     @Override
     public void render(GraphicsContext gc) {
         if (imageStride != null) {
-            // ImageStride will advance the frame index based on wall-clock time.
-            imageStride.render(gc, x, y, width, height);
+            imageStride.render(gc, drawX(), drawY(), width(), height());
         } else if (image != null) {
-            gc.drawImage(image, x, y, width, height);
+            SpriteAtlas.drawImage(gc, image, drawX(), drawY(), width(), height());
         } else {
             gc.setFill(javafx.scene.paint.Color.RED);
-            gc.fillRect(x, y, width, height);
+            gc.fillRect(drawX(), drawY(), width(), height());
         }
 
         drawHealthBar(gc);
     }
 
 
+    /**
+     * Queues the sprite and the health bar into a batch. The batch emits all
+     * sprites before any bar, so the bars' paint changes happen once per
+     * frame instead of once per enemy.
+     *
+     * @param batch the batch to queue into
+     */
+    public void render(SpriteBatch batch) {
+        double x = drawX();
+        double y = drawY();
+        double w = width();
+        double h = height();
+        if (imageStride != null) {
+            imageStride.render(batch, x, y, w, h);
+        } else if (image != null) {
+            SpriteAtlas.batchImage(batch, image, x, y, w, h);
+        } else {
+            batch.fillRect(Color.RED, x, y, w, h);
+        }
+
+        double barY = y + h + 2;
+        batch.fillRect(Color.RED, x, barY, w, 6);
+        batch.fillRect(Color.LIMEGREEN, x, barY, w * getHealthRatio(), 6);
+        batch.strokeRect(Color.BLACK, x, barY, w, 6);
+    }
+
     /**
      * Draws the health bar just below the enemy sprite, showing the current
      * health ratio in green over a red background.
@@ -195,10 +285,10 @@ public class Enemy extends Entity {
     private void drawHealthBar(GraphicsContext gc) {
         double ratio = getHealthRatio();
 
-        double barWidth = width;
+        double barWidth = width();
         double barHeight = 6;
-        double barX = x;
-        double barY = y + height + 2; // slightly below enemy
+        double barX = drawX();
+        double barY = drawY() + height() + 2; // slightly below enemy
 
         gc.setFill(javafx.scene.paint.Color.RED);
         gc.fillRect(barX, barY, barWidth, barHeight);
@@ -0,0 +1,87 @@
+package alienmarauders.game.entities;
+
+import java.util.Arrays;
+
+import javafx.scene.image.Image;
+
+/**
+ * Enemies of finished waves, kept to be revived in later waves.
+ * <p>
+ * An enemy keeps its sprite sheet and animation for life, so free enemies
+ * are grouped by the index of their sheet in the game's enemy sheets and
+ * {@link #acquire} only revives an enemy of the requested sheet. Unlike
+ * {@code ObjectPool}, this pool starts empty and grows to the largest wave
+ * played so far, since wave sizes differ a lot (a few dozen up to a swarm).
+ * <p>
+ * Not thread-safe. The game model releases enemies on the game loop thread
+ * and hands the pool to the thread that prepares the next wave only while no
+ * enemies are being released.
+ */
+public final class EnemyPool {
+
+    private Enemy[][] free = new Enemy[0][];
+    private int[] freeCount = new int[0];
+
+    /**
+     * Revives a free enemy with the given sprite sheet, or creates one.
+     *
+     * @param sheetIndex index of the sprite sheet among the enemy sheets
+     * @param sheet      the sprite sheet, or {@code null} when running headless
+     * @param frameCount number of frames in the sheet
+     * @param x          initial X position in pixels
+     * @param y          initial Y position in pixels
+     * @param width      drawing width in pixels
+     * @param height     drawing height in pixels
+     * @return an alive enemy at full health, not stored anywhere
+     */
+    public Enemy acquire(int sheetIndex, Image sheet, int frameCount,
+                         double x, double y, double width, double height) {
+        if (sheetIndex < freeCount.length && freeCount[sheetIndex] > 0) {
+            int last = --freeCount[sheetIndex];
+            Enemy enemy = free[sheetIndex][last];
+            free[sheetIndex][last] = null;
+            enemy.reset(x, y, width, height);
+            return enemy;
+        }
+        Enemy enemy = new Enemy(x, y, width, height, sheet, frameCount);
+        enemy.poolIndex = sheetIndex;
+        return enemy;
+    }
+
+    /**
+     * Returns an enemy that left its store. Enemies that were not created by
+     * a pool are ignored.
+     *
+     * @param enemy a removed enemy
+     */
+    public void release(Enemy enemy) {
+        int index = enemy.poolIndex;
+        if (index < 0) {
+            return;
+        }
+        if (index >= free.length) {
+            free = Arrays.copyOf(free, index + 1);
+            freeCount = Arrays.copyOf(freeCount, index + 1);
+        }
+        Enemy[] group = free[index];
+        if (group == null) {
+            group = free[index] = new Enemy[64];
+        } else if (freeCount[index] == group.length) {
+            group = free[index] = Arrays.copyOf(group, group.length * 2);
+        }
+        group[freeCount[index]++] = enemy;
+    }
+
+    /**
+     * Returns the number of free enemies.
+     *
+     * @return free enemy count over all sheets
+     */
+    public int size() {
+        int total = 0;
+        for (int count : freeCount) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -5,7 +5,7 @@ import javafx.scene.image.Image;
 
 public abstract class Entity {
 
-    // Shared fields for all entities
+    // Shared fields for all entities; only authoritative while not in a store
     protected double x;
     protected double y;
     protected double width;
@@ -13,42 +13,146 @@ public abstract class Entity {
     protected Image image;
     protected boolean alive = true;
 
+    // Position at the previous simulation tick and how far rendering is
+    // between that tick and the current one (0..1); standalone entities only
+    protected double prevX;
+    protected double prevY;
+    private double renderAlpha = 1.0;
+
+    // Set while this entity lives in an EntityStore (see EntityStore#add)
+    EntityStore<?> store;
+    int slot = -1;
+
     public Entity(double x, double y, double width, double height, Image image) {
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
         this.image = image;
+        this.prevX = x;
+        this.prevY = y;
     }
 
     // Used by CollisionDetection
     public int getPositionX() {
-        return (int) x;
+        return (int) x();
     }
 
     public int getPositionY() {
-        return (int) y;
+        return (int) y();
     }
 
     public int getWidth() {
-        return (int) width;
+        return (int) width();
     }
 
     public int getHeight() {
-        return (int) height;
+        return (int) height();
+    }
+
+    public Image getImage() {
+        return image;
     }
 
     public void setPosition(double x, double y) {
-        this.x = x;
-        this.y = y;
+        if (store != null) {
+            store.x[slot] = x;
+            store.y[slot] = y;
+        } else {
+            this.x = x;
+            this.y = y;
+        }
     }
 
     public boolean isAlive() {
-        return alive;
+        return store != null ? store.isAlive(slot) : alive;
     }
 
     public void kill() {
-        alive = false;
+        if (store != null) {
+            store.kill(slot);
+        } else {
+            alive = false;
+        }
+    }
+
+    /**
+     * Remembers the current position as the previous tick's position.
+     * Stored entities use {@link EntityStore#snapshotPositions()} instead.
+     */
+    public void snapshotPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Sets how far rendering is between the previous and the current tick.
+     * Stored entities use {@link EntityStore#setRenderAlpha(double)} instead.
+     *
+     * @param alpha interpolation factor in [0, 1]
+     */
+    public void setRenderAlpha(double alpha) {
+        this.renderAlpha = alpha;
+    }
+
+    // Interpolated position for rendering between two simulation ticks
+    protected double drawX() {
+        return store != null ? store.drawX(slot) : prevX + (x - prevX) * renderAlpha;
+    }
+
+    protected double drawY() {
+        return store != null ? store.drawY(slot) : prevY + (y - prevY) * renderAlpha;
+    }
+
+    // Exact (non-truncated) geometry, read from the store slot when stored
+    protected double x() {
+        return store != null ? store.x[slot] : x;
+    }
+
+    protected double y() {
+        return store != null ? store.y[slot] : y;
+    }
+
+    protected double width() {
+        return store != null ? store.width[slot] : width;
+    }
+
+    protected double height() {
+        return store != null ? store.height[slot] : height;
+    }
+
+    /**
+     * Hit points copied into the store on {@link EntityStore#add}.
+     * Entities without hit points keep the default.
+     *
+     * @return current hit points of the standalone entity
+     */
+    int detachedHitPoints() {
+        return 0;
+    }
+
+    /**
+     * Receives the hit points from the store when the entity is removed.
+     *
+     * @param hitPoints hit points of the slot being released
+     */
+    void restoreHitPoints(int hitPoints) {
+    }
+
+    /**
+     * Copies the slot back into the fields and leaves the store.
+     */
+    void detach() {
+        x = store.x[slot];
+        y = store.y[slot];
+        prevX = x;
+        prevY = y;
+        width = store.width[slot];
+        height = store.height[slot];
+        alive = store.isAlive(slot);
+        restoreHitPoints(store.hitPoints[slot]);
+        store = null;
+        slot = -1;
     }
 
     // Every entity must be updatable and renderable
@@ -0,0 +1,323 @@
+package alienmarauders.game.entities;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Structure-of-arrays storage for many entities of one kind.
+ * <p>
+ * Position, size, hit points and the spawn X ("anchor") of every stored entity
+ * live in parallel primitive arrays indexed by slot, and liveness is a bitset.
+ * Per-frame loops (movement, collision, culling) can walk these arrays
+ * directly instead of dereferencing one heap object per entity.
+ * <p>
+ * The {@link Entity} objects stay around as thin views: while an entity is
+ * stored, its accessors read and write its slot. Killing an entity only clears
+ * its alive bit; {@link #compact()} later removes dead slots by moving the last
+ * live slot into each hole (swap-remove), so slots {@code 0 .. size() - 1}
+ * are always dense. Slot order is therefore not insertion order.
+ * <p>
+ * For smooth rendering between fixed simulation ticks the store also keeps
+ * each slot's position at the previous tick; see {@link #snapshotPositions()}
+ * and {@link #setRenderAlpha(double)}.
+ * <p>
+ * The arrays returned by {@link #xs()} and friends may be replaced when the
+ * store grows; fetch them again after {@link #add}. Not thread-safe; worker
+ * threads may read the arrays while the owning thread is not modifying them.
+ *
+ * @param <T> entity type held by the store
+ */
+public final class EntityStore<T extends Entity> {
+
+    double[] x;
+    double[] y;
+    double[] width;
+    double[] height;
+    double[] anchorX;
+    double[] prevX;
+    double[] prevY;
+    int[] hitPoints;
+    private long[] alive;
+    private Entity[] views;
+
+    private int size = 0;
+    private int deadCount = 0;
+    private double renderAlpha = 1.0;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param initialCapacity number of slots allocated up front
+     */
+    public EntityStore(int initialCapacity) {
+        int capacity = Math.max(8, initialCapacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        anchorX = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        hitPoints = new int[capacity];
+        alive = new long[(capacity + 63) >>> 6];
+        views = new Entity[capacity];
+    }
+
+    /**
+     * Moves a standalone entity into the store. Its current position, size,
+     * liveness and hit points are copied into a new slot, and its current X
+     * becomes its anchor.
+     *
+     * @param entity entity that is not stored anywhere yet
+     * @return the slot assigned to the entity
+     */
+    public int add(T entity) {
+        if (entity.store != null) {
+            throw new IllegalArgumentException("Entity is already stored");
+        }
+        if (size == views.length) {
+            grow();
+        }
+        int slot = size++;
+        x[slot] = entity.x;
+        y[slot] = entity.y;
+        width[slot] = entity.width;
+        height[slot] = entity.height;
+        anchorX[slot] = entity.x;
+        prevX[slot] = entity.x; // a new entity appears in place, not interpolated
+        prevY[slot] = entity.y;
+        hitPoints[slot] = entity.detachedHitPoints();
+        views[slot] = entity;
+        if (entity.alive) {
+            alive[slot >>> 6] |= 1L << slot;
+        } else {
+            deadCount++;
+        }
+        entity.store = this;
+        entity.slot = slot;
+        return slot;
+    }
+
+    /**
+     * Grows the store so that it holds at least {@code capacity} entities
+     * without allocating again.
+     *
+     * @param capacity number of slots needed
+     */
+    public void ensureCapacity(int capacity) {
+        while (views.length < capacity) {
+            grow();
+        }
+    }
+
+    /**
+     * Returns the number of occupied slots, including dead ones not yet compacted.
+     *
+     * @return occupied slot count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the store holds no entities.
+     *
+     * @return {@code true} if no slot is occupied
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the entity view of a slot.
+     *
+     * @param slot slot index below {@link #size()}
+     * @return the entity stored in that slot
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) views[slot];
+    }
+
+    /**
+     * Returns whether the entity in a slot is alive.
+     *
+     * @param slot slot index
+     * @return {@code true} if alive
+     */
+    public boolean isAlive(int slot) {
+        return (alive[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Marks the entity in a slot as dead. It stays in place until {@link #compact()}.
+     *
+     * @param slot slot index
+     */
+    public void kill(int slot) {
+        long bit = 1L << slot;
+        if ((alive[slot >>> 6] & bit) != 0) {
+            alive[slot >>> 6] &= ~bit;
+            deadCount++;
+        }
+    }
+
+    /** @return X positions by slot */
+    public double[] xs() { return x; }
+
+    /** @return Y positions by slot */
+    public double[] ys() { return y; }
+
+    /** @return widths by slot */
+    public double[] widths() { return width; }
+
+    /** @return heights by slot */
+    public double[] heights() { return height; }
+
+    /** @return spawn X positions by slot */
+    public double[] anchorXs() { return anchorX; }
+
+    /** @return hit points by slot */
+    public int[] hitPoints() { return hitPoints; }
+
+    /**
+     * Copies every slot's position into its previous-tick position. Called at
+     * the start of each simulation tick.
+     */
+    public void snapshotPositions() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    /**
+     * Sets how far rendering is between the previous and the current tick.
+     *
+     * @param alpha interpolation factor in [0, 1]
+     */
+    public void setRenderAlpha(double alpha) {
+        this.renderAlpha = alpha;
+    }
+
+    /**
+     * Returns the interpolated X position of a slot for rendering.
+     *
+     * @param slot slot index
+     * @return X between the previous and the current tick
+     */
+    public double drawX(int slot) {
+        return prevX[slot] + (x[slot] - prevX[slot]) * renderAlpha;
+    }
+
+    /**
+     * Returns the interpolated Y position of a slot for rendering.
+     *
+     * @param slot slot index
+     * @return Y between the previous and the current tick
+     */
+    public double drawY(int slot) {
+        return prevY[slot] + (y[slot] - prevY[slot]) * renderAlpha;
+    }
+
+    /**
+     * Removes all dead entities by swap-remove. Removed views are detached and
+     * keep their last values, so stray references to them stay readable.
+     *
+     * @return number of removed entities
+     */
+    public int compact() {
+        return compact(null);
+    }
+
+    /**
+     * Removes all dead entities by swap-remove and reports each removed view,
+     * e.g. so it can be returned to a pool.
+     *
+     * @param onRemoved called with every detached view, may be {@code null}
+     * @return number of removed entities
+     */
+    public int compact(Consumer<? super T> onRemoved) {
+        if (deadCount == 0) {
+            return 0;
+        }
+        int removed = 0;
+        int slot = 0;
+        while (slot < size) {
+            if (isAlive(slot)) {
+                slot++;
+                continue;
+            }
+            T removedView = get(slot);
+            removedView.detach();
+            if (onRemoved != null) {
+                onRemoved.accept(removedView);
+            }
+            int last = --size;
+            if (slot != last) {
+                moveSlot(last, slot); // re-checked on the next iteration
+            }
+            views[last] = null;
+            alive[last >>> 6] &= ~(1L << last);
+            removed++;
+        }
+        deadCount = 0;
+        return removed;
+    }
+
+    /**
+     * Detaches and removes every entity.
+     */
+    public void clear() {
+        clear(null);
+    }
+
+    /**
+     * Detaches and removes every entity, reporting each removed view.
+     *
+     * @param onRemoved called with every detached view, may be {@code null}
+     */
+    public void clear(Consumer<? super T> onRemoved) {
+        for (int slot = 0; slot < size; slot++) {
+            T removedView = get(slot);
+            removedView.detach();
+            if (onRemoved != null) {
+                onRemoved.accept(removedView);
+            }
+            views[slot] = null;
+        }
+        Arrays.fill(alive, 0L);
+        size = 0;
+        deadCount = 0;
+    }
+
+    private void moveSlot(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        width[to] = width[from];
+        height[to] = height[from];
+        anchorX[to] = anchorX[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        hitPoints[to] = hitPoints[from];
+        if (isAlive(from)) {
+            alive[to >>> 6] |= 1L << to;
+        } else {
+            alive[to >>> 6] &= ~(1L << to);
+        }
+        views[to] = views[from];
+        views[to].slot = to;
+    }
+
+    private void grow() {
+        int capacity = views.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        anchorX = Arrays.copyOf(anchorX, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        hitPoints = Arrays.copyOf(hitPoints, capacity);
+        alive = Arrays.copyOf(alive, (capacity + 63) >>> 6);
+        views = Arrays.copyOf(views, capacity);
+    }
+}
@@ -1,5 +1,6 @@
 package alienmarauders.game.entities;
 
+import alienmarauders.game.graphics.SpriteAtlas;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -10,14 +11,26 @@ public class Player extends Entity {
 
     private static final Color PLAYER_COLOR = Color.BLUE;
 
+    // Movement bits of an input mask (see getInputMask)
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 1 << 1;
+    public static final int INPUT_UP = 1 << 2;
+    public static final int INPUT_DOWN = 1 << 3;
+
     private double speed = 0.3; // tweak as you like
 
-    // Movement flags: 0 or 1
+    // Movement flags used by update(): 0 or 1, latched by sampleInput()
     private double moveLeft = 0;
     private double moveRight = 0;
     private double moveUp = 0;
     private double moveDown = 0;
 
+    // Key state as last reported by the key handlers
+    private boolean leftHeld;
+    private boolean rightHeld;
+    private boolean upHeld;
+    private boolean downHeld;
+
     // Bounding box for containment (set from outside)
     private double maxX = 800; // default, overwritten by setBounds
     private double maxY = 600;
@@ -32,21 +45,61 @@ public class Player extends Entity {
         this(x, y, width, height, null);
     }
 
-    // Input handlers
+    // Input handlers: only record the key state, see sampleInput()
     public void movingLeft(boolean val) {
-        moveLeft = val ? 1 : 0;
+        leftHeld = val;
     }
 
     public void movingRight(boolean val) {
-        moveRight = val ? 1 : 0;
+        rightHeld = val;
     }
 
     public void movingUp(boolean val) {
-        moveUp = val ? 1 : 0;
+        upHeld = val;
     }
 
     public void movingDown(boolean val) {
-        moveDown = val ? 1 : 0;
+        downHeld = val;
+    }
+
+    /**
+     * Latches the current key state into the movement flags. Called once at
+     * the start of every simulation tick, so all updates within a tick see
+     * the same input regardless of when key events arrived.
+     */
+    public void sampleInput() {
+        moveLeft = leftHeld ? 1 : 0;
+        moveRight = rightHeld ? 1 : 0;
+        moveUp = upHeld ? 1 : 0;
+        moveDown = downHeld ? 1 : 0;
+    }
+
+    /**
+     * Returns the movement input latched for the current tick as a bit mask
+     * of {@code INPUT_*} flags.
+     *
+     * @return latched movement bits
+     */
+    public int getInputMask() {
+        int mask = 0;
+        if (moveLeft != 0) mask |= INPUT_LEFT;
+        if (moveRight != 0) mask |= INPUT_RIGHT;
+        if (moveUp != 0) mask |= INPUT_UP;
+        if (moveDown != 0) mask |= INPUT_DOWN;
+        return mask;
+    }
+
+    /**
+     * Sets the held keys from a bit mask of {@code INPUT_*} flags, as if the
+     * key handlers had reported them. Used to play back recorded input.
+     *
+     * @param mask movement bits; other bits are ignored
+     */
+    public void setHeldInput(int mask) {
+        leftHeld = (mask & INPUT_LEFT) != 0;
+        rightHeld = (mask & INPUT_RIGHT) != 0;
+        upHeld = (mask & INPUT_UP) != 0;
+        downHeld = (mask & INPUT_DOWN) != 0;
     }
 
     public void setBounds(double maxX, double maxY) {
@@ -78,10 +131,10 @@ public class Player extends Entity {
     @Override
     public void render(GraphicsContext gc) {
         if (image != null) {
-            gc.drawImage(image, x, y, width, height);
+            SpriteAtlas.drawImage(gc, image, drawX(), drawY(), width, height);
         } else {
             gc.setFill(PLAYER_COLOR);
-            gc.fillRect(x, y, width, height);
+            gc.fillRect(drawX(), drawY(), width, height);
         }
     }
 
@@ -96,6 +149,10 @@ public class Player extends Entity {
 
         // clear input so player doesn't keep drifting
         moveLeft = moveRight = moveUp = moveDown = 0;
+        leftHeld = rightHeld = upHeld = downHeld = false;
+
+        // no interpolation from the previous game's position
+        snapshotPosition();
 
         // bounds follow playfield
         setBounds(playWidth, playHeight);
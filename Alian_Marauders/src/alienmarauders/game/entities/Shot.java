@@ -1,5 +1,7 @@
 package alienmarauders.game.entities;
 
+import alienmarauders.game.graphics.SpriteAtlas;
+import alienmarauders.game.graphics.SpriteBatch;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
@@ -7,30 +9,83 @@ import javafx.scene.paint.Color;
 public class Shot extends Entity {
 
     // pixels per millisecond (e.g. 0.6 = 600px per second upwards)
-    private final double speedY = -0.6;
+    private static final double SPEED_Y = -0.6;
 
     public Shot(double x, double y, double width, double height, Image image) {
         super(x, y, width, height, image);
     }
 
+    /**
+     * Revives a pooled shot at a new position. Only valid while the shot is
+     * not stored in an {@link EntityStore}.
+     *
+     * @param x new X position in pixels
+     * @param y new Y position in pixels
+     */
+    public void reset(double x, double y) {
+        if (store != null) {
+            throw new IllegalStateException("Shot is still stored");
+        }
+        this.x = x;
+        this.y = y;
+        this.alive = true;
+        snapshotPosition();
+    }
+
     @Override
     public void update(double deltaTimeMillis) {
         // Move upwards
-        y += speedY * deltaTimeMillis;
+        double newY = y() + SPEED_Y * deltaTimeMillis;
+        setPosition(x(), newY);
 
         // If the shot has left the top of the screen, kill it
-        if (y + height < 0) {
+        if (newY + height() < 0) {
             kill();
         }
     }
 
+    /**
+     * Moves every live shot of a store, like {@link #update(double)} but over
+     * the store's arrays.
+     *
+     * @param shots           store holding the shots
+     * @param deltaTimeMillis time elapsed since last update in milliseconds
+     */
+    public static void updateAll(EntityStore<Shot> shots, double deltaTimeMillis) {
+        double dy = SPEED_Y * deltaTimeMillis;
+        double[] ys = shots.ys();
+        double[] heights = shots.heights();
+        for (int i = 0, n = shots.size(); i < n; i++) {
+            if (!shots.isAlive(i)) {
+                continue;
+            }
+            ys[i] += dy;
+            if (ys[i] + heights[i] < 0) {
+                shots.kill(i);
+            }
+        }
+    }
+
     @Override
     public void render(GraphicsContext gc) {
         if (image != null) {
-            gc.drawImage(image, x, y, width, height);
+            SpriteAtlas.drawImage(gc, image, drawX(), drawY(), width(), height());
         } else {
             gc.setFill(Color.YELLOW);
-            gc.fillRect(x, y, width, height);
+            gc.fillRect(drawX(), drawY(), width(), height());
+        }
+    }
+
+    /**
+     * Queues this shot into a batch; same output as {@link #render(GraphicsContext)}.
+     *
+     * @param batch the batch to queue into
+     */
+    public void render(SpriteBatch batch) {
+        if (image != null) {
+            SpriteAtlas.batchImage(batch, image, drawX(), drawY(), width(), height());
+        } else {
+            batch.fillRect(Color.YELLOW, drawX(), drawY(), width(), height());
         }
     }
 }
@@ -0,0 +1,117 @@
+package alienmarauders.game.formation;
+
+import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EnemyPool;
+import alienmarauders.game.movement.MovementStrategy;
+import javafx.scene.image.Image;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Shared part of the formations: the enemy sprites, size, movement and
+ * speed, and the creation (or revival from an {@link EnemyPool}) of one
+ * enemy per position of a {@link FormationLayout}.
+ * <p>
+ * Subclasses only decide where the enemies go.
+ */
+public abstract class AbstractFormation implements Formation {
+
+    protected final double playWidth;
+    protected final double playHeight;
+    protected final double enemyWidth;
+    protected final double enemyHeight;
+
+    private final Image[] enemySheets;
+    private final int[] enemyFrameCounts;
+    private final MovementStrategy movement;
+    private final double speedMultiplier;
+    private final Random rng;
+
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private EnemyPool enemyPool;
+
+    /**
+     * Stores the settings shared by all formations.
+     *
+     * @param playWidth        width of the play area in pixels
+     * @param playHeight       height of the play area in pixels
+     * @param enemySheets      array of enemy sprite sheets to choose from (entries may be
+     *                         {@code null} when running headless)
+     * @param enemyFrameCounts array of frame counts matching {@code enemySheets}
+     * @param enemyWidth       width of one enemy in pixels
+     * @param enemyHeight      height of one enemy in pixels
+     * @param movement         movement strategy used by all enemies in this formation
+     * @param speedMultiplier  speed multiplier for the enemies in this formation
+     * @param rng              random number generator used to pick enemy sprites
+     */
+    protected AbstractFormation(double playWidth, double playHeight,
+                                Image[] enemySheets,
+                                int[] enemyFrameCounts,
+                                double enemyWidth, double enemyHeight,
+                                MovementStrategy movement,
+                                double speedMultiplier,
+                                Random rng) {
+
+        this.playWidth = playWidth;
+        this.playHeight = playHeight;
+        this.enemySheets = enemySheets;
+        this.enemyFrameCounts = enemyFrameCounts;
+        this.enemyWidth = enemyWidth;
+        this.enemyHeight = enemyHeight;
+        this.movement = movement;
+        this.speedMultiplier = speedMultiplier;
+        this.rng = rng;
+    }
+
+    /**
+     * Replaces the enemies with one enemy per layout position, in layout order.
+     *
+     * @param layout positions to fill
+     */
+    protected final void placeEnemies(FormationLayout layout) {
+        enemies.clear();
+        enemies.ensureCapacity(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            addEnemy(layout.getX(i), layout.getY(i));
+        }
+    }
+
+    @Override
+    public void setEnemyPool(EnemyPool pool) {
+        this.enemyPool = pool;
+    }
+
+    /**
+     * Helper that creates (or revives from the pool) a single enemy at (x, y)
+     * with a random sprite sheet. It also picks the correct frame count for
+     * that sprite sheet.
+     *
+     * @param x X coordinate for the enemy
+     * @param y Y coordinate for the enemy
+     */
+    private void addEnemy(double x, double y) {
+        int index = rng.nextInt(enemySheets.length);
+        Image sprite = enemySheets[index];
+        int framesInSheet = enemyFrameCounts[index];
+
+        Enemy e = (enemyPool != null)
+                ? enemyPool.acquire(index, sprite, framesInSheet, x, y, enemyWidth, enemyHeight)
+                : new Enemy(x, y, enemyWidth, enemyHeight, sprite, framesInSheet);
+        e.setMovementStrategy(movement);
+        e.setSpeedMultiplier(speedMultiplier);
+        e.setBounds(playWidth, playHeight);
+
+        enemies.add(e);
+    }
+
+    /**
+     * Returns the list of enemies created by {@link #createEnemies()}.
+     *
+     * @return mutable list of enemies in this formation
+     */
+    @Override
+    public ArrayList<Enemy> getEnemies() {
+        return enemies;
+    }
+}
@@ -1,10 +1,8 @@
 package alienmarauders.game.formation;
 
-import alienmarauders.game.entities.Enemy;
 import alienmarauders.game.movement.MovementStrategy;
 import javafx.scene.image.Image;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -13,26 +11,20 @@ import java.util.Random;
  * The enemies are placed along an arc above the player,
  * centered horizontally in the play area.
  */
-public class ArcFormation implements Formation {
+public class ArcFormation extends AbstractFormation {
 
-    private final double playWidth;
-    private final double playHeight;
-    private final Image[] enemySheets;
-    private final int[] enemyFrameCounts;
-    private final MovementStrategy movement;
-    private final double speedMultiplier;
     private final int enemyCount;
-    private final Random rng;
-
-    private final ArrayList<Enemy> enemies = new ArrayList<>();
 
     /**
      * Constructs a new arc-shaped enemy formation.
      *
      * @param playWidth        width of the play area in pixels
      * @param playHeight       height of the play area in pixels
-     * @param enemySheets      array of enemy sprite sheets to choose from
+     * @param enemySheets      array of enemy sprite sheets to choose from (entries may be
+     *                         {@code null} when running headless)
      * @param enemyFrameCounts array of frame counts matching {@code enemySheets}
+     * @param enemyWidth       width of one enemy in pixels
+     * @param enemyHeight      height of one enemy in pixels
      * @param movement         movement strategy used by all enemies in this formation
      * @param speedMultiplier  speed multiplier for the enemies in this formation
      * @param enemyCount       number of enemies to place along the arc
@@ -41,19 +33,15 @@ public class ArcFormation implements Formation {
     public ArcFormation(double playWidth, double playHeight,
                         Image[] enemySheets,
                         int[] enemyFrameCounts,
+                        double enemyWidth, double enemyHeight,
                         MovementStrategy movement,
                         double speedMultiplier,
                         int enemyCount,
                         Random rng) {
 
-        this.playWidth = playWidth;
-        this.playHeight = playHeight;
-        this.enemySheets = enemySheets;
-        this.enemyFrameCounts = enemyFrameCounts;
-        this.movement = movement;
-        this.speedMultiplier = speedMultiplier;
+        super(playWidth, playHeight, enemySheets, enemyFrameCounts, enemyWidth, enemyHeight,
+              movement, speedMultiplier, rng);
         this.enemyCount = enemyCount;
-        this.rng = rng;
     }
 
     /**
@@ -62,18 +50,23 @@ public class ArcFormation implements Formation {
      */
     @Override
     public void createEnemies() {
-        enemies.clear();
-
-        // Use the first sheet just to derive base width/height
-        int framesInFirstSheet = enemyFrameCounts[0];
-        double frameWidth = enemySheets[0].getWidth() / framesInFirstSheet;
-        double frameHeight = enemySheets[0].getHeight();
+        placeEnemies(FormationLayout.get(
+                new Key(playWidth, playHeight, enemyWidth, enemyHeight, enemyCount),
+                ArcFormation::layout));
+    }
 
-        double enemyWidth = frameWidth;
-        double enemyHeight = frameHeight;
+    /**
+     * Computes the arc positions: enemies spread evenly from -60° to +60°
+     * along a circle around the top center.
+     *
+     * @param key play area, enemy size and enemy count
+     * @return the layout
+     */
+    private static FormationLayout layout(Key key) {
+        int enemyCount = key.enemyCount();
 
         // Arc geometry
-        double centerX = playWidth / 2.0;
+        double centerX = key.playWidth() / 2.0;
         double centerY = 120;   // vertical center of the arc
         double radius = 150;    // radius of the arc
 
@@ -87,45 +80,22 @@ public class ArcFormation implements Formation {
                 ? (endRad - startRad) / (enemyCount - 1)
                 : 0.0;
 
+        double[] xs = new double[enemyCount];
+        double[] ys = new double[enemyCount];
         for (int i = 0; i < enemyCount; i++) {
             double angle = startRad + i * step;
 
-            double ex = centerX + Math.cos(angle) * radius - enemyWidth / 2.0;
-            double ey = centerY + Math.sin(angle) * radius - enemyHeight / 2.0;
-
-            addEnemy(ex, ey, enemyWidth, enemyHeight);
+            xs[i] = centerX + Math.cos(angle) * radius - key.enemyWidth() / 2.0;
+            ys[i] = centerY + Math.sin(angle) * radius - key.enemyHeight() / 2.0;
         }
+        return new FormationLayout(xs, ys);
     }
 
     /**
-     * Helper that creates a single enemy at (x, y) with a random sprite sheet.
-     * It also picks the correct frame count for that sprite sheet.
-     *
-     * @param x      X coordinate for the enemy
-     * @param y      Y coordinate for the enemy
-     * @param width  drawing width in pixels
-     * @param height drawing height in pixels
-     */
-    private void addEnemy(double x, double y, double width, double height) {
-        int index = rng.nextInt(enemySheets.length);
-        Image sprite = enemySheets[index];
-        int framesInSheet = enemyFrameCounts[index];
-
-        Enemy e = new Enemy(x, y, width, height, sprite, framesInSheet);
-        e.setMovementStrategy(movement);
-        e.setSpeedMultiplier(speedMultiplier);
-        e.setBounds(playWidth, playHeight);
-
-        enemies.add(e);
-    }
-
-    /**
-     * Returns the list of enemies created by {@link #createEnemies()}.
-     *
-     * @return mutable list of enemies in this formation
+     * Everything the arc positions depend on.
      */
-    @Override
-    public ArrayList<Enemy> getEnemies() {
-        return enemies;
+    private record Key(double playWidth, double playHeight,
+                       double enemyWidth, double enemyHeight,
+                       int enemyCount) {
     }
 }
@@ -2,8 +2,17 @@ package alienmarauders.game.formation;
 
 import java.util.ArrayList;
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EnemyPool;
 
 public interface Formation {
     void createEnemies();
     ArrayList<Enemy> getEnemies();
+
+    /**
+     * Makes {@link #createEnemies()} revive enemies from a pool instead of
+     * allocating new ones.
+     *
+     * @param pool the pool, or {@code null} to always allocate
+     */
+    void setEnemyPool(EnemyPool pool);
 }
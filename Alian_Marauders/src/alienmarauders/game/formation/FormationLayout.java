@@ -0,0 +1,94 @@
+package alienmarauders.game.formation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Enemy positions of one formation shape in one play area.
+ * <p>
+ * Where a formation puts its enemies depends only on its shape parameters,
+ * the play-area size and the enemy size, so the positions are computed once
+ * and shared by every later wave with the same formation; each wave only
+ * picks new sprites. Layouts are immutable and the cache is thread-safe, so
+ * waves can be prepared off the JavaFX thread.
+ * <p>
+ * Each formation keys its layouts with its own record of the values the
+ * positions depend on; records of different formations are never equal, so
+ * one cache serves every shape. The play area only changes between games, so
+ * the cache stays small; it is emptied if it ever holds more than
+ * {@link #MAX_CACHED} layouts.
+ */
+public final class FormationLayout {
+
+    /** Most layouts kept before the cache starts over. */
+    private static final int MAX_CACHED = 64;
+
+    private static final Map<Object, FormationLayout> CACHE = new ConcurrentHashMap<>();
+
+    private final double[] xs;
+    private final double[] ys;
+
+    FormationLayout(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Returns the cached layout for a key, computing it on first use.
+     *
+     * @param key     the formation's key record (play area, enemy size and
+     *                shape parameters)
+     * @param compute computes the layout from the key
+     * @param <K>     the formation's key type
+     * @return shared layout
+     */
+    static <K extends Record> FormationLayout get(K key, Function<K, FormationLayout> compute) {
+        FormationLayout layout = CACHE.get(key);
+        if (layout != null) {
+            return layout;
+        }
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(key, k -> compute.apply(key));
+    }
+
+    /**
+     * Returns the number of cached layouts.
+     *
+     * @return cache size
+     */
+    public static int cachedCount() {
+        return CACHE.size();
+    }
+
+    /**
+     * Returns the number of enemy positions.
+     *
+     * @return position count
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Returns the X position of an enemy.
+     *
+     * @param index enemy index below {@link #size()}
+     * @return X position in pixels
+     */
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Returns the Y position of an enemy.
+     *
+     * @param index enemy index below {@link #size()}
+     * @return Y position in pixels
+     */
+    public double getY(int index) {
+        return ys[index];
+    }
+}
@@ -0,0 +1,104 @@
+package alienmarauders.game.formation;
+
+import alienmarauders.game.movement.MovementStrategy;
+import javafx.scene.image.Image;
+
+import java.util.Random;
+
+/**
+ * Creates a dense swarm of enemies for the stress mode.
+ * <p>
+ * The enemies fill a regular lattice over the full play width in the upper
+ * part of the play area. The lattice spacing is chosen so that
+ * {@code enemyCount} enemies fit into that band; with tens of thousands of
+ * enemies the spacing drops below the enemy size and the sprites overlap.
+ */
+public class SwarmFormation extends AbstractFormation {
+
+    /** Top edge of the swarm in pixels. */
+    private static final double TOP = 40;
+
+    /** Fraction of the play height the swarm may fill, measured from the top. */
+    private static final double BAND_FRACTION = 0.45;
+
+    private final int enemyCount;
+
+    /**
+     * Constructs a new swarm formation.
+     *
+     * @param playWidth        width of the play area in pixels
+     * @param playHeight       height of the play area in pixels
+     * @param enemySheets      array of enemy sprite sheets to choose from (entries may be
+     *                         {@code null} when running headless)
+     * @param enemyFrameCounts array of frame counts matching {@code enemySheets}
+     * @param enemyWidth       width of one enemy in pixels
+     * @param enemyHeight      height of one enemy in pixels
+     * @param movement         movement strategy used by all enemies in this formation
+     * @param speedMultiplier  speed multiplier for the enemies in this formation
+     * @param enemyCount       number of enemies in the swarm
+     * @param rng              random number generator used to pick enemy sprites
+     */
+    public SwarmFormation(double playWidth, double playHeight,
+                          Image[] enemySheets,
+                          int[] enemyFrameCounts,
+                          double enemyWidth, double enemyHeight,
+                          MovementStrategy movement,
+                          double speedMultiplier,
+                          int enemyCount,
+                          Random rng) {
+
+        super(playWidth, playHeight, enemySheets, enemyFrameCounts, enemyWidth, enemyHeight,
+              movement, speedMultiplier, rng);
+        this.enemyCount = enemyCount;
+    }
+
+    /**
+     * Creates the enemies on the lattice and stores them internally.
+     * Call {@link #getEnemies()} afterwards to retrieve the list.
+     */
+    @Override
+    public void createEnemies() {
+        placeEnemies(FormationLayout.get(
+                new Key(playWidth, playHeight, enemyWidth, enemyHeight, enemyCount),
+                SwarmFormation::layout));
+    }
+
+    /**
+     * Computes the swarm positions: a lattice filling the top band of the
+     * play area.
+     *
+     * @param key play area, enemy size and enemy count
+     * @return the layout
+     */
+    private static FormationLayout layout(Key key) {
+        int enemyCount = key.enemyCount();
+        double enemyWidth = key.enemyWidth();
+        double enemyHeight = key.enemyHeight();
+
+        double bandWidth = Math.max(enemyWidth, key.playWidth() - enemyWidth);
+        double bandHeight = Math.max(enemyHeight, key.playHeight() * BAND_FRACTION - TOP);
+
+        // Square lattice cells whose total area matches the band
+        double spacing = Math.sqrt(bandWidth * bandHeight / enemyCount);
+        int cols = Math.max(1, (int) (bandWidth / spacing));
+        int rows = (enemyCount + cols - 1) / cols;
+        double spacingX = bandWidth / cols;
+        double spacingY = Math.min(spacing, bandHeight / rows);
+
+        double[] xs = new double[enemyCount];
+        double[] ys = new double[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            xs[i] = (i % cols) * spacingX;
+            ys[i] = TOP + (i / cols) * spacingY;
+        }
+        return new FormationLayout(xs, ys);
+    }
+
+    /**
+     * Everything the swarm positions depend on.
+     */
+    private record Key(double playWidth, double playHeight,
+                       double enemyWidth, double enemyHeight,
+                       int enemyCount) {
+    }
+}
@@ -1,10 +1,8 @@
 package alienmarauders.game.formation;
 
-import alienmarauders.game.entities.Enemy;
 import alienmarauders.game.movement.MovementStrategy;
 import javafx.scene.image.Image;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -14,26 +12,20 @@ import java.util.Random;
  * and each subsequent row adds one enemy on the left and one
  * on the right, offset diagonally downwards.
  */
-public class VFormation implements Formation {
+public class VFormation extends AbstractFormation {
 
-    private final double playWidth;
-    private final double playHeight;
-    private final Image[] enemySheets;
-    private final int[] enemyFrameCounts;
-    private final MovementStrategy movement;
-    private final double speedMultiplier;
     private final int rows;
-    private final Random rng;
-
-    private final ArrayList<Enemy> enemies = new ArrayList<>();
 
     /**
      * Constructs a new V-shaped enemy formation.
      *
      * @param playWidth        width of the play area in pixels
      * @param playHeight       height of the play area in pixels
-     * @param enemySheets      array of enemy sprite sheets to choose from
+     * @param enemySheets      array of enemy sprite sheets to choose from (entries may be
+     *                         {@code null} when running headless)
      * @param enemyFrameCounts array of frame counts matching {@code enemySheets}
+     * @param enemyWidth       width of one enemy in pixels
+     * @param enemyHeight      height of one enemy in pixels
      * @param movement         movement strategy used by all enemies in this formation
      * @param speedMultiplier  speed multiplier for the enemies in this formation
      * @param rows             number of rows in the V (top row is 1 enemy)
@@ -42,19 +34,15 @@ public class VFormation implements Formation {
     public VFormation(double playWidth, double playHeight,
                       Image[] enemySheets,
                       int[] enemyFrameCounts,
+                      double enemyWidth, double enemyHeight,
                       MovementStrategy movement,
                       double speedMultiplier,
                       int rows,
                       Random rng) {
 
-        this.playWidth = playWidth;
-        this.playHeight = playHeight;
-        this.enemySheets = enemySheets;
-        this.enemyFrameCounts = enemyFrameCounts;
-        this.movement = movement;
-        this.speedMultiplier = speedMultiplier;
+        super(playWidth, playHeight, enemySheets, enemyFrameCounts, enemyWidth, enemyHeight,
+              movement, speedMultiplier, rng);
         this.rows = rows;
-        this.rng = rng;
     }
 
     /**
@@ -63,67 +51,55 @@ public class VFormation implements Formation {
      */
     @Override
     public void createEnemies() {
-        enemies.clear();
-
-        // Use the first sheet just to derive base width/height
-        int framesInFirstSheet = enemyFrameCounts[0];
-        double frameWidth = enemySheets[0].getWidth() / framesInFirstSheet;
-        double frameHeight = enemySheets[0].getHeight();
+        placeEnemies(FormationLayout.get(
+                new Key(playWidth, playHeight, enemyWidth, enemyHeight, rows),
+                VFormation::layout));
+    }
 
-        double enemyWidth = frameWidth;
-        double enemyHeight = frameHeight;
+    /**
+     * Computes the V positions: one enemy at the top center, then one more
+     * on each side per row.
+     *
+     * @param key play area, enemy size and rows
+     * @return the layout
+     */
+    private static FormationLayout layout(Key key) {
+        int rows = key.rows();
+        double enemyWidth = key.enemyWidth();
 
         double spacingX = enemyWidth + 10;
-        double spacingY = enemyHeight + 10;
+        double spacingY = key.enemyHeight() + 10;
 
         // Top center position of the V
         double startY = 50;
-        double centerX = playWidth / 2.0 - enemyWidth / 2.0;
+        double centerX = key.playWidth() / 2.0 - enemyWidth / 2.0;
+
+        int count = Math.max(1, 2 * rows - 1);
+        double[] xs = new double[count];
+        double[] ys = new double[count];
 
         // Row 0: one enemy at the top center
-        addEnemy(centerX, startY, enemyWidth, enemyHeight);
+        xs[0] = centerX;
+        ys[0] = startY;
 
         // Subsequent rows: one on left, one on right, forming a V
+        int i = 1;
         for (int r = 1; r < rows; r++) {
             double y = startY + r * spacingY;
 
-            double xLeft = centerX - r * spacingX;
-            double xRight = centerX + r * spacingX;
-
-            addEnemy(xLeft, y, enemyWidth, enemyHeight);
-            addEnemy(xRight, y, enemyWidth, enemyHeight);
+            xs[i] = centerX - r * spacingX;
+            ys[i++] = y;
+            xs[i] = centerX + r * spacingX;
+            ys[i++] = y;
         }
+        return new FormationLayout(xs, ys);
     }
 
     /**
-     * Helper that creates a single enemy at (x, y) with a random sprite sheet.
-     * It also picks the correct frame count for that sprite sheet.
-     *
-     * @param x      X coordinate for the enemy
-     * @param y      Y coordinate for the enemy
-     * @param width  drawing width in pixels
-     * @param height drawing height in pixels
+     * Everything the V positions depend on.
      */
-    private void addEnemy(double x, double y, double width, double height) {
-        int index = rng.nextInt(enemySheets.length);
-        Image sprite = enemySheets[index];
-        int framesInSheet = enemyFrameCounts[index];
-
-        Enemy e = new Enemy(x, y, width, height, sprite, framesInSheet);
-        e.setMovementStrategy(movement);
-        e.setSpeedMultiplier(speedMultiplier);
-        e.setBounds(playWidth, playHeight);
-
-        enemies.add(e);
-    }
-
-    /**
-     * Returns the list of enemies created by {@link #createEnemies()}.
-     *
-     * @return mutable list of enemies in this formation
-     */
-    @Override
-    public ArrayList<Enemy> getEnemies() {
-        return enemies;
+    private record Key(double playWidth, double playHeight,
+                       double enemyWidth, double enemyHeight,
+                       int rows) {
     }
 }
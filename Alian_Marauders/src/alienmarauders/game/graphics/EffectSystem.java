@@ -0,0 +1,234 @@
+package alienmarauders.game.graphics;
+
+import java.util.Arrays;
+
+import javafx.scene.image.Image;
+
+/**
+ * Fixed-capacity system for short-lived sprite sheet effects (muzzle flashes,
+ * hit sparks, explosions).
+ * <p>
+ * An effect is a few numbers, not an object: position, size, effect kind,
+ * current frame and the time spent on that frame live in parallel primitive
+ * arrays indexed by slot, and slots {@code 0 .. size() - 1} are always dense.
+ * An effect that has played its last frame, or that is outside the view when
+ * drawn, is removed by moving the last effect into its slot (swap-remove), so
+ * slot order is not spawn order. All arrays are allocated up front; when the
+ * system is full, {@link #spawn} drops the new effect instead of growing (a
+ * missing spark is better than a GC pause).
+ * <p>
+ * Each effect kind is one horizontal sprite sheet registered with
+ * {@link #registerKind}. Effects do not move and play once. {@link #update}
+ * advances them by game time and {@link #render} queues the current frames
+ * into a {@link SpriteBatch}, which draws all effects of one kind together.
+ * <p>
+ * Not thread-safe; used from the game loop thread only.
+ */
+public final class EffectSystem {
+
+    private static final Image[] NO_FRAMES = new Image[0];
+
+    // Per kind
+    private Image[] kindSheet = new Image[4];
+    private Image[][] kindFrames = new Image[4][];
+    private int[] kindFrameCount = new int[4];
+    private double[] kindFrameMillis = new double[4];
+    private int kindCount;
+
+    // Per effect slot
+    private final double[] x;
+    private final double[] y;
+    private final double[] width;
+    private final double[] height;
+    private final int[] kind;
+    private final int[] frame;
+    private final double[] frameTime;
+    private int size;
+
+    private int culled;
+
+    /**
+     * Creates an empty system.
+     *
+     * @param capacity most effects alive at the same time
+     */
+    public EffectSystem(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        kind = new int[capacity];
+        frame = new int[capacity];
+        frameTime = new double[capacity];
+    }
+
+    /**
+     * Registers an effect kind.
+     *
+     * @param spriteSheet frames in one horizontal row, or {@code null} when
+     *                    running headless (the effect plays but draws nothing)
+     * @param frameCount  number of frames in the sheet
+     * @param frameMillis how long each frame is shown, in milliseconds
+     * @return the kind id to pass to {@link #spawn}
+     */
+    public int registerKind(Image spriteSheet, int frameCount, double frameMillis) {
+        if (kindCount == kindSheet.length) {
+            int grown = kindCount * 2;
+            kindSheet = Arrays.copyOf(kindSheet, grown);
+            kindFrames = Arrays.copyOf(kindFrames, grown);
+            kindFrameCount = Arrays.copyOf(kindFrameCount, grown);
+            kindFrameMillis = Arrays.copyOf(kindFrameMillis, grown);
+        }
+        int id = kindCount++;
+        kindSheet[id] = spriteSheet;
+        kindFrames[id] = (spriteSheet != null) ? SpriteFrameCache.getFrames(spriteSheet, frameCount) : NO_FRAMES;
+        kindFrameCount[id] = Math.max(1, frameCount);
+        kindFrameMillis[id] = frameMillis;
+        return id;
+    }
+
+    /**
+     * Starts an effect at its first frame.
+     *
+     * @param effectKind kind id from {@link #registerKind}
+     * @param x          left edge in pixels
+     * @param y          top edge in pixels
+     * @param width      width in pixels
+     * @param height     height in pixels
+     * @return {@code false} if the system is full and the effect was dropped
+     */
+    public boolean spawn(int effectKind, double x, double y, double width, double height) {
+        if (size == kind.length) {
+            return false;
+        }
+        int slot = size++;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.kind[slot] = effectKind;
+        this.frame[slot] = 0;
+        this.frameTime[slot] = 0.0;
+        return true;
+    }
+
+    /**
+     * Advances every effect by an amount of game time and removes those that
+     * have shown their last frame for a full frame duration.
+     *
+     * @param deltaMillis game time elapsed since the last update, in milliseconds
+     */
+    public void update(double deltaMillis) {
+        if (deltaMillis <= 0) {
+            return;
+        }
+        int slot = 0;
+        while (slot < size) {
+            int k = kind[slot];
+            double frameMillis = kindFrameMillis[k];
+            double time = frameTime[slot] + deltaMillis;
+            int current = frame[slot];
+            if (time >= frameMillis) {
+                int steps = (int) (time / frameMillis);
+                current += steps;
+                time -= steps * frameMillis;
+            }
+            if (current >= kindFrameCount[k]) {
+                removeAt(slot); // re-checks the moved effect
+                continue;
+            }
+            frame[slot] = current;
+            frameTime[slot] = time;
+            slot++;
+        }
+    }
+
+    /**
+     * Queues the current frame of every effect inside a view that starts at
+     * the origin. Effects outside the view are removed without being drawn,
+     * since effects never move into it.
+     *
+     * @param batch      the batch to queue into
+     * @param viewWidth  width of the visible area in pixels
+     * @param viewHeight height of the visible area in pixels
+     */
+    public void render(SpriteBatch batch, double viewWidth, double viewHeight) {
+        culled = 0;
+        int slot = 0;
+        while (slot < size) {
+            double left = x[slot];
+            double top = y[slot];
+            double w = width[slot];
+            double h = height[slot];
+            if (left >= viewWidth || top >= viewHeight || left + w <= 0 || top + h <= 0) {
+                culled++;
+                removeAt(slot);
+                continue;
+            }
+            int k = kind[slot];
+            Image[] frames = kindFrames[k];
+            if (frames.length > 0
+                    && !SpriteAtlas.batchFrame(batch, kindSheet[k], frame[slot], frames.length, left, top, w, h)) {
+                batch.drawImage(frames[frame[slot]], left, top, w, h);
+            }
+            slot++;
+        }
+    }
+
+    /**
+     * Removes all effects.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the number of effects currently playing.
+     *
+     * @return effect count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether no effect is playing.
+     *
+     * @return {@code true} if the system is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the most effects that can play at the same time.
+     *
+     * @return capacity in effects
+     */
+    public int getCapacity() {
+        return kind.length;
+    }
+
+    /**
+     * Returns how many effects the last {@link #render} pass removed for
+     * being outside the view.
+     *
+     * @return culled effect count of the last pass
+     */
+    public int getCulledCount() {
+        return culled;
+    }
+
+    private void removeAt(int slot) {
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            kind[slot] = kind[last];
+            frame[slot] = frame[last];
+            frameTime[slot] = frameTime[last];
+        }
+    }
+}
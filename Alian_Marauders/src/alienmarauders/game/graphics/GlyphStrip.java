@@ -0,0 +1,124 @@
+package alienmarauders.game.graphics;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Pre-rasterized text for one font and color.
+ * <p>
+ * {@link GraphicsContext#fillText} lays out and rasterizes its string on every
+ * call. A glyph strip does that once: the printable ASCII characters are drawn
+ * side by side into a single image, and {@link #draw} copies one source
+ * rectangle per character. Characters outside printable ASCII are drawn as
+ * blanks.
+ * <p>
+ * Creating a strip takes a snapshot, so it must happen on the JavaFX
+ * application thread; create strips lazily from rendering code.
+ */
+public final class GlyphStrip {
+
+    private static final char FIRST = ' ';
+    private static final char LAST = '~';
+
+    /** Transparent gap between glyphs so filtering never bleeds in neighbours. */
+    private static final int PADDING = 2;
+
+    private final WritableImage image;
+    private final double[] offsets = new double[LAST - FIRST + 1];
+    private final double[] advances = new double[LAST - FIRST + 1];
+    private final double height;
+    private final double baseline;
+
+    /**
+     * Rasterizes the printable ASCII characters.
+     *
+     * @param font  font to draw with
+     * @param color text color
+     */
+    public GlyphStrip(Font font, Color color) {
+        Text probe = new Text();
+        probe.setFont(font);
+
+        double x = PADDING;
+        for (char c = FIRST; c <= LAST; c++) {
+            probe.setText(String.valueOf(c));
+            offsets[c - FIRST] = x;
+            advances[c - FIRST] = probe.getLayoutBounds().getWidth();
+            x += Math.ceil(advances[c - FIRST]) + PADDING;
+        }
+        height = Math.ceil(probe.getLayoutBounds().getHeight());
+        baseline = probe.getBaselineOffset();
+
+        Canvas canvas = new Canvas(Math.ceil(x), height);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFont(font);
+        gc.setFill(color);
+        gc.setTextBaseline(VPos.BASELINE);
+        for (char c = FIRST; c <= LAST; c++) {
+            gc.fillText(String.valueOf(c), offsets[c - FIRST], baseline);
+        }
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(parameters, null);
+    }
+
+    /**
+     * Draws a string with its baseline at {@code y}, like
+     * {@link GraphicsContext#fillText} with the default text baseline.
+     *
+     * @param gc   context to draw on
+     * @param text text to draw
+     * @param x    left edge in pixels
+     * @param y    baseline in pixels
+     * @return the x coordinate after the last character
+     */
+    public double draw(GraphicsContext gc, String text, double x, double y) {
+        double top = y - baseline;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            x = drawChar(gc, text.charAt(i), x, top);
+        }
+        return x;
+    }
+
+    /**
+     * Draws a number in decimal without building a string for it.
+     *
+     * @param gc    context to draw on
+     * @param value number to draw
+     * @param x     left edge in pixels
+     * @param y     baseline in pixels
+     * @return the x coordinate after the last digit
+     */
+    public double drawNumber(GraphicsContext gc, long value, double x, double y) {
+        double top = y - baseline;
+        if (value < 0) {
+            x = drawChar(gc, '-', x, top);
+        }
+        // Digits are taken from the negative value so Long.MIN_VALUE works too
+        long negative = (value < 0) ? value : -value;
+        long divisor = 1;
+        while (negative / divisor <= -10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            x = drawChar(gc, (char) ('0' - negative / divisor % 10), x, top);
+        }
+        return x;
+    }
+
+    private double drawChar(GraphicsContext gc, char c, double x, double top) {
+        if (c <= FIRST || c > LAST) {
+            return x + advances[0];
+        }
+        int glyph = c - FIRST;
+        double width = Math.ceil(advances[glyph]);
+        gc.drawImage(image, offsets[glyph], 0, width, height, x, top, width, height);
+        return x + advances[glyph];
+    }
+}
@@ -2,25 +2,31 @@ package alienmarauders.game.graphics;
 
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelReader;
-import javafx.scene.image.WritableImage;
 
 /**
  * Helper class for animating a horizontal sprite sheet.
  * <p>
  * The sprite sheet is assumed to contain {@code numImages} frames laid out
- * in a single row. Each call to
- * {@link #render(GraphicsContext, double, double, double, double)}
- * advances the internal frame pointer based on the configured time per image.
+ * in a single row. The frame pointer moves only when the owner passes the
+ * elapsed game time to {@link #advance(double)}; rendering just draws the
+ * current frame. Animation is therefore deterministic, stops while the game
+ * clock is paused, and also runs headless, where there is nothing to draw.
+ * <p>
+ * Frames come from the shared {@link SpriteFrameCache}, so an instance only
+ * holds its playback state (frame index and time accumulator).
  */
 public class ImageStride {
 
+    private static final Image[] NO_FRAMES = new Image[0];
+
+    private final Image sheet;
     private final Image[] frames;
+    private final int frameCount;
     private final double timePerImageMillis;
     private final boolean loop;
 
     private int currentFrame = 0;
-    private long lastUpdateNanos;
+    private boolean finished;
 
     /** Accumulates elapsed time (in ms) between frames. */
     private double frameAccumulatorMillis = 0.0;
@@ -57,15 +63,47 @@ public class ImageStride {
                        boolean loop) {
         this.timePerImageMillis = timePerImageMillis;
         this.loop = loop;
-        this.frames = sliceSpriteSheet(spriteSheet, numImages);
-        this.lastUpdateNanos = System.nanoTime();
+        this.sheet = spriteSheet;
+        // No sheet when running headless: nothing to slice or draw
+        this.frames = (spriteSheet != null) ? SpriteFrameCache.getFrames(spriteSheet, numImages) : NO_FRAMES;
+        this.frameCount = Math.max(1, numImages);
     }
 
     /**
-     * Renders the current frame at the given position and size.
+     * Advances the frame index by an amount of game time, honoring
+     * {@link #timePerImageMillis} and {@link #loop}.
      * <p>
-     * This method also advances the internal frame index, based on the elapsed
-     * real time since it was last called.
+     * Small time steps are accumulated until at least one full frame duration
+     * has passed, ensuring that animations advance even at high frame rates.
+     * A non-looping animation finishes once its last frame has been shown for
+     * a full frame duration.
+     *
+     * @param deltaMillis game time elapsed since the last call, in milliseconds
+     */
+    public void advance(double deltaMillis) {
+        if (deltaMillis <= 0 || finished) {
+            return;
+        }
+        frameAccumulatorMillis += deltaMillis;
+
+        while (frameAccumulatorMillis >= timePerImageMillis) {
+            frameAccumulatorMillis -= timePerImageMillis;
+
+            if (loop) {
+                currentFrame = (currentFrame + 1) % frameCount;
+            } else if (currentFrame < frameCount - 1) {
+                currentFrame++;
+            } else {
+                // Stay on the last frame once it has been shown
+                finished = true;
+                frameAccumulatorMillis = 0.0;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Renders the current frame at the given position and size.
      *
      * @param gc
      *         the {@link GraphicsContext} to draw on
@@ -83,23 +121,44 @@ public class ImageStride {
                        double y,
                        double width,
                        double height) {
-        updateFrameIndexFromTime();
         if (frames.length == 0) {
             return;
         }
+        if (SpriteAtlas.drawFrame(gc, sheet, currentFrame, frames.length, x, y, width, height)) {
+            return;
+        }
         Image frame = frames[currentFrame];
         gc.drawImage(frame, x, y, width, height);
     }
 
     /**
-     * Returns {@code true} if this animation has reached its final frame
-     * and is not configured to loop.
+     * Queues the current frame into a batch instead of drawing it right away.
+     *
+     * @param batch  the batch to queue into
+     * @param x      destination x coordinate in pixels
+     * @param y      destination y coordinate in pixels
+     * @param width  destination width in pixels
+     * @param height destination height in pixels
+     */
+    public void render(SpriteBatch batch, double x, double y, double width, double height) {
+        if (frames.length == 0) {
+            return;
+        }
+        if (SpriteAtlas.batchFrame(batch, sheet, currentFrame, frames.length, x, y, width, height)) {
+            return;
+        }
+        batch.drawImage(frames[currentFrame], x, y, width, height);
+    }
+
+    /**
+     * Returns {@code true} if this animation is not configured to loop and
+     * has shown its final frame for a full frame duration.
      *
      * @return {@code true} if a non-looping animation has completed,
      *         otherwise {@code false}
      */
     public boolean isFinished() {
-        return !loop && currentFrame == frames.length - 1;
+        return finished;
     }
 
     /**
@@ -108,70 +167,6 @@ public class ImageStride {
     public void reset() {
         currentFrame = 0;
         frameAccumulatorMillis = 0.0;
-        lastUpdateNanos = System.nanoTime();
-    }
-
-    /**
-     * Slices a horizontal sprite sheet into individual frame images.
-     *
-     * @param spriteSheet
-     *         the full sprite sheet image
-     * @param numImages
-     *         number of frames contained in the sprite sheet
-     * @return an array of per-frame {@link Image} objects, one for each frame
-     */
-    private Image[] sliceSpriteSheet(Image spriteSheet, int numImages) {
-        Image[] result = new Image[numImages];
-        PixelReader reader = spriteSheet.getPixelReader();
-        int frameWidth = (int) (spriteSheet.getWidth() / numImages);
-        int frameHeight = (int) spriteSheet.getHeight();
-
-        for (int i = 0; i < numImages; i++) {
-            WritableImage frame = new WritableImage(reader,
-                                                    i * frameWidth,
-                                                    0,
-                                                    frameWidth,
-                                                    frameHeight);
-            result[i] = frame;
-        }
-
-        return result;
-    }
-
-    /**
-     * Advances {@link #currentFrame} according to the time elapsed since the
-     * last call, honoring {@link #timePerImageMillis} and {@link #loop}.
-     * <p>
-     * Small time steps are accumulated until at least one full frame duration
-     * has passed, ensuring that animations advance even at high frame rates.
-     */
-    private void updateFrameIndexFromTime() {
-        long now = System.nanoTime();
-        long elapsedNanos = now - lastUpdateNanos;
-        lastUpdateNanos = now;
-
-        double elapsedMillis = elapsedNanos / 1_000_000.0;
-        if (elapsedMillis <= 0 || frames.length == 0) {
-            return;
-        }
-
-        // Accumulate elapsed time like the old frameTimer.
-        frameAccumulatorMillis += elapsedMillis;
-
-        while (frameAccumulatorMillis >= timePerImageMillis) {
-            frameAccumulatorMillis -= timePerImageMillis;
-
-            if (loop) {
-                currentFrame = (currentFrame + 1) % frames.length;
-            } else {
-                if (currentFrame < frames.length - 1) {
-                    currentFrame++;
-                } else {
-                    // Stay on last frame if non-looping.
-                    frameAccumulatorMillis = 0.0;
-                    break;
-                }
-            }
-        }
+        finished = false;
     }
 }
@@ -0,0 +1,406 @@
+package alienmarauders.game.graphics;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+import javafx.scene.paint.Color;
+import javafx.util.Callback;
+
+/**
+ * Software rasterizer that draws a {@link SpriteBatch} straight into pixels.
+ * <p>
+ * With very large waves, the canvas path spends most of its time recording
+ * and replaying one {@code GraphicsContext} command per sprite and bar. This
+ * renderer instead blits the queued sprites (nearest-neighbour scaling,
+ * premultiplied alpha blending) and rectangles into an {@code int[]} that
+ * backs a {@link PixelBuffer}. The frame is split into horizontal bands that
+ * are cleared and drawn in parallel on a {@link ForkJoinPool}; every band
+ * walks the whole batch in emit order and clips it to its rows, so bands never
+ * write the same pixel. Small batches are drawn on the calling thread, where a
+ * handoff would cost more than it saves.
+ * <p>
+ * {@link #present()} then publishes the whole frame with a single
+ * {@link PixelBuffer#updateBuffer} call; show {@link #getImage()} in an
+ * {@code ImageView}. Sprite pixels are read once per image and cached. Only
+ * {@link Color} paints are drawn; other paints are skipped.
+ * <p>
+ * Apart from {@link #resize}, new sprite images and growing per-frame tables,
+ * rendering does not allocate. {@link #present()} must run on the JavaFX
+ * application thread; {@link #rasterize} may run on any single thread.
+ */
+public final class PixelBufferRenderer {
+
+    /** Sprites plus rectangles below which bands are drawn on the calling thread. */
+    private static final int MIN_PARALLEL_COMMANDS = 512;
+
+    private static final WritablePixelFormat<IntBuffer> FORMAT = PixelFormat.getIntArgbPreInstance();
+
+    private final ForkJoinPool pool;
+    private final BandTask[] bands;
+    private final boolean parallel;
+    private final RootTask root = new RootTask();
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> wholeFrame = buffer -> null;
+
+    private final Map<Image, int[]> spritePixels = new IdentityHashMap<>();
+
+    private int width;
+    private int height;
+    private int[] pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage image;
+
+    // Current frame, valid during rasterize()
+    private SpriteBatch batch;
+    private int[] spriteOrder;
+    private int[] fillOrder;
+    private int[] strokeOrder;
+    private int[][] keyPixels = new int[8][];
+    private int[] keyWidths = new int[8];
+    private int[] fillColors = new int[4];
+    private int[] strokeColors = new int[4];
+
+    /**
+     * Creates a renderer using all but one of the available processors. On a
+     * single processor it always draws on the calling thread.
+     *
+     * @param width  initial frame width in pixels
+     * @param height initial frame height in pixels
+     */
+    public PixelBufferRenderer(int width, int height) {
+        this(width, height, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates a renderer with a given parallelism.
+     *
+     * @param width       initial frame width in pixels
+     * @param height      initial frame height in pixels
+     * @param parallelism number of worker threads; 1 draws on the calling thread only
+     */
+    public PixelBufferRenderer(int width, int height, int parallelism) {
+        pool = new ForkJoinPool(parallelism, p -> {
+            var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            worker.setDaemon(true);
+            worker.setName("Raster-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+
+        // A few bands per worker so crowded rows still balance
+        parallel = parallelism > 1;
+        bands = new BandTask[parallelism * 4];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = new BandTask();
+        }
+        resize(width, height);
+    }
+
+    /**
+     * Reallocates the frame for a new size. Does nothing if the size is unchanged.
+     *
+     * @param width  frame width in pixels, at least 1
+     * @param height frame height in pixels, at least 1
+     */
+    public void resize(int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        if (width == this.width && height == this.height) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+        pixelBuffer = new PixelBuffer<>(width, height, IntBuffer.wrap(pixels), FORMAT);
+        image = new WritableImage(pixelBuffer);
+    }
+
+    /**
+     * Returns the image showing the frame. It changes after {@link #resize}.
+     *
+     * @return image backed by the pixel buffer
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Clears the frame and draws every command queued in the batch, in the
+     * same order as {@link SpriteBatch#flush}, then empties the batch. The
+     * batch reports no {@code GraphicsContext} draw calls for this frame.
+     *
+     * @param batch the queued sprites and rectangles of this frame
+     */
+    public void rasterize(SpriteBatch batch) {
+        this.batch = batch;
+        spriteOrder = batch.sprites.sort();
+        fillOrder = batch.fills.sort();
+        strokeOrder = batch.strokes.sort();
+        prepareKeys(batch);
+
+        int commands = batch.sprites.count + batch.fills.count + batch.strokes.count;
+        if (!parallel || commands < MIN_PARALLEL_COMMANDS) {
+            drawRows(0, height);
+        } else {
+            root.reinitialize();
+            pool.invoke(root);
+        }
+
+        this.batch = null;
+        batch.finish(0, 0);
+    }
+
+    /**
+     * Hands the finished frame to JavaFX. Call on the JavaFX application
+     * thread after {@link #rasterize}.
+     */
+    public void present() {
+        pixelBuffer.updateBuffer(wholeFrame);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Resolves the frame's images and paints to pixel arrays and colors, so
+     * the bands only read plain arrays.
+     */
+    private void prepareKeys(SpriteBatch batch) {
+        SpriteBatch.Queue sprites = batch.sprites;
+        if (keyPixels.length < sprites.keyCount) {
+            keyPixels = new int[sprites.keys.length][];
+            keyWidths = new int[sprites.keys.length];
+        }
+        for (int k = 0; k < sprites.keyCount; k++) {
+            Image sprite = (Image) sprites.keys[k];
+            int[] argb = spritePixels.get(sprite);
+            if (argb == null) {
+                argb = readPixels(sprite);
+                spritePixels.put(sprite, argb);
+            }
+            keyPixels[k] = argb;
+            keyWidths[k] = (int) sprite.getWidth();
+        }
+        fillColors = colors(batch.fills, fillColors);
+        strokeColors = colors(batch.strokes, strokeColors);
+    }
+
+    private static int[] readPixels(Image sprite) {
+        int w = (int) sprite.getWidth();
+        int h = (int) sprite.getHeight();
+        int[] argb = new int[Math.max(1, w * h)];
+        PixelReader reader = sprite.getPixelReader();
+        if (reader != null && w > 0 && h > 0) {
+            reader.getPixels(0, 0, w, h, FORMAT, argb, 0, w);
+        }
+        return argb;
+    }
+
+    private static int[] colors(SpriteBatch.Queue queue, int[] colors) {
+        if (colors.length < queue.keyCount) {
+            colors = new int[queue.keys.length];
+        }
+        for (int k = 0; k < queue.keyCount; k++) {
+            colors[k] = queue.keys[k] instanceof Color color ? premultiplied(color) : 0;
+        }
+        return colors;
+    }
+
+    private static int premultiplied(Color color) {
+        int a = (int) Math.round(color.getOpacity() * 255);
+        int r = (int) Math.round(color.getRed() * a);
+        int g = (int) Math.round(color.getGreen() * a);
+        int b = (int) Math.round(color.getBlue() * a);
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Clears rows {@code [top, bottom)} and draws the whole batch clipped to them.
+     */
+    private void drawRows(int top, int bottom) {
+        Arrays.fill(pixels, top * width, bottom * width, 0);
+
+        SpriteBatch.Queue sprites = batch.sprites;
+        double[] data = sprites.data;
+        for (int i = 0; i < sprites.count; i++) {
+            int command = spriteOrder[i];
+            int key = sprites.keyOf[command];
+            drawSprite(keyPixels[key], keyWidths[key], data, command * sprites.stride, top, bottom);
+        }
+
+        SpriteBatch.Queue fills = batch.fills;
+        for (int i = 0; i < fills.count; i++) {
+            int command = fillOrder[i];
+            int at = command * fills.stride;
+            fillRect(fillColors[fills.keyOf[command]],
+                    left(fills.data, at), rowTop(fills.data, at), right(fills.data, at), rowBottom(fills.data, at),
+                    top, bottom);
+        }
+
+        SpriteBatch.Queue strokes = batch.strokes;
+        for (int i = 0; i < strokes.count; i++) {
+            int command = strokeOrder[i];
+            int at = command * strokes.stride;
+            int color = strokeColors[strokes.keyOf[command]];
+            int x0 = left(strokes.data, at);
+            int y0 = rowTop(strokes.data, at);
+            int x1 = right(strokes.data, at);
+            int y1 = rowBottom(strokes.data, at);
+            // One-pixel outline on the inside of the rectangle's pixel bounds
+            fillRect(color, x0, y0, x1, y0 + 1, top, bottom);
+            fillRect(color, x0, y1 - 1, x1, y1, top, bottom);
+            fillRect(color, x0, y0 + 1, x0 + 1, y1 - 1, top, bottom);
+            fillRect(color, x1 - 1, y0 + 1, x1, y1 - 1, top, bottom);
+        }
+    }
+
+    private static int left(double[] data, int at) {
+        return (int) Math.round(data[at]);
+    }
+
+    private static int rowTop(double[] data, int at) {
+        return (int) Math.round(data[at + 1]);
+    }
+
+    private static int right(double[] data, int at) {
+        return (int) Math.round(data[at] + data[at + 2]);
+    }
+
+    private static int rowBottom(double[] data, int at) {
+        return (int) Math.round(data[at + 1] + data[at + 3]);
+    }
+
+    private void drawSprite(int[] source, int sourceWidth, double[] data, int at, int top, int bottom) {
+        double sx = data[at];
+        double sy = data[at + 1];
+        double sw = data[at + 2];
+        double sh = data[at + 3];
+        double dx = data[at + 4];
+        double dy = data[at + 5];
+        double dw = data[at + 6];
+        double dh = data[at + 7];
+        if (dw <= 0 || dh <= 0) {
+            return;
+        }
+        int x0 = Math.max(0, (int) Math.round(dx));
+        int x1 = Math.min(width, (int) Math.round(dx + dw));
+        int y0 = Math.max(top, (int) Math.round(dy));
+        int y1 = Math.min(bottom, (int) Math.round(dy + dh));
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        double scaleX = sw / dw;
+        double scaleY = sh / dh;
+        int maxSourceX = sourceWidth - 1;
+        int maxSourceY = source.length / Math.max(1, sourceWidth) - 1;
+
+        // Source columns step in 16.16 fixed point along a row
+        int startX = (int) ((sx + (x0 + 0.5 - dx) * scaleX) * 65536);
+        int stepX = (int) (scaleX * 65536);
+        int[] target = pixels;
+        for (int y = y0; y < y1; y++) {
+            int srcY = Math.min(maxSourceY, (int) (sy + (y + 0.5 - dy) * scaleY));
+            int srcRow = srcY * sourceWidth;
+            int index = y * width + x0;
+            int end = y * width + x1;
+            for (int fx = startX; index < end; index++, fx += stepX) {
+                int pixel = source[srcRow + Math.min(maxSourceX, fx >>> 16)];
+                int alpha = pixel >>> 24;
+                if (alpha == 255) {
+                    target[index] = pixel;
+                } else if (alpha != 0) {
+                    blend(index, pixel);
+                }
+            }
+        }
+    }
+
+    private void fillRect(int color, int x0, int y0, int x1, int y1, int top, int bottom) {
+        x0 = Math.max(0, x0);
+        x1 = Math.min(width, x1);
+        y0 = Math.max(top, y0);
+        y1 = Math.min(bottom, y1);
+        if (x0 >= x1 || color >>> 24 == 0) {
+            return;
+        }
+        boolean opaque = color >>> 24 == 255;
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            if (opaque) {
+                Arrays.fill(pixels, row + x0, row + x1, color);
+                continue;
+            }
+            for (int x = x0; x < x1; x++) {
+                blend(row + x, color);
+            }
+        }
+    }
+
+    /** Source-over blend of a premultiplied ARGB pixel that is neither opaque nor transparent. */
+    private void blend(int index, int source) {
+        int keep = 255 - (source >>> 24);
+        int target = pixels[index];
+        if (target == 0) {
+            pixels[index] = source;
+            return;
+        }
+        int a = (source >>> 24) + ((target >>> 24) * keep + 127) / 255;
+        int r = ((source >> 16) & 0xFF) + (((target >> 16) & 0xFF) * keep + 127) / 255;
+        int g = ((source >> 8) & 0xFF) + (((target >> 8) & 0xFF) * keep + 127) / 255;
+        int b = (source & 0xFF) + ((target & 0xFF) * keep + 127) / 255;
+        pixels[index] = a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Splits the frame into bands, forks all but the first and draws the
+     * first on the invoking thread.
+     */
+    private final class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            int bandCount = Math.min(bands.length, height);
+            for (int b = 0; b < bandCount; b++) {
+                bands[b].reinitialize();
+                bands[b].top = (int) ((long) height * b / bandCount);
+                bands[b].bottom = (int) ((long) height * (b + 1) / bandCount);
+            }
+            for (int b = 1; b < bandCount; b++) {
+                bands[b].fork();
+            }
+            bands[0].compute();
+            for (int b = bandCount - 1; b >= 1; b--) {
+                bands[b].join();
+            }
+        }
+    }
+
+    /**
+     * Draws one horizontal band of the frame.
+     */
+    private final class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int top;
+        private int bottom;
+
+        @Override
+        protected void compute() {
+            drawRows(top, bottom);
+        }
+    }
+}
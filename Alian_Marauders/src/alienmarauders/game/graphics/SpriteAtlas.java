@@ -0,0 +1,250 @@
+package alienmarauders.game.graphics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Packs many sprites and sprite sheets into a few large atlas pages and draws
+ * them with source rectangles.
+ * <p>
+ * Instead of one texture per sliced frame, every sprite is copied once into an
+ * atlas page (shelf packing, tallest sprites first) and drawn with the
+ * nine-argument {@link GraphicsContext#drawImage(Image, double, double, double,
+ * double, double, double, double, double)}. Consecutive draws then mostly hit
+ * the same texture, and frames are not duplicated in memory.
+ * <p>
+ * The atlas is opt-in: start the game with {@code -Dalienmarauders.spriteAtlas=true}
+ * to compare it against the default {@link ImageStride}/{@link SpriteFrameCache}
+ * path. Drawing code calls {@link #drawImage} or {@link #drawFrame}, which fall
+ * back to the plain image when no atlas is installed or the sprite is not in it.
+ */
+public final class SpriteAtlas {
+
+    /** System property that enables atlas rendering. */
+    public static final String PROPERTY = "alienmarauders.spriteAtlas";
+
+    /** Minimum edge length of an atlas page. */
+    private static final int PAGE_SIZE = 1024;
+
+    /** Transparent gap around each sprite so filtering never bleeds in neighbours. */
+    private static final int PADDING = 2;
+
+    private static volatile SpriteAtlas installed;
+
+    private final Map<Image, Region> regions = new IdentityHashMap<>();
+    private final List<WritableImage> pages = new ArrayList<>();
+
+    private SpriteAtlas() {
+    }
+
+    /**
+     * Returns whether atlas rendering was requested on the command line.
+     *
+     * @return {@code true} if {@value #PROPERTY} is {@code true}
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Makes an atlas the one used by {@link #drawImage} and {@link #drawFrame}.
+     *
+     * @param atlas the atlas to use, or {@code null} to draw plain images
+     */
+    public static void install(SpriteAtlas atlas) {
+        installed = atlas;
+    }
+
+    /**
+     * Packs the given sprites into as few pages as possible. Duplicates and
+     * images that failed to load are skipped.
+     *
+     * @param sprites sprites and whole sprite sheets to pack
+     * @return the packed atlas
+     */
+    public static SpriteAtlas pack(Image... sprites) {
+        SpriteAtlas atlas = new SpriteAtlas();
+
+        List<Image> unique = new ArrayList<>();
+        for (Image sprite : sprites) {
+            if (sprite != null && sprite.getWidth() > 0 && !unique.contains(sprite)) {
+                unique.add(sprite);
+            }
+        }
+        unique.sort(Comparator.comparingDouble(Image::getHeight).reversed());
+
+        int pageWidth = PAGE_SIZE;
+        int pageHeight = PAGE_SIZE;
+        for (Image sprite : unique) {
+            pageWidth = Math.max(pageWidth, (int) sprite.getWidth() + 2 * PADDING);
+            pageHeight = Math.max(pageHeight, (int) sprite.getHeight() + 2 * PADDING);
+        }
+
+        WritableImage page = null;
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (Image sprite : unique) {
+            int w = (int) sprite.getWidth() + 2 * PADDING;
+            int h = (int) sprite.getHeight() + 2 * PADDING;
+
+            if (page != null && shelfX + w > pageWidth) { // next shelf
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (page == null || shelfY + h > pageHeight) { // next page
+                page = new WritableImage(pageWidth, pageHeight);
+                atlas.pages.add(page);
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+
+            int x = shelfX + PADDING;
+            int y = shelfY + PADDING;
+            page.getPixelWriter().setPixels(x, y, (int) sprite.getWidth(), (int) sprite.getHeight(),
+                    sprite.getPixelReader(), 0, 0);
+            atlas.regions.put(sprite, new Region(page, x, y, sprite.getWidth(), sprite.getHeight()));
+
+            shelfX += w;
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+        return atlas;
+    }
+
+    /**
+     * Draws a whole sprite, from the installed atlas if possible.
+     *
+     * @param gc     the {@link GraphicsContext} to draw on
+     * @param image  the sprite
+     * @param x      destination x coordinate in pixels
+     * @param y      destination y coordinate in pixels
+     * @param width  destination width in pixels
+     * @param height destination height in pixels
+     */
+    public static void drawImage(GraphicsContext gc, Image image,
+                                 double x, double y, double width, double height) {
+        SpriteAtlas atlas = installed;
+        if (atlas == null || !atlas.draw(gc, image, 0, 1, x, y, width, height)) {
+            gc.drawImage(image, x, y, width, height);
+        }
+    }
+
+    /**
+     * Draws one frame of a horizontal sprite sheet from the installed atlas.
+     *
+     * @param gc         the {@link GraphicsContext} to draw on
+     * @param sheet      the full sprite sheet
+     * @param frame      index of the frame to draw
+     * @param frameCount number of frames in the sheet
+     * @param x          destination x coordinate in pixels
+     * @param y          destination y coordinate in pixels
+     * @param width      destination width in pixels
+     * @param height     destination height in pixels
+     * @return {@code true} if drawn, {@code false} if there is no installed
+     *         atlas or the sheet is not in it
+     */
+    public static boolean drawFrame(GraphicsContext gc, Image sheet, int frame, int frameCount,
+                                    double x, double y, double width, double height) {
+        SpriteAtlas atlas = installed;
+        return atlas != null && atlas.draw(gc, sheet, frame, frameCount, x, y, width, height);
+    }
+
+    /**
+     * Queues a whole sprite, from the installed atlas if possible.
+     *
+     * @param batch  the batch to queue into
+     * @param image  the sprite
+     * @param x      destination x coordinate in pixels
+     * @param y      destination y coordinate in pixels
+     * @param width  destination width in pixels
+     * @param height destination height in pixels
+     */
+    public static void batchImage(SpriteBatch batch, Image image,
+                                  double x, double y, double width, double height) {
+        SpriteAtlas atlas = installed;
+        if (atlas == null || !atlas.batch(batch, image, 0, 1, x, y, width, height)) {
+            batch.drawImage(image, x, y, width, height);
+        }
+    }
+
+    /**
+     * Queues one frame of a horizontal sprite sheet from the installed atlas.
+     *
+     * @param batch      the batch to queue into
+     * @param sheet      the full sprite sheet
+     * @param frame      index of the frame to draw
+     * @param frameCount number of frames in the sheet
+     * @param x          destination x coordinate in pixels
+     * @param y          destination y coordinate in pixels
+     * @param width      destination width in pixels
+     * @param height     destination height in pixels
+     * @return {@code true} if queued, {@code false} if there is no installed
+     *         atlas or the sheet is not in it
+     */
+    public static boolean batchFrame(SpriteBatch batch, Image sheet, int frame, int frameCount,
+                                     double x, double y, double width, double height) {
+        SpriteAtlas atlas = installed;
+        return atlas != null && atlas.batch(batch, sheet, frame, frameCount, x, y, width, height);
+    }
+
+    /**
+     * Returns the number of atlas pages.
+     *
+     * @return page count
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    private boolean draw(GraphicsContext gc, Image sheet, int frame, int frameCount,
+                         double x, double y, double width, double height) {
+        Region region = regions.get(sheet);
+        if (region == null) {
+            return false;
+        }
+        // Same integer frame width as SpriteFrameCache slicing
+        double frameWidth = (int) (region.width() / frameCount);
+        gc.drawImage(region.page(),
+                region.x() + frame * frameWidth, region.y(), frameWidth, region.height(),
+                x, y, width, height);
+        return true;
+    }
+
+    private boolean batch(SpriteBatch batch, Image sheet, int frame, int frameCount,
+                          double x, double y, double width, double height) {
+        Region region = regions.get(sheet);
+        if (region == null) {
+            return false;
+        }
+        double frameWidth = (int) (region.width() / frameCount);
+        batch.drawImage(region.page(),
+                region.x() + frame * frameWidth, region.y(), frameWidth, region.height(),
+                x, y, width, height);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "SpriteAtlas{pages=" + pages.size() + ", sprites=" + regions.size() + '}';
+    }
+
+    /**
+     * Location of one packed sprite.
+     *
+     * @param page   atlas page holding the sprite
+     * @param x      left edge in the page
+     * @param y      top edge in the page
+     * @param width  sprite width
+     * @param height sprite height
+     */
+    private record Region(WritableImage page, double x, double y, double width, double height) {}
+}
@@ -0,0 +1,276 @@
+package alienmarauders.game.graphics;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+/**
+ * Collects the draw commands of one frame and emits them grouped by state.
+ * <p>
+ * Drawing enemies one by one alternates between the sprite image and the
+ * health bar paints, so every enemy costs several fill/stroke state changes.
+ * The batch instead queues the commands and, on {@link #flush}, emits all
+ * sprites grouped by image, then all filled rectangles grouped by paint, then
+ * all outlines grouped by paint. Groups keep the order in which their key was
+ * first queued (e.g. red bar backgrounds before green bar fills), and commands
+ * within a group keep their queue order.
+ * <p>
+ * Commands live in flat primitive arrays that grow as needed and are reused,
+ * so queuing and flushing do not allocate once the batch has warmed up.
+ * {@link PixelBufferRenderer} reads the same queues instead of flushing them
+ * to a {@link GraphicsContext}.
+ * Not thread-safe; used from the rendering thread only.
+ */
+public final class SpriteBatch {
+
+    final Queue sprites = new Queue(8);
+    final Queue fills = new Queue(4);
+    final Queue strokes = new Queue(4);
+
+    private int drawCalls;
+    private int stateChanges;
+
+    /**
+     * Queues a sprite, or one frame of a sprite sheet drawn from an atlas.
+     *
+     * @param image   image to draw from
+     * @param sx      source x in the image
+     * @param sy      source y in the image
+     * @param sw      source width
+     * @param sh      source height
+     * @param x       destination x coordinate in pixels
+     * @param y       destination y coordinate in pixels
+     * @param width   destination width in pixels
+     * @param height  destination height in pixels
+     */
+    public void drawImage(Image image, double sx, double sy, double sw, double sh,
+                          double x, double y, double width, double height) {
+        int at = sprites.add(image);
+        double[] data = sprites.data;
+        data[at] = sx;
+        data[at + 1] = sy;
+        data[at + 2] = sw;
+        data[at + 3] = sh;
+        data[at + 4] = x;
+        data[at + 5] = y;
+        data[at + 6] = width;
+        data[at + 7] = height;
+    }
+
+    /**
+     * Queues a whole image scaled to a destination rectangle.
+     *
+     * @param image  image to draw
+     * @param x      destination x coordinate in pixels
+     * @param y      destination y coordinate in pixels
+     * @param width  destination width in pixels
+     * @param height destination height in pixels
+     */
+    public void drawImage(Image image, double x, double y, double width, double height) {
+        drawImage(image, 0, 0, image.getWidth(), image.getHeight(), x, y, width, height);
+    }
+
+    /**
+     * Queues a filled rectangle.
+     *
+     * @param paint  fill paint
+     * @param x      left edge in pixels
+     * @param y      top edge in pixels
+     * @param width  width in pixels
+     * @param height height in pixels
+     */
+    public void fillRect(Paint paint, double x, double y, double width, double height) {
+        queueRect(fills, paint, x, y, width, height);
+    }
+
+    /**
+     * Queues a rectangle outline.
+     *
+     * @param paint  stroke paint
+     * @param x      left edge in pixels
+     * @param y      top edge in pixels
+     * @param width  width in pixels
+     * @param height height in pixels
+     */
+    public void strokeRect(Paint paint, double x, double y, double width, double height) {
+        queueRect(strokes, paint, x, y, width, height);
+    }
+
+    /**
+     * Emits every queued command and empties the batch. The counters for
+     * {@link #getDrawCalls()} and {@link #getStateChanges()} describe this flush.
+     *
+     * @param gc the {@link GraphicsContext} to draw on
+     */
+    public void flush(GraphicsContext gc) {
+        drawCalls = 0;
+        stateChanges = 0;
+
+        int[] order = sprites.sort();
+        double[] data = sprites.data;
+        Image current = null;
+        for (int i = 0; i < sprites.count; i++) {
+            int command = order[i];
+            Image image = (Image) sprites.keys[sprites.keyOf[command]];
+            if (image != current) {
+                current = image;
+                stateChanges++;
+            }
+            int at = command * sprites.stride;
+            gc.drawImage(image, data[at], data[at + 1], data[at + 2], data[at + 3],
+                    data[at + 4], data[at + 5], data[at + 6], data[at + 7]);
+        }
+        drawCalls += sprites.count;
+
+        emitRects(gc, fills, true);
+        emitRects(gc, strokes, false);
+        clear();
+    }
+
+    /**
+     * Empties the batch after its commands were consumed some other way.
+     *
+     * @param drawCalls    draw calls to report for this frame
+     * @param stateChanges state changes to report for this frame
+     */
+    void finish(int drawCalls, int stateChanges) {
+        this.drawCalls = drawCalls;
+        this.stateChanges = stateChanges;
+        clear();
+    }
+
+    private void clear() {
+        sprites.clear();
+        fills.clear();
+        strokes.clear();
+    }
+
+    /**
+     * Returns the number of draw calls issued by the last {@link #flush}.
+     *
+     * @return draw call count
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Returns the number of image switches and fill/stroke paint changes in
+     * the last {@link #flush}.
+     *
+     * @return state change count
+     */
+    public int getStateChanges() {
+        return stateChanges;
+    }
+
+    private static void queueRect(Queue queue, Paint paint, double x, double y, double width, double height) {
+        int at = queue.add(paint);
+        double[] data = queue.data;
+        data[at] = x;
+        data[at + 1] = y;
+        data[at + 2] = width;
+        data[at + 3] = height;
+    }
+
+    private void emitRects(GraphicsContext gc, Queue queue, boolean fill) {
+        int[] order = queue.sort();
+        double[] data = queue.data;
+        int currentKey = -1;
+        for (int i = 0; i < queue.count; i++) {
+            int command = order[i];
+            int key = queue.keyOf[command];
+            if (key != currentKey) {
+                currentKey = key;
+                if (fill) {
+                    gc.setFill((Paint) queue.keys[key]);
+                } else {
+                    gc.setStroke((Paint) queue.keys[key]);
+                }
+                stateChanges++;
+            }
+            int at = command * queue.stride;
+            if (fill) {
+                gc.fillRect(data[at], data[at + 1], data[at + 2], data[at + 3]);
+            } else {
+                gc.strokeRect(data[at], data[at + 1], data[at + 2], data[at + 3]);
+            }
+        }
+        drawCalls += queue.count;
+    }
+
+    /**
+     * Commands of one kind: {@code stride} doubles each plus the index of
+     * their key (image or paint) in {@link #keys}. Keys are found by identity
+     * with a linear scan; a frame only uses a handful of them.
+     */
+    static final class Queue {
+        final int stride;
+        double[] data;
+        int[] keyOf = new int[64];
+        int count;
+
+        Object[] keys = new Object[8];
+        int keyCount;
+
+        private int[] order = new int[64];
+        private int[] groupStart = new int[9];
+
+        Queue(int stride) {
+            this.stride = stride;
+            this.data = new double[64 * stride];
+        }
+
+        /** Appends a command and returns the offset of its data. */
+        int add(Object key) {
+            if (count == keyOf.length) {
+                keyOf = Arrays.copyOf(keyOf, count * 2);
+                data = Arrays.copyOf(data, count * 2 * stride);
+            }
+            keyOf[count] = keyIndex(key);
+            return count++ * stride;
+        }
+
+        private int keyIndex(Object key) {
+            for (int k = keyCount - 1; k >= 0; k--) {
+                if (keys[k] == key) {
+                    return k;
+                }
+            }
+            if (keyCount == keys.length) {
+                keys = Arrays.copyOf(keys, keyCount * 2);
+            }
+            keys[keyCount] = key;
+            return keyCount++;
+        }
+
+        /** Counting sort by key index; stable, so queue order is kept per key. */
+        int[] sort() {
+            if (order.length < count) {
+                order = new int[keyOf.length];
+            }
+            if (groupStart.length < keyCount + 1) {
+                groupStart = new int[keys.length + 1];
+            }
+            Arrays.fill(groupStart, 0, keyCount + 1, 0);
+            for (int i = 0; i < count; i++) {
+                groupStart[keyOf[i] + 1]++;
+            }
+            for (int k = 0; k < keyCount; k++) {
+                groupStart[k + 1] += groupStart[k];
+            }
+            for (int i = 0; i < count; i++) {
+                order[groupStart[keyOf[i]]++] = i;
+            }
+            return order;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, keyCount, null);
+            keyCount = 0;
+            count = 0;
+        }
+    }
+}
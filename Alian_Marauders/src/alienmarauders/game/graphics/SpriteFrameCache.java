@@ -0,0 +1,76 @@
+package alienmarauders.game.graphics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Global cache of sliced sprite-sheet frames.
+ * <p>
+ * Slicing a sheet copies its pixels into one {@link WritableImage} per frame.
+ * Every {@link ImageStride} over the same sheet needs exactly the same frames,
+ * so they are sliced once per (sheet, frame count) and shared. The returned
+ * arrays must be treated as read-only.
+ * <p>
+ * Sheets are keyed by identity ({@link Image} does not override
+ * {@code equals}); the game loads each sheet once, so the cache stays as
+ * small as the number of distinct sheets.
+ */
+public final class SpriteFrameCache {
+
+    private static final Map<Key, Image[]> FRAMES = new ConcurrentHashMap<>();
+
+    private SpriteFrameCache() {
+    }
+
+    /**
+     * Returns the frames of a horizontal sprite sheet, slicing it on first use.
+     *
+     * @param spriteSheet the full sprite sheet image (frames in one horizontal row)
+     * @param numImages   number of frames contained in the sprite sheet
+     * @return shared frame array; do not modify
+     */
+    public static Image[] getFrames(Image spriteSheet, int numImages) {
+        return FRAMES.computeIfAbsent(new Key(spriteSheet, numImages),
+                key -> slice(key.sheet(), key.frames()));
+    }
+
+    /**
+     * Returns the number of cached (sheet, frame count) entries.
+     *
+     * @return cache size
+     */
+    public static int size() {
+        return FRAMES.size();
+    }
+
+    /**
+     * Slices a horizontal sprite sheet into individual frame images.
+     *
+     * @param spriteSheet the full sprite sheet image
+     * @param numImages   number of frames contained in the sprite sheet
+     * @return an array of per-frame {@link Image} objects, one for each frame
+     */
+    private static Image[] slice(Image spriteSheet, int numImages) {
+        Image[] result = new Image[numImages];
+        PixelReader reader = spriteSheet.getPixelReader();
+        int frameWidth = (int) (spriteSheet.getWidth() / numImages);
+        int frameHeight = (int) spriteSheet.getHeight();
+
+        for (int i = 0; i < numImages; i++) {
+            result[i] = new WritableImage(reader, i * frameWidth, 0, frameWidth, frameHeight);
+        }
+        return result;
+    }
+
+    /**
+     * Cache key: sheet identity plus frame count.
+     *
+     * @param sheet  sprite sheet
+     * @param frames number of frames it is sliced into
+     */
+    private record Key(Image sheet, int frames) {}
+}
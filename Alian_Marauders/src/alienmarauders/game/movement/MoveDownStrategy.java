@@ -1,6 +1,7 @@
 package alienmarauders.game.movement;
 
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
 
 /**
  * Movement strategy that moves an enemy straight down the screen
@@ -41,6 +42,28 @@ public class MoveDownStrategy implements MovementStrategy {
         enemy.setPosition(newX, newY);
     }
 
+    /**
+     * Moves all live enemies of a store straight down, over the store's arrays.
+     * Positions are snapped to whole pixels exactly like {@link #moveEnemy},
+     * which reads them through the integer accessors.
+     *
+     * @param enemies         store holding the enemies
+     * @param deltaTimeMillis elapsed time in milliseconds since the last update
+     */
+    @Override
+    public void moveEnemies(EntityStore<Enemy> enemies, double deltaTimeMillis) {
+        double[] xs = enemies.xs();
+        double[] ys = enemies.ys();
+        double dy = Enemy.BASE_SPEED * speedMultiplier * deltaTimeMillis;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (!enemies.isAlive(i)) {
+                continue;
+            }
+            xs[i] = (int) xs[i];
+            ys[i] = (int) ys[i] + dy;
+        }
+    }
+
     /**
      * Sets the speed multiplier used for this movement strategy.
      *
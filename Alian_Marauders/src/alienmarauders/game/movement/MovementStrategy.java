@@ -3,6 +3,7 @@ package alienmarauders.game.movement;
 import java.util.ArrayList;
 
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
 
 public interface MovementStrategy {
     void moveEnemy(Enemy enemy, double deltaTimeMillis);
@@ -11,6 +12,20 @@ public interface MovementStrategy {
             moveEnemy(e, deltaTimeMillis);
         }
     }
+    /**
+     * Moves every live enemy of a store. Strategies may override this to work
+     * on the store's arrays directly.
+     *
+     * @param enemies         store holding the enemies
+     * @param deltaTimeMillis elapsed time in milliseconds since the last update
+     */
+    default void moveEnemies(EntityStore<Enemy> enemies, double deltaTimeMillis) {
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.isAlive(i)) {
+                moveEnemy(enemies.get(i), deltaTimeMillis);
+            }
+        }
+    }
     void setSpeedMultiplier(double speedMultiplier);
     double getSpeedMultiplier();
 }
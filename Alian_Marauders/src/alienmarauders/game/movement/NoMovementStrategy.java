@@ -1,6 +1,7 @@
 package alienmarauders.game.movement;
 
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
 
 public class NoMovementStrategy implements MovementStrategy {
 
@@ -11,6 +12,11 @@ public class NoMovementStrategy implements MovementStrategy {
         // do nothing
     }
 
+    @Override
+    public void moveEnemies(EntityStore<Enemy> enemies, double deltaTimeMillis) {
+        // do nothing
+    }
+
     @Override
     public void setSpeedMultiplier(double speedMultiplier) {
         this.speedMultiplier = speedMultiplier;
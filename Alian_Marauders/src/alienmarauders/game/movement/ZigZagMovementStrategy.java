@@ -1,6 +1,7 @@
 package alienmarauders.game.movement;
 
 import alienmarauders.game.entities.Enemy;
+import alienmarauders.game.entities.EntityStore;
 
 /**
  * Movement strategy that moves enemies downward while oscillating horizontally
@@ -75,6 +76,31 @@ public class ZigZagMovementStrategy implements MovementStrategy {
         enemy.setPosition(newX, newY);
     }
 
+    /**
+     * Moves all live enemies of a store, over the store's arrays. Like
+     * {@link #moveEnemy}, {@code T} advances once per enemy moved, the spawn X
+     * is the store's anchor, and Y is read as a whole pixel.
+     *
+     * @param enemies         store holding the enemies
+     * @param deltaTimeMillis elapsed time in milliseconds since the last update
+     */
+    @Override
+    public void moveEnemies(EntityStore<Enemy> enemies, double deltaTimeMillis) {
+        double[] xs = enemies.xs();
+        double[] ys = enemies.ys();
+        double[] anchors = enemies.anchorXs();
+        double dy = Enemy.BASE_SPEED * speedMultiplier * deltaTimeMillis;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (!enemies.isAlive(i)) {
+                continue;
+            }
+            elapsedMillis += deltaTimeMillis;
+            double phase = 2.0 * Math.PI * OMEGA * elapsedMillis;
+            xs[i] = anchors[i] + A * Math.sin(phase);
+            ys[i] = (int) ys[i] + dy;
+        }
+    }
+
     /**
      * Sets the speed multiplier used for this movement strategy.
      *
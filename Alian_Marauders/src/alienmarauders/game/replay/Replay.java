@@ -0,0 +1,303 @@
+package alienmarauders.game.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import alienmarauders.game.GameMode;
+
+/**
+ * A recorded game session: everything needed to simulate it again.
+ * <p>
+ * The simulation is deterministic given the game mode, the RNG seed, the
+ * play size, the tick length and the input of every tick, so that is all a
+ * recording holds. Input is stored as changes only: the tick at which the
+ * input mask changed and the new mask. The final score, wave and game-over
+ * flag are stored as well, so a replay can check that it ended the same way.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *   int    magic "AMRP"
+ *   byte   version
+ *   byte   game mode (ordinal)
+ *   long   seed
+ *   double playWidth, playHeight, tickMillis
+ *   repeated: varint ticks since previous change, byte mask
+ *   varint ticks since last change, byte 0xFF   (end of input)
+ *   int    final score, int final wave, byte game over
+ * </pre>
+ */
+public final class Replay {
+
+    /** File name extension used for recordings. */
+    public static final String FILE_EXTENSION = ".amr";
+
+    private static final int MAGIC = 0x414D5250; // "AMRP"
+    private static final int VERSION = 2;
+    private static final int END_OF_INPUT = 0xFF;
+
+    private final GameMode gameMode;
+    private final long seed;
+    private final double playWidth;
+    private final double playHeight;
+    private final double tickMillis;
+    private final int tickCount;
+    private final int[] changeTicks;
+    private final int[] changeMasks;
+    private final int changeCount;
+    private final int finalScore;
+    private final int finalWave;
+    private final boolean finalGameOver;
+
+    Replay(GameMode gameMode, long seed, double playWidth, double playHeight,
+           double tickMillis, int tickCount,
+           int[] changeTicks, int[] changeMasks, int changeCount,
+           int finalScore, int finalWave, boolean finalGameOver) {
+        this.gameMode = gameMode;
+        this.seed = seed;
+        this.playWidth = playWidth;
+        this.playHeight = playHeight;
+        this.tickMillis = tickMillis;
+        this.tickCount = tickCount;
+        this.changeTicks = changeTicks;
+        this.changeMasks = changeMasks;
+        this.changeCount = changeCount;
+        this.finalScore = finalScore;
+        this.finalWave = finalWave;
+        this.finalGameOver = finalGameOver;
+    }
+
+    /**
+     * Returns the game mode the session was played in.
+     *
+     * @return game mode
+     */
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    /**
+     * Returns the RNG seed the session started from.
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the width of the play area.
+     *
+     * @return play width in pixels
+     */
+    public double getPlayWidth() {
+        return playWidth;
+    }
+
+    /**
+     * Returns the height of the play area.
+     *
+     * @return play height in pixels
+     */
+    public double getPlayHeight() {
+        return playHeight;
+    }
+
+    /**
+     * Returns the length of one simulation tick.
+     *
+     * @return tick length in milliseconds
+     */
+    public double getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Returns the number of recorded ticks.
+     *
+     * @return tick count
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the score at the end of the recording.
+     *
+     * @return final score
+     */
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    /**
+     * Returns the wave at the end of the recording.
+     *
+     * @return final wave
+     */
+    public int getFinalWave() {
+        return finalWave;
+    }
+
+    /**
+     * Returns whether the game was over at the end of the recording.
+     *
+     * @return {@code true} if the recording ends with a game over
+     */
+    public boolean isFinalGameOver() {
+        return finalGameOver;
+    }
+
+    /**
+     * Returns the number of input changes.
+     *
+     * @return change count
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Returns the tick at which an input change happens.
+     *
+     * @param index change index below {@link #getChangeCount()}
+     * @return tick number, counted from the start of the game
+     */
+    public int getChangeTick(int index) {
+        return changeTicks[index];
+    }
+
+    /**
+     * Returns the input mask that holds from a change on.
+     *
+     * @param index change index below {@link #getChangeCount()}
+     * @return input mask (see {@code GameModel#getTickInput()})
+     */
+    public int getChangeMask(int index) {
+        return changeMasks[index];
+    }
+
+    /**
+     * Writes the recording to a file, replacing it if it exists.
+     *
+     * @param file target file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Reads a recording written by {@link #save(Path)}.
+     *
+     * @param file recording file
+     * @return the recording
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public static Replay load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(gameMode.ordinal());
+        out.writeLong(seed);
+        out.writeDouble(playWidth);
+        out.writeDouble(playHeight);
+        out.writeDouble(tickMillis);
+
+        int previousTick = 0;
+        for (int i = 0; i < changeCount; i++) {
+            writeVarInt(out, changeTicks[i] - previousTick);
+            out.writeByte(changeMasks[i]);
+            previousTick = changeTicks[i];
+        }
+        writeVarInt(out, tickCount - previousTick);
+        out.writeByte(END_OF_INPUT);
+
+        out.writeInt(finalScore);
+        out.writeInt(finalWave);
+        out.writeBoolean(finalGameOver);
+        out.flush();
+    }
+
+    static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        int modeIndex = in.readUnsignedByte();
+        if (modeIndex >= GameMode.values().length) {
+            throw new IOException("Unknown game mode " + modeIndex);
+        }
+        GameMode gameMode = GameMode.values()[modeIndex];
+        long seed = in.readLong();
+        double playWidth = in.readDouble();
+        double playHeight = in.readDouble();
+        double tickMillis = in.readDouble();
+
+        int[] ticks = new int[64];
+        int[] masks = new int[64];
+        int count = 0;
+        int tick = 0;
+        while (true) {
+            tick += readVarInt(in);
+            int mask = in.readUnsignedByte();
+            if (mask == END_OF_INPUT) {
+                break;
+            }
+            if (count == ticks.length) {
+                ticks = Arrays.copyOf(ticks, count * 2);
+                masks = Arrays.copyOf(masks, count * 2);
+            }
+            ticks[count] = tick;
+            masks[count] = mask;
+            count++;
+        }
+
+        int finalScore = in.readInt();
+        int finalWave = in.readInt();
+        boolean finalGameOver = in.readBoolean();
+        return new Replay(gameMode, seed, playWidth, playHeight, tickMillis, tick,
+                ticks, masks, count, finalScore, finalWave, finalGameOver);
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last byte
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed tick delta");
+    }
+}
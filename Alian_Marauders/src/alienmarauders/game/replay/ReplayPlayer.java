@@ -0,0 +1,162 @@
+package alienmarauders.game.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import alienmarauders.game.GameAssets;
+import alienmarauders.game.GameModel;
+import alienmarauders.game.entities.Player;
+
+/**
+ * Feeds a {@link Replay} back into a {@link GameModel}, one tick at a time.
+ * <p>
+ * The game controller uses it to play a recording in real time (start the
+ * game with {@code -Dalienmarauders.replay=<file>}); keyboard input is then
+ * overridden every tick. {@link #main} instead runs a recording headless at
+ * maximum speed without rendering, checks that it ends like the recorded
+ * game did and reports the simulation speed, so a recorded bad session
+ * serves as a repeatable benchmark and regression test.
+ */
+public final class ReplayPlayer {
+
+    /** System property naming a recording the game plays back. */
+    public static final String PROPERTY = "alienmarauders.replay";
+
+    private final Replay replay;
+    private int tick;
+    private int nextChange;
+    private int mask;
+
+    /**
+     * Creates a player for a recording.
+     *
+     * @param replay the recording to play
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Loads the recording requested on the command line.
+     *
+     * @return a player for it, or {@code null} if none was requested
+     * @throws IOException if the requested file cannot be read
+     */
+    public static ReplayPlayer fromProperty() throws IOException {
+        String file = System.getProperty(PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        return new ReplayPlayer(Replay.load(Path.of(file)));
+    }
+
+    /**
+     * Returns the recording being played.
+     *
+     * @return the recording
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Resets the model to the recorded start state and rewinds the input.
+     *
+     * @param model model to play the recording in
+     */
+    public void start(GameModel model) {
+        model.setGameMode(replay.getGameMode());
+        model.reset(replay.getPlayWidth(), replay.getPlayHeight(), replay.getSeed());
+        tick = 0;
+        nextChange = 0;
+        mask = 0;
+    }
+
+    /**
+     * Applies the input of the next recorded tick. Call right before each
+     * {@link GameModel#update} with {@link Replay#getTickMillis()}.
+     *
+     * @param model model the recording is played in
+     * @return {@code false} if the recording is over and nothing was applied
+     */
+    public boolean applyNextTick(GameModel model) {
+        if (tick >= replay.getTickCount()) {
+            return false;
+        }
+        while (nextChange < replay.getChangeCount() && replay.getChangeTick(nextChange) == tick) {
+            mask = replay.getChangeMask(nextChange++);
+        }
+        model.applyInput(mask);
+        tick++;
+        return true;
+    }
+
+    /**
+     * Returns whether every recorded tick has been applied.
+     *
+     * @return {@code true} once {@link #applyNextTick} returns {@code false}
+     */
+    public boolean isFinished() {
+        return tick >= replay.getTickCount();
+    }
+
+    /**
+     * Returns whether the model ended up where the recorded game ended.
+     *
+     * @param model model the recording was played in
+     * @return {@code true} if score, wave and game-over state match
+     */
+    public boolean matchesRecording(GameModel model) {
+        return model.getScore().getScore() == replay.getFinalScore()
+                && model.getWave() == replay.getFinalWave()
+                && model.isGameOver() == replay.isFinalGameOver();
+    }
+
+    /**
+     * Plays a recording headless at maximum speed.
+     * <p>
+     * Usage: {@code java alienmarauders.game.replay.ReplayPlayer <file> [runs]}.
+     * Exits with status 1 if any run does not end like the recording.
+     *
+     * @param args recording file and optional number of runs
+     * @throws IOException if the recording cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayPlayer <file" + Replay.FILE_EXTENSION + "> [runs]");
+            System.exit(2);
+        }
+        Replay replay = Replay.load(Path.of(args[0]));
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        // Same player size as the game screen; the model only needs sprite sizes
+        Player player = new Player(200.0, 300.0, 60.0, 60.0);
+        GameModel model = new GameModel(player, GameAssets.headless());
+        ReplayPlayer replayPlayer = new ReplayPlayer(replay);
+
+        boolean allMatched = true;
+        try {
+            for (int run = 1; run <= runs; run++) {
+                long start = System.nanoTime();
+                replayPlayer.start(model);
+                while (replayPlayer.applyNextTick(model)) {
+                    model.update(replay.getTickMillis());
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                boolean matched = replayPlayer.matchesRecording(model);
+                allMatched &= matched;
+                System.out.printf("Run %d: %d ticks in %.3f s (%.0f ticks/s), score %d, wave %d%s%n",
+                        run, replay.getTickCount(), seconds, replay.getTickCount() / seconds,
+                        model.getScore().getScore(), model.getWave(),
+                        matched ? "" : "  MISMATCH: recorded score " + replay.getFinalScore()
+                                + ", wave " + replay.getFinalWave());
+            }
+        } finally {
+            model.shutdown();
+        }
+        if (!allMatched) {
+            System.exit(1);
+        }
+    }
+}
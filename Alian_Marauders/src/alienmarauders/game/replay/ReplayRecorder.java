@@ -0,0 +1,128 @@
+package alienmarauders.game.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import alienmarauders.game.GameMode;
+import alienmarauders.game.GameModel;
+
+/**
+ * Records the input of a game session tick by tick.
+ * <p>
+ * Call {@link #start} right after the model was reset, {@link #recordTick}
+ * after every simulation tick and {@link #finish} when the session ends.
+ * Only input changes are kept, in primitive arrays that grow rarely, so
+ * recording costs next to nothing per tick and does no I/O until the end.
+ * <p>
+ * Recording is opt-in: start the game with
+ * {@code -Dalienmarauders.recordDir=<directory>} and every game is saved
+ * there as {@code session-<time>.amr}.
+ */
+public final class ReplayRecorder {
+
+    /** System property naming the directory recordings are saved to. */
+    public static final String PROPERTY = "alienmarauders.recordDir";
+
+    private GameMode gameMode;
+    private long seed;
+    private double playWidth;
+    private double playHeight;
+    private double tickMillis;
+
+    private int tick;
+    private int lastMask;
+    private int[] changeTicks = new int[256];
+    private int[] changeMasks = new int[256];
+    private int changeCount;
+    private boolean recording;
+
+    /**
+     * Returns the directory requested on the command line.
+     *
+     * @return the directory, or {@code null} if recording is off
+     */
+    public static Path getDirectory() {
+        String directory = System.getProperty(PROPERTY);
+        return (directory == null || directory.isBlank()) ? null : Path.of(directory);
+    }
+
+    /**
+     * Starts a new recording. The model must just have been reset.
+     *
+     * @param model      the model about to be simulated
+     * @param tickMillis length of one simulation tick in milliseconds
+     */
+    public void start(GameModel model, double tickMillis) {
+        this.gameMode = model.getGameMode();
+        this.seed = model.getSeed();
+        this.playWidth = model.getPlayWidth();
+        this.playHeight = model.getPlayHeight();
+        this.tickMillis = tickMillis;
+        tick = 0;
+        lastMask = 0;
+        changeCount = 0;
+        recording = true;
+    }
+
+    /**
+     * Returns whether a recording is in progress.
+     *
+     * @return {@code true} between {@link #start} and {@link #finish}
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records the input of the tick that was just simulated.
+     *
+     * @param mask input mask of the tick, see {@link GameModel#getTickInput()}
+     */
+    public void recordTick(int mask) {
+        if (!recording) {
+            return;
+        }
+        if (mask != lastMask) {
+            if (changeCount == changeTicks.length) {
+                changeTicks = Arrays.copyOf(changeTicks, changeCount * 2);
+                changeMasks = Arrays.copyOf(changeMasks, changeCount * 2);
+            }
+            changeTicks[changeCount] = tick;
+            changeMasks[changeCount] = mask;
+            changeCount++;
+            lastMask = mask;
+        }
+        tick++;
+    }
+
+    /**
+     * Ends the recording and captures how the session ended.
+     *
+     * @param model the recorded model
+     * @return the finished recording
+     */
+    public Replay finish(GameModel model) {
+        recording = false;
+        return new Replay(gameMode, seed, playWidth, playHeight, tickMillis, tick,
+                Arrays.copyOf(changeTicks, changeCount), Arrays.copyOf(changeMasks, changeCount),
+                changeCount, model.getScore().getScore(), model.getWave(), model.isGameOver());
+    }
+
+    /**
+     * Ends the recording and saves it to a new file in a directory.
+     *
+     * @param model     the recorded model
+     * @param directory directory to save to; created if missing
+     * @return the written file
+     * @throws IOException if the file cannot be written
+     */
+    public Path finishAndSave(GameModel model, Path directory) throws IOException {
+        Replay replay = finish(model);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("session-" + System.currentTimeMillis() + Replay.FILE_EXTENSION);
+        replay.save(file);
+        return file;
+    }
+}
@@ -7,7 +7,10 @@ import alienmarauders.networking.Message;
 import javafx.scene.layout.Region;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for the chat menu.
@@ -17,6 +20,16 @@ import java.util.List;
  */
 public class ChatMenuController {
 
+    /** Where files shared by other users are saved. */
+    private static final Path DOWNLOAD_DIR =
+            Path.of(System.getProperty("user.home"), "Downloads", "AlienMarauders");
+
+    /** Chat input prefix that searches the history instead of sending a message. */
+    private static final String SEARCH_COMMAND = "/search ";
+
+    /** Chat input prefix that downloads a shared file by its id. */
+    private static final String GET_COMMAND = "/get ";
+
     private final ChatMenuModel model = new ChatMenuModel();
     private final SwitchModel switchModel;
     private final ChatMenuViewBuilder viewBuilder;
@@ -25,6 +38,9 @@ public class ChatMenuController {
     private ChatClient client;
     private String username;
 
+    // Files shared by other users, by id; downloaded only on /get
+    private final Map<Long, Message> sharedFiles = new HashMap<>();
+
     /**
      * Creates a new controller for the chat menu.
      *
@@ -36,7 +52,8 @@ public class ChatMenuController {
                 model,
                 switchModel,
                 this::onBackToMain,
-                this::onSendChat
+                this::onSendChat,
+                this::onSendFile
         );
         this.root = viewBuilder.build(); // build once (no UI rebuild surprises)
     }
@@ -73,6 +90,7 @@ public class ChatMenuController {
     public void attachClient(ChatClient client, Message initialUserList) {
         this.client = client;
         this.username = client.getUsername();
+        sharedFiles.clear(); // ids are only valid on the server that announced them
         model.setSelfUsername(username);
 
         client.setListener(new ChatClientListener() {
@@ -111,6 +129,57 @@ public class ChatMenuController {
                 model.addChatLine(ChatLine.system("*** " + reason + " ***"));
             }
 
+            @Override
+            public void onChatRejected(Message message) {
+                String reason = (message != null) ? message.getText() : null;
+                if (reason == null || reason.isBlank()) {
+                    reason = "Message rejected";
+                }
+                model.addChatLine(ChatLine.system("*** " + reason + " ***"));
+            }
+
+            @Override
+            public void onSearchResults(Message message) {
+                List<Message> results = message.getResults();
+                if (results == null || results.isEmpty()) {
+                    model.addChatLine(ChatLine.system("*** No messages match \"" + message.getText() + "\" ***"));
+                    return;
+                }
+                model.addChatLine(ChatLine.system("*** " + results.size() + " matches for \""
+                        + message.getText() + "\" (newest first) ***"));
+                for (Message match : results) {
+                    model.addChatLine(ChatLine.system("    " + match.getFrom() + ": " + match.getText()));
+                }
+            }
+
+            @Override
+            public void onFileAvailable(Message message) {
+                if (isSelf(message.getFrom())) {
+                    model.addChatLine(ChatLine.system("*** Shared " + message.getText() + " ***"));
+                    return;
+                }
+                sharedFiles.put(message.getTransferId(), message);
+                model.addChatLine(ChatLine.system("*** " + message.getFrom() + " shared "
+                        + message.getText() + " (" + message.getPosition() / 1024 + " KiB), type "
+                        + GET_COMMAND + message.getTransferId() + " to download ***"));
+            }
+
+            @Override
+            public void onFileDownloaded(Message available, Path file) {
+                model.addChatLine(ChatLine.system("*** Saved " + available.getText() + " to " + file + " ***"));
+            }
+
+            @Override
+            public void onFileTransferFailed(String fileName, Exception cause) {
+                model.addChatLine(ChatLine.system("*** Transfer of " + fileName + " failed: "
+                        + cause.getMessage() + " ***"));
+            }
+
+            @Override
+            public void onFileSharingDisabled() {
+                model.setFileSharingAvailable(false);
+            }
+
             @Override
             public void onConnectionClosed(Exception cause) {
                 String msg = (cause != null)
@@ -124,6 +193,9 @@ public class ChatMenuController {
             }
         });
 
+        // The notice may have reached the login screen's listener instead
+        model.setFileSharingAvailable(client.isFileSharingAvailable());
+
         // Apply the initial USER_LIST immediately so the chat screen is initialized right away.
         if (initialUserList != null) {
             applyUserList(initialUserList);
@@ -166,9 +238,57 @@ public class ChatMenuController {
         }
 
         try {
-            client.sendChat(text);
+            if (text.startsWith(SEARCH_COMMAND)) {
+                client.search(text.substring(SEARCH_COMMAND.length()));
+            } else if (text.startsWith(GET_COMMAND)) {
+                onGetFile(text.substring(GET_COMMAND.length()).trim());
+            } else {
+                client.sendChat(text);
+            }
         } catch (IOException e) {
             model.addChatLine(ChatLine.system("*** Failed to send: " + e.getMessage() + " ***"));
         }
     }
+
+    /**
+     * Starts downloading a file another user shared.
+     *
+     * @param id the file id shown in the share announcement
+     */
+    private void onGetFile(String id) {
+        Message available = null;
+        try {
+            available = sharedFiles.get(Long.parseLong(id));
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        if (available == null) {
+            model.addChatLine(ChatLine.system("*** No shared file with id " + id + " ***"));
+            return;
+        }
+        if (client.downloadFile(available, DOWNLOAD_DIR)) {
+            model.addChatLine(ChatLine.system("*** Downloading " + available.getText() + " ***"));
+        } else {
+            model.addChatLine(ChatLine.system("*** " + available.getText() + " is already downloading ***"));
+        }
+    }
+
+    /**
+     * Starts sharing a file picked by the user.
+     *
+     * @param file the file to upload
+     */
+    private void onSendFile(Path file) {
+        if (client == null) {
+            model.addChatLine(ChatLine.system("*** Not connected ***"));
+            return;
+        }
+
+        try {
+            client.sendFile(file);
+            model.addChatLine(ChatLine.system("*** Uploading " + file.getFileName() + " ***"));
+        } catch (IOException e) {
+            model.addChatLine(ChatLine.system("*** Failed to share file: " + e.getMessage() + " ***"));
+        }
+    }
 }
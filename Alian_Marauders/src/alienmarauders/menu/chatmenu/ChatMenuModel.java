@@ -1,5 +1,7 @@
 package alienmarauders.menu.chatmenu;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -23,6 +25,8 @@ public class ChatMenuModel {
 
     private final StringProperty selfUsername = new SimpleStringProperty("");
 
+    private final BooleanProperty fileSharingAvailable = new SimpleBooleanProperty(true);
+
     /**
      * Replaces the list of users in the model.
      *
@@ -76,4 +80,22 @@ public class ChatMenuModel {
     public StringProperty selfUsernameProperty() {
         return selfUsername;
     }
+
+    /**
+     * Sets whether the server offers file sharing (the share button is hidden otherwise).
+     *
+     * @param available {@code false} on clustered servers
+     */
+    public void setFileSharingAvailable(boolean available) {
+        fileSharingAvailable.set(available);
+    }
+
+    /**
+     * Returns the property storing whether the server offers file sharing.
+     *
+     * @return the {@link BooleanProperty} for file sharing availability
+     */
+    public BooleanProperty fileSharingAvailableProperty() {
+        return fileSharingAvailable;
+    }
 }
@@ -15,7 +15,10 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.util.function.Consumer;
 
 /**
@@ -30,6 +33,7 @@ public class ChatMenuViewBuilder {
     private final SwitchModel switchModel;
     private final Runnable goMain;
     private final Consumer<String> onSend;
+    private final Consumer<Path> onSendFile;
 
     /**
      * Creates a new view builder for the chat menu.
@@ -38,15 +42,18 @@ public class ChatMenuViewBuilder {
      * @param switchModel global switch model (used for background binding)
      * @param goMain      callback used when the user presses "Back"
      * @param onSend      callback used when the user presses "Send"
+     * @param onSendFile  callback used when the user picks a file to share
      */
     public ChatMenuViewBuilder(ChatMenuModel model,
                               SwitchModel switchModel,
                               Runnable goMain,
-                              Consumer<String> onSend) {
+                              Consumer<String> onSend,
+                              Consumer<Path> onSendFile) {
         this.model = model;
         this.switchModel = switchModel;
         this.goMain = goMain;
         this.onSend = onSend;
+        this.onSendFile = onSendFile;
     }
 
     /**
@@ -107,10 +114,15 @@ public class ChatMenuViewBuilder {
         Button sendBtn = new Button("Send");
         sendBtn.setOnAction(e -> sendAndClear(input));
 
+        Button fileBtn = new Button("Share file");
+        fileBtn.setOnAction(e -> chooseAndSendFile(root));
+        fileBtn.visibleProperty().bind(model.fileSharingAvailableProperty());
+        fileBtn.managedProperty().bind(fileBtn.visibleProperty());
+
         Button backBtn = new Button("Back");
         backBtn.setOnAction(e -> goMain.run());
 
-        HBox bottom = new HBox(10, input, sendBtn, backBtn);
+        HBox bottom = new HBox(10, input, sendBtn, fileBtn, backBtn);
         bottom.setPadding(new Insets(20));
         bottom.setAlignment(Pos.CENTER_LEFT);
         HBox.setHgrow(input, Priority.ALWAYS);
@@ -123,6 +135,15 @@ public class ChatMenuViewBuilder {
         return root;
     }
 
+    private void chooseAndSendFile(Region owner) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Share a file");
+        File file = chooser.showOpenDialog(owner.getScene() != null ? owner.getScene().getWindow() : null);
+        if (file != null) {
+            onSendFile.accept(file.toPath());
+        }
+    }
+
     private void sendAndClear(TextField input) {
         String text = input.getText();
         input.clear();
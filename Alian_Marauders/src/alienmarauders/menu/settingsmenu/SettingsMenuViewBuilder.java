@@ -2,6 +2,8 @@ package alienmarauders.menu.settingsmenu;
 
 import alienmarauders.SwitchModel;
 import alienmarauders.Styles;
+import alienmarauders.game.GameMode;
+import alienmarauders.game.RenderBackend;
 import javafx.beans.binding.Bindings;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -25,6 +27,8 @@ public class SettingsMenuViewBuilder {
     private final VBox root = new VBox(10);
     private final ComboBox<String> bgOptions = new ComboBox<>();
     private final ComboBox<String> difficultyOptions = new ComboBox<>();
+    private final ComboBox<String> gameModeOptions = new ComboBox<>();
+    private final ComboBox<String> renderBackendOptions = new ComboBox<>();
 
     private boolean built = false;
 
@@ -32,7 +36,8 @@ public class SettingsMenuViewBuilder {
      * Creates a new settings menu view builder.
      *
      * @param model      the settings model (kept for consistency with the existing architecture)
-     * @param switchModel global switch model used for background and difficulty bindings
+     * @param switchModel global switch model used for background, difficulty, game mode
+     *                    and render backend bindings
      */
     public SettingsMenuViewBuilder(SettingsMenuModel model, SwitchModel switchModel) {
         this.switchModel = switchModel;
@@ -72,10 +77,26 @@ public class SettingsMenuViewBuilder {
         difficultyOptions.setValue(switchModel.difficulty.get()); // initial UI matches model
         Bindings.bindBidirectional(difficultyOptions.valueProperty(), switchModel.difficulty);
 
+        // Game mode choices
+        for (GameMode mode : GameMode.values()) {
+            gameModeOptions.getItems().add(mode.getLabel());
+        }
+        gameModeOptions.setValue(switchModel.gameMode.get()); // initial UI matches model
+        Bindings.bindBidirectional(gameModeOptions.valueProperty(), switchModel.gameMode);
+
+        // Render backend choices
+        for (RenderBackend backend : RenderBackend.values()) {
+            renderBackendOptions.getItems().add(backend.getLabel());
+        }
+        renderBackendOptions.setValue(switchModel.renderBackend.get()); // initial UI matches model
+        Bindings.bindBidirectional(renderBackendOptions.valueProperty(), switchModel.renderBackend);
+
         root.getChildren().addAll(
                 title,
                 new Label("Background:"), bgOptions,
                 new Label("Difficulty:"), difficultyOptions,
+                new Label("Game mode:"), gameModeOptions,
+                new Label("Renderer:"), renderBackendOptions,
                 back
         );
         root.setAlignment(Pos.CENTER);
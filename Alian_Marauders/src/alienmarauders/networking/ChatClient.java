@@ -4,18 +4,47 @@ import javafx.application.Platform;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Client-side networking helper for the Alien Marauders chat.
  * <p>
  * Connects to the chat server, sends {@link Message} instances and listens
  * for incoming messages in a background thread.
+ * <p>
+ * Files are uploaded in {@link #CHUNK_SIZE} chunks by a background thread.
+ * Each chunk is written under the same lock as chat messages, so chat
+ * traffic interleaves with a running upload, and at most
+ * {@link #UPLOAD_WINDOW} chunks may be unacknowledged at a time. If the
+ * server answers with {@link MessageType#FILE_ABORTED}, or the connection
+ * closes, the upload stops and the listener is told why. Downloads use a
+ * separate connection so they never delay chat messages.
  */
 public class ChatClient implements Closeable {
 
+    /** Size of one upload chunk in bytes. */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    /** Maximum number of chunks in flight before waiting for a server ack. */
+    public static final int UPLOAD_WINDOW = 4;
+
+    /** Length of the object stream header preceding a download's raw bytes. */
+    private static final int STREAM_HEADER_BYTES = 4;
+
     private final String host;
     private final int port;
     private final String username;
@@ -28,6 +57,11 @@ public class ChatClient implements Closeable {
 
     private ChatClientListener listener;
 
+    private final AtomicLong nextTransferId = new AtomicLong(1);
+    private final Map<Long, Upload> uploads = new ConcurrentHashMap<>();
+    private final Set<Long> downloads = ConcurrentHashMap.newKeySet();
+    private volatile boolean fileSharingAvailable = true;
+
     /**
      * Creates a new chat client that will connect to the given host/port and
      * attempt to login with the provided username.
@@ -103,6 +137,206 @@ public class ChatClient implements Closeable {
         out.flush();
     }
 
+    /**
+     * Searches the chat history retained by the server.
+     *
+     * @param query search terms (all must match)
+     * @throws IOException if writing to the socket fails
+     */
+    public void search(String query) throws IOException {
+        send(MessageFactory.search(query));
+    }
+
+    /**
+     * Returns whether the server offers file sharing. Clustered servers do
+     * not, since their files stay on one node; they say so right after login.
+     *
+     * @return {@code false} once the server reported that sharing is disabled
+     */
+    public boolean isFileSharingAvailable() {
+        return fileSharingAvailable;
+    }
+
+    /**
+     * Starts uploading a file in the background.
+     *
+     * @param file the file to share
+     * @throws IOException if the file cannot be read or the offer cannot be sent
+     */
+    public void sendFile(Path file) throws IOException {
+        long size = Files.size(file);
+        long transferId = nextTransferId.getAndIncrement();
+        // Registered before the offer goes out, so an immediate FILE_ABORTED finds it
+        Upload upload = new Upload();
+        uploads.put(transferId, upload);
+        try {
+            send(MessageFactory.fileOffer(username, file.getFileName().toString(), transferId, size));
+        } catch (IOException e) {
+            uploads.remove(transferId);
+            throw e;
+        }
+
+        Thread uploader = new Thread(() -> uploadLoop(file, size, transferId, upload),
+                "ChatClient-Upload-" + transferId);
+        uploader.setDaemon(true);
+        uploader.start();
+    }
+
+    /**
+     * Downloads a shared file over a separate connection, in the background.
+     * The listener is notified when the download completes or fails.
+     * <p>
+     * The file is saved under its shared name, or as {@code name (1).ext},
+     * {@code name (2).ext} and so on if that name is taken; existing files
+     * are never replaced.
+     *
+     * @param available the {@link MessageType#FILE_AVAILABLE} announcement
+     * @param directory directory to save the file in
+     * @return {@code false} if this file is already being downloaded
+     */
+    public boolean downloadFile(Message available, Path directory) {
+        if (!downloads.add(available.getTransferId())) {
+            return false;
+        }
+        Thread downloader = new Thread(() -> downloadLoop(available, directory),
+                "ChatClient-Download-" + available.getTransferId());
+        downloader.setDaemon(true);
+        downloader.start();
+        return true;
+    }
+
+    /**
+     * Writes one chunk and resets the stream so the chunk bytes are not kept
+     * in the stream's back-reference table on either side.
+     */
+    private synchronized void sendChunk(Message chunk) throws IOException {
+        if (out == null) {
+            throw new IOException("Not connected");
+        }
+        out.writeObject(chunk);
+        out.reset();
+        out.flush();
+    }
+
+    private void uploadLoop(Path file, long size, long transferId, Upload upload) {
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            long offset = 0;
+            while (offset < size && running) {
+                upload.window.acquire();
+                String abortReason = upload.abortReason;
+                if (abortReason != null) {
+                    throw new IOException(abortReason);
+                }
+                int read = input.readNBytes(buffer, 0, (int) Math.min(CHUNK_SIZE, size - offset));
+                if (read <= 0) {
+                    throw new IOException("File shrank during upload");
+                }
+                // The buffer is serialized inside sendChunk, so it can be reused for full chunks
+                byte[] bytes = (read == buffer.length) ? buffer : Arrays.copyOf(buffer, read);
+                sendChunk(MessageFactory.fileChunk(transferId, offset, bytes));
+                offset += read;
+            }
+        } catch (IOException ex) {
+            fireFileTransferFailed(file.getFileName().toString(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            uploads.remove(transferId);
+        }
+    }
+
+    /**
+     * Stops an upload: records the reason and wakes its uploader if it is
+     * waiting for the window.
+     */
+    private void abortUpload(long transferId, String reason) {
+        Upload upload = uploads.get(transferId);
+        if (upload != null) {
+            upload.abortReason = (reason != null) ? reason : "Upload aborted by the server";
+            upload.window.release();
+        }
+    }
+
+    private void downloadLoop(Message available, Path directory) {
+        String name = available.getText();
+        try {
+            // Refuse names like ".." before anything touches the file system
+            name = safeFileName(name);
+            // Named by transfer id, so two shares with the same name never share a partial file
+            Path partial = directory.resolve(available.getTransferId() + ".part");
+            Path target;
+
+            try (Socket dataSocket = new Socket(host, port)) {
+                ObjectOutputStream request = new ObjectOutputStream(dataSocket.getOutputStream());
+                request.writeObject(MessageFactory.fileRequest(available.getTransferId(), available.getPayload()));
+                request.flush();
+
+                InputStream input = dataSocket.getInputStream();
+                if (input.readNBytes(STREAM_HEADER_BYTES).length != STREAM_HEADER_BYTES) {
+                    throw new IOException("Server closed the download");
+                }
+
+                Files.createDirectories(directory);
+                long copied = Files.copy(input, partial, StandardCopyOption.REPLACE_EXISTING);
+                if (copied != available.getPosition()) {
+                    Files.deleteIfExists(partial);
+                    throw new IOException("Download incomplete (" + copied + " of " + available.getPosition() + " bytes)");
+                }
+                target = moveToFreeName(partial, directory, name);
+            }
+            fireFileDownloaded(available, target);
+        } catch (IOException | InvalidPathException ex) {
+            fireFileTransferFailed(name, ex);
+        } finally {
+            downloads.remove(available.getTransferId());
+        }
+    }
+
+    /**
+     * Moves a finished download to {@code name}, or to the first of
+     * {@code name (1).ext}, {@code name (2).ext}, ... that does not exist yet.
+     *
+     * @param partial   the downloaded bytes
+     * @param directory download directory
+     * @param name      bare file name
+     * @return where the file was saved
+     * @throws IOException if the file cannot be moved
+     */
+    private static Path moveToFreeName(Path partial, Path directory, String name) throws IOException {
+        int dot = name.lastIndexOf('.');
+        String stem = (dot > 0) ? name.substring(0, dot) : name;
+        String extension = (dot > 0) ? name.substring(dot) : "";
+        for (int n = 0; ; n++) {
+            Path target = directory.resolve(n == 0 ? name : stem + " (" + n + ")" + extension);
+            try {
+                return Files.move(partial, target); // fails instead of replacing
+            } catch (FileAlreadyExistsException taken) {
+                // try the next name
+            }
+        }
+    }
+
+    /**
+     * Returns the last path element of a server-supplied file name, refusing
+     * names that would not denote a file inside the download directory.
+     *
+     * @param name file name from a {@link MessageType#FILE_AVAILABLE} announcement
+     * @return the bare file name
+     * @throws IOException if the name is empty, {@code .} or {@code ..}
+     */
+    private static String safeFileName(String name) throws IOException {
+        String base = "";
+        if (name != null) {
+            int slash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+            base = name.substring(slash + 1);
+        }
+        if (base.isBlank() || base.equals(".") || base.equals("..")) {
+            throw new IOException("Invalid file name: " + name);
+        }
+        return base;
+    }
+
     private void receiveLoop() {
         Exception closeCause = null;
         try {
@@ -111,12 +345,31 @@ public class ChatClient implements Closeable {
                 if (!(obj instanceof Message message)) {
                     continue;
                 }
+                if (message.getType() == MessageType.FILE_ACK) {
+                    // Flow control is handled here, not on the JavaFX thread
+                    Upload upload = uploads.get(message.getTransferId());
+                    if (upload != null) {
+                        upload.window.release();
+                    }
+                    continue;
+                }
+                if (message.getType() == MessageType.FILE_SHARING_DISABLED) {
+                    // Recorded here too, in case no listener is attached yet
+                    fileSharingAvailable = false;
+                }
+                if (message.getType() == MessageType.FILE_ABORTED) {
+                    abortUpload(message.getTransferId(), message.getText());
+                    continue;
+                }
                 dispatch(message);
             }
         } catch (Exception ex) {
             closeCause = ex;
         } finally {
             running = false;
+            for (Long transferId : uploads.keySet()) {
+                abortUpload(transferId, "Connection closed");
+            }
             try {
                 close();
             } catch (IOException ignored) {
@@ -139,6 +392,10 @@ public class ChatClient implements Closeable {
                 case USER_JOINED -> l.onUserJoined(message);
                 case USER_LEFT -> l.onUserLeft(message);
                 case LOGIN_REJECTED -> l.onLoginRejected(message);
+                case CHAT_REJECTED -> l.onChatRejected(message);
+                case FILE_AVAILABLE -> l.onFileAvailable(message);
+                case SEARCH_RESULTS -> l.onSearchResults(message);
+                case FILE_SHARING_DISABLED -> l.onFileSharingDisabled();
                 default -> {
                     // ignore
                 }
@@ -154,6 +411,22 @@ public class ChatClient implements Closeable {
         Platform.runLater(() -> l.onConnectionClosed(cause));
     }
 
+    private void fireFileDownloaded(Message available, Path file) {
+        ChatClientListener l = this.listener;
+        if (l == null) {
+            return;
+        }
+        Platform.runLater(() -> l.onFileDownloaded(available, file));
+    }
+
+    private void fireFileTransferFailed(String fileName, Exception cause) {
+        ChatClientListener l = this.listener;
+        if (l == null) {
+            return;
+        }
+        Platform.runLater(() -> l.onFileTransferFailed(fileName, cause));
+    }
+
     /**
      * Closes the connection and stops the receive loop.
      *
@@ -199,4 +472,16 @@ public class ChatClient implements Closeable {
             throw first;
         }
     }
+
+    /**
+     * Flow control of one running upload.
+     */
+    private static final class Upload {
+
+        /** One permit per chunk that may be sent before the next server ack. */
+        final Semaphore window = new Semaphore(UPLOAD_WINDOW);
+
+        /** Set when the upload must stop; read by the uploader after each acquire. */
+        volatile String abortReason;
+    }
 }
@@ -1,5 +1,7 @@
 package alienmarauders.networking;
 
+import java.nio.file.Path;
+
 /**
  * Listener interface for receiving chat events from {@link ChatClient}.
  * <p>
@@ -49,4 +51,47 @@ public interface ChatClientListener {
      * @param message the received message (type {@link MessageType#LOGIN_REJECTED})
      */
     default void onLoginRejected(Message message) {}
+
+    /**
+     * Called when the server refuses to relay a chat message sent by this client.
+     *
+     * @param message the received message (type {@link MessageType#CHAT_REJECTED})
+     */
+    default void onChatRejected(Message message) {}
+
+    /**
+     * Called when the server answers a history search.
+     *
+     * @param message the received message (type {@link MessageType#SEARCH_RESULTS})
+     */
+    default void onSearchResults(Message message) {}
+
+    /**
+     * Called when another user has shared a file that can be downloaded.
+     *
+     * @param message the received message (type {@link MessageType#FILE_AVAILABLE})
+     */
+    default void onFileAvailable(Message message) {}
+
+    /**
+     * Called when a download started with {@link ChatClient#downloadFile} has completed.
+     *
+     * @param available the announcement the download was started from
+     * @param file      where the file was saved
+     */
+    default void onFileDownloaded(Message available, Path file) {}
+
+    /**
+     * Called when an upload or download fails.
+     *
+     * @param fileName name of the file being transferred
+     * @param cause    the failure
+     */
+    default void onFileTransferFailed(String fileName, Exception cause) {}
+
+    /**
+     * Called when the server reports that it does not offer file sharing
+     * (clustered servers keep files per node).
+     */
+    default void onFileSharingDisabled() {}
 }
@@ -21,6 +21,12 @@ public final class Message implements Serializable {
     private final String text;
     private final List<String> users;
     private final Instant timestamp;
+    private final String origin;
+    private final long sequence;
+    private final long transferId;
+    private final long position;
+    private final byte[] payload;
+    private final List<Message> results;
 
     /**
      * Creates a new immutable message instance.
@@ -32,11 +38,47 @@ public final class Message implements Serializable {
      * @param timestamp the timestamp of the message, or {@code null} to use {@link Instant#now()}
      */
     public Message(MessageType type, String from, String text, List<String> users, Instant timestamp) {
+        this(type, from, text, users, timestamp, null, 0L);
+    }
+
+    /**
+     * Creates a new immutable message instance that carries cluster routing data.
+     * <p>
+     * Messages relayed between server nodes are stamped with the id of the node
+     * where they originated and a per-node sequence number, which receiving
+     * nodes use to drop duplicates.
+     *
+     * @param type      the message type
+     * @param from      the username of the sender, or {@code null} when not applicable
+     * @param text      the text body of the message, or {@code null} when not applicable
+     * @param users     the list of usernames, or {@code null}
+     * @param timestamp the timestamp of the message, or {@code null} to use {@link Instant#now()}
+     * @param origin    id of the originating server node, or {@code null} for client messages
+     * @param sequence  sequence number assigned by the originating node
+     */
+    public Message(MessageType type, String from, String text, List<String> users, Instant timestamp,
+                   String origin, long sequence) {
+        this(type, from, text, users, timestamp, origin, sequence, 0L, 0L, null, null);
+    }
+
+    /**
+     * Creates a message with every field, including file transfer data and
+     * search results. Used by {@link MessageFactory}.
+     */
+    Message(MessageType type, String from, String text, List<String> users, Instant timestamp,
+            String origin, long sequence, long transferId, long position, byte[] payload,
+            List<Message> results) {
         this.type = type;
         this.from = from;
         this.text = text;
         this.users = users;
         this.timestamp = (timestamp != null) ? timestamp : Instant.now();
+        this.origin = origin;
+        this.sequence = sequence;
+        this.transferId = transferId;
+        this.position = position;
+        this.payload = payload;
+        this.results = results;
     }
 
     /**
@@ -84,6 +126,66 @@ public final class Message implements Serializable {
         return timestamp;
     }
 
+    /**
+     * Returns the id of the server node where this message originated.
+     *
+     * @return the origin node id, or {@code null} if not relayed between nodes
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the sequence number assigned by the originating server node.
+     *
+     * @return the origin sequence number (only meaningful when {@link #getOrigin()} is set)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the id of the file transfer this message belongs to.
+     *
+     * @return the transfer id (only meaningful for {@code FILE_*} messages)
+     */
+    public long getTransferId() {
+        return transferId;
+    }
+
+    /**
+     * Returns the file position carried by a file transfer message: the total
+     * size for offers and announcements, the byte offset for chunks, and the
+     * number of bytes received for acknowledgements.
+     *
+     * @return the position in bytes
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the raw bytes of a {@link MessageType#FILE_CHUNK}, or the
+     * download token of a {@link MessageType#FILE_AVAILABLE} or
+     * {@link MessageType#FILE_REQUEST}.
+     * <p>
+     * The array is not copied; callers must not modify it.
+     *
+     * @return the chunk bytes or token, or {@code null}
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns the matching chat messages of a {@link MessageType#SEARCH_RESULTS} reply.
+     *
+     * @return matches (newest first) or {@code null}
+     */
+    public List<Message> getResults() {
+        return results;
+    }
+
     @Override
     public String toString() {
         return "Message{" +
@@ -92,6 +194,12 @@ public final class Message implements Serializable {
                 ", text='" + text + '\'' +
                 ", users=" + users +
                 ", timestamp=" + timestamp +
+                ", origin=" + origin +
+                ", sequence=" + sequence +
+                ", transferId=" + transferId +
+                ", position=" + position +
+                ", payload=" + (payload != null ? payload.length + " bytes" : "null") +
+                ", results=" + (results != null ? results.size() : "null") +
                 '}';
     }
 }
@@ -74,4 +74,159 @@ public final class MessageFactory {
     public static Message loginRejected(String reason) {
         return new Message(MessageType.LOGIN_REJECTED, null, reason, null, Instant.now());
     }
+
+    /**
+     * Creates a chat rejected message.
+     *
+     * @param reason rejection reason
+     * @return a {@link MessageType#CHAT_REJECTED} message
+     */
+    public static Message chatRejected(String reason) {
+        return new Message(MessageType.CHAT_REJECTED, null, reason, null, Instant.now());
+    }
+
+    /**
+     * Creates the handshake message a server node sends when opening a peer link.
+     *
+     * @param nodeId id of the sending node
+     * @return a {@link MessageType#PEER_HELLO} message
+     */
+    public static Message peerHello(String nodeId) {
+        return new Message(MessageType.PEER_HELLO, nodeId, null, null, Instant.now());
+    }
+
+    /**
+     * Creates a roster snapshot of the users logged in on one server node.
+     *
+     * @param users users logged in on the originating node
+     * @return a {@link MessageType#PEER_ROSTER} message
+     */
+    public static Message peerRoster(List<String> users) {
+        return new Message(MessageType.PEER_ROSTER, null, null, users, Instant.now());
+    }
+
+    /**
+     * Returns a copy of a message stamped with cluster routing data.
+     *
+     * @param message  the message to copy
+     * @param origin   id of the node where the message originated
+     * @param sequence sequence number assigned by the origin node
+     * @return a new message with the same content and the given origin/sequence
+     */
+    public static Message stamped(Message message, String origin, long sequence) {
+        return new Message(message.getType(), message.getFrom(), message.getText(),
+                message.getUsers(), message.getTimestamp(), origin, sequence,
+                message.getTransferId(), message.getPosition(), message.getPayload(),
+                message.getResults());
+    }
+
+    /**
+     * Creates a history search request.
+     *
+     * @param query search terms (all must match)
+     * @return a {@link MessageType#SEARCH} message
+     */
+    public static Message search(String query) {
+        return new Message(MessageType.SEARCH, null, query, null, Instant.now());
+    }
+
+    /**
+     * Creates a reply to a history search.
+     *
+     * @param query   the original query
+     * @param matches matching chat messages, newest first
+     * @return a {@link MessageType#SEARCH_RESULTS} message
+     */
+    public static Message searchResults(String query, List<Message> matches) {
+        return new Message(MessageType.SEARCH_RESULTS, null, query, null, Instant.now(),
+                null, 0L, 0L, 0L, null, matches);
+    }
+
+    /**
+     * Creates an upload announcement.
+     *
+     * @param from       uploading username
+     * @param fileName   name of the file (without directories)
+     * @param transferId client-chosen id used by the following chunks
+     * @param size       file size in bytes
+     * @return a {@link MessageType#FILE_OFFER} message
+     */
+    public static Message fileOffer(String from, String fileName, long transferId, long size) {
+        return new Message(MessageType.FILE_OFFER, from, fileName, null, Instant.now(),
+                null, 0L, transferId, size, null, null);
+    }
+
+    /**
+     * Creates one upload chunk.
+     *
+     * @param transferId id from the matching offer
+     * @param offset     byte offset of this chunk in the file
+     * @param bytes      chunk bytes (not copied)
+     * @return a {@link MessageType#FILE_CHUNK} message
+     */
+    public static Message fileChunk(long transferId, long offset, byte[] bytes) {
+        return new Message(MessageType.FILE_CHUNK, null, null, null, Instant.now(),
+                null, 0L, transferId, offset, bytes, null);
+    }
+
+    /**
+     * Creates an upload acknowledgement.
+     *
+     * @param transferId id from the matching offer
+     * @param received   number of bytes received so far
+     * @return a {@link MessageType#FILE_ACK} message
+     */
+    public static Message fileAck(long transferId, long received) {
+        return new Message(MessageType.FILE_ACK, null, null, null, Instant.now(),
+                null, 0L, transferId, received, null, null);
+    }
+
+    /**
+     * Creates the notice that the server rejected or gave up on an upload.
+     *
+     * @param transferId id from the matching offer
+     * @param reason     human-readable reason
+     * @return a {@link MessageType#FILE_ABORTED} message
+     */
+    public static Message fileAborted(long transferId, String reason) {
+        return new Message(MessageType.FILE_ABORTED, null, reason, null, Instant.now(),
+                null, 0L, transferId, 0L, null, null);
+    }
+
+    /**
+     * Creates an announcement of a file that can now be downloaded.
+     *
+     * @param from       username that shared the file
+     * @param fileName   name of the file
+     * @param transferId server-assigned download id
+     * @param size       file size in bytes
+     * @param token      secret the download request must present (not copied)
+     * @return a {@link MessageType#FILE_AVAILABLE} message
+     */
+    public static Message fileAvailable(String from, String fileName, long transferId, long size, byte[] token) {
+        return new Message(MessageType.FILE_AVAILABLE, from, fileName, null, Instant.now(),
+                null, 0L, transferId, size, token, null);
+    }
+
+    /**
+     * Creates the notice that this server does not offer file sharing.
+     *
+     * @return a {@link MessageType#FILE_SHARING_DISABLED} message
+     */
+    public static Message fileSharingDisabled() {
+        return new Message(MessageType.FILE_SHARING_DISABLED, null, null, null, Instant.now(),
+                null, 0L, 0L, 0L, null, null);
+    }
+
+    /**
+     * Creates the request that opens a download connection.
+     *
+     * @param transferId server-assigned download id
+     * @param token      token from the {@link MessageType#FILE_AVAILABLE} announcement
+     * @return a {@link MessageType#FILE_REQUEST} message
+     */
+    public static Message fileRequest(long transferId, byte[] token) {
+        return new Message(MessageType.FILE_REQUEST, null, null, null, Instant.now(),
+                null, 0L, transferId, 0L, token, null);
+    }
 }
@@ -21,5 +21,54 @@ public enum MessageType {
     USER_LEFT,
 
     /** A notification that a login attempt was rejected by the server. */
-    LOGIN_REJECTED
+    LOGIN_REJECTED,
+
+    /** A notification that the server refused to relay a chat message. */
+    CHAT_REJECTED,
+
+    /** Client-to-server: searches the retained chat history (text holds the query). */
+    SEARCH,
+
+    /** Server-to-client: the most recent chat messages matching a {@link #SEARCH}. */
+    SEARCH_RESULTS,
+
+    /** Client-to-server: announces an upload (file name, size and client-chosen transfer id). */
+    FILE_OFFER,
+
+    /** Client-to-server: one chunk of an announced upload. */
+    FILE_CHUNK,
+
+    /** Server-to-client: acknowledges a received chunk (opens the upload window). */
+    FILE_ACK,
+
+    /**
+     * Server-to-client: the server gave up on an upload (text holds the
+     * reason); the client stops sending its chunks.
+     */
+    FILE_ABORTED,
+
+    /**
+     * Server-to-client: a completed upload that can be downloaded by its
+     * transfer id and token (payload).
+     */
+    FILE_AVAILABLE,
+
+    /**
+     * Client-to-server: first message on a separate download connection,
+     * carrying the transfer id and token of a {@link #FILE_AVAILABLE}. The
+     * server answers with the raw file bytes after the object stream header.
+     */
+    FILE_REQUEST,
+
+    /**
+     * Server-to-client: sent after login by a clustered server. Shared files
+     * stay on the node they were uploaded to, so clients hide file sharing.
+     */
+    FILE_SHARING_DISABLED,
+
+    /** Server-to-server: first message on an inter-node link, carrying the node id. */
+    PEER_HELLO,
+
+    /** Server-to-server: the full list of users logged in on the originating node. */
+    PEER_ROSTER
 }
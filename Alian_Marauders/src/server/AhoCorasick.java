@@ -0,0 +1,256 @@
+package server;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton for matching many banned terms at once.
+ * <p>
+ * The automaton is compiled into flat primitive arrays:
+ * <ul>
+ *     <li>outgoing edges of state {@code s} live in
+ *         {@code [edgeStart[s], edgeStart[s + 1])} of {@link #edgeLabels} /
+ *         {@link #edgeTargets}, sorted by label for binary search,</li>
+ *     <li>{@link #fail} holds the failure link of each state,</li>
+ *     <li>{@link #matchLength} holds the length of the longest term that ends
+ *         in each state (following dictionary suffix links), or 0.</li>
+ * </ul>
+ * Both terms and scanned text are folded character by character (Unicode
+ * compatibility decomposition, combining marks stripped, lower-cased) so
+ * {@code "ÄB"}, {@code "ab"} and {@code "ＡＢ"} all match the term {@code "ab"}.
+ * Folding is one-to-one per {@code char}, which keeps match positions aligned
+ * with the original text for masking.
+ */
+final class AhoCorasick {
+
+    /** Folded form of every {@code char}, computed once. */
+    private static final char[] FOLD = buildFoldTable();
+
+    private final int[] edgeStart;
+    private final char[] edgeLabels;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] matchLength;
+    private final int termCount;
+
+    private AhoCorasick(int[] edgeStart, char[] edgeLabels, int[] edgeTargets,
+                        int[] fail, int[] matchLength, int termCount) {
+        this.edgeStart = edgeStart;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.matchLength = matchLength;
+        this.termCount = termCount;
+    }
+
+    /**
+     * Compiles an automaton from a collection of terms. Blank terms are ignored.
+     *
+     * @param terms banned terms
+     * @return the compiled automaton
+     */
+    static AhoCorasick compile(Collection<String> terms) {
+        // Build a pointer trie first; it is discarded after compilation
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminalLength = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminalLength.add(0);
+
+        int count = 0;
+        for (String term : terms) {
+            if (term == null || term.isBlank()) {
+                continue;
+            }
+            String folded = fold(term.strip());
+            int state = 0;
+            for (int i = 0; i < folded.length(); i++) {
+                char c = folded.charAt(i);
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminalLength.add(0);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminalLength.set(state, folded.length());
+            count++;
+        }
+
+        int states = children.size();
+        int[] edgeStart = new int[states + 1];
+        int edges = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = edges;
+            edges += children.get(s).size();
+        }
+        edgeStart[states] = edges;
+
+        char[] labels = new char[edges];
+        int[] targets = new int[edges];
+        for (int s = 0; s < states; s++) {
+            int e = edgeStart[s];
+            for (var entry : children.get(s).entrySet()) { // TreeMap: sorted by label
+                labels[e] = entry.getKey();
+                targets[e] = entry.getValue();
+                e++;
+            }
+        }
+
+        int[] fail = new int[states];
+        int[] matchLength = new int[states];
+        AhoCorasick partial = new AhoCorasick(edgeStart, labels, targets, fail, matchLength, count);
+
+        // Breadth-first so a state's failure link is final before its children are visited
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            matchLength[s] = Math.max(terminalLength.get(s), s == 0 ? 0 : matchLength[fail[s]]);
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int child = targets[e];
+                if (s != 0) {
+                    int f = fail[s];
+                    int to;
+                    while ((to = partial.edge(f, labels[e])) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = (to >= 0 && to != child) ? to : 0;
+                }
+                queue.add(child);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * Returns the number of terms compiled into this automaton.
+     *
+     * @return term count
+     */
+    int termCount() {
+        return termCount;
+    }
+
+    /**
+     * Returns whether the text contains at least one term.
+     *
+     * @param text text to scan
+     * @return {@code true} on the first match
+     */
+    boolean containsMatch(CharSequence text) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, FOLD[text.charAt(i)]);
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces every character covered by a term with {@code maskChar}.
+     * Scans the text once; only allocates when something matched.
+     *
+     * @param text     text to scan
+     * @param maskChar replacement character
+     * @return the masked text, or {@code text} itself if nothing matched
+     */
+    String mask(String text, char maskChar) {
+        char[] masked = null;
+        int state = 0;
+        int maskedUpTo = 0; // exclusive end of the last masked range
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, FOLD[text.charAt(i)]);
+            int length = matchLength[state];
+            if (length > 0) {
+                if (masked == null) {
+                    masked = text.toCharArray();
+                }
+                for (int j = Math.max(i + 1 - length, maskedUpTo); j <= i; j++) {
+                    masked[j] = maskChar;
+                }
+                maskedUpTo = i + 1;
+            }
+        }
+        return masked == null ? text : new String(masked);
+    }
+
+    /**
+     * Follows the goto/failure function for one folded character.
+     */
+    private int step(int state, char c) {
+        while (true) {
+            int to = edge(state, c);
+            if (to >= 0) {
+                return to;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * Binary-searches the sorted edge range of a state.
+     *
+     * @return the target state, or -1 if there is no edge for {@code c}
+     */
+    private int edge(int state, char c) {
+        int lo = edgeStart[state];
+        int hi = edgeStart[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = edgeLabels[mid];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Folds a string with the same per-character mapping used while scanning.
+     */
+    static String fold(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = FOLD[chars[i]];
+        }
+        return new String(chars);
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (c < 128 || Character.isSurrogate(ch)) {
+                table[c] = Character.toLowerCase(ch);
+                continue;
+            }
+            // Compatibility decomposition, then keep the first non-mark char
+            String decomposed = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFKD);
+            char base = ch;
+            for (int i = 0; i < decomposed.length(); i++) {
+                char d = decomposed.charAt(i);
+                if (Character.getType(d) != Character.NON_SPACING_MARK) {
+                    base = d;
+                    break;
+                }
+            }
+            table[c] = Character.toLowerCase(base);
+        }
+        return table;
+    }
+}
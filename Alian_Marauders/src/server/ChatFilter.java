@@ -0,0 +1,138 @@
+package server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Server-side moderation of chat text.
+ * <p>
+ * Scans each {@code CHAT} message with a compiled {@link AhoCorasick}
+ * automaton and either masks matched terms or rejects the message. The term
+ * list can be reloaded at any time: a new automaton is compiled off to the
+ * side and swapped in with a single volatile write, so relaying threads never
+ * wait for a reload.
+ */
+public final class ChatFilter {
+
+    private static final ServerLogger LOG = ServerLogger.getInstance();
+
+    /** How often a watched term file is checked for changes. */
+    private static final long WATCH_INTERVAL_MILLIS = 2000;
+
+    /**
+     * What to do with a message that contains a banned term.
+     */
+    public enum Mode {
+        /** Replace every character of a matched term with {@code '*'}. */
+        MASK,
+        /** Refuse to relay the message. */
+        REJECT
+    }
+
+    private final Mode mode;
+    private volatile AhoCorasick automaton = AhoCorasick.compile(List.of());
+
+    /**
+     * Creates a filter with an empty term list.
+     *
+     * @param mode how matches are handled
+     */
+    public ChatFilter(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Replaces the term list.
+     *
+     * @param terms new banned terms
+     */
+    public void setTerms(List<String> terms) {
+        automaton = AhoCorasick.compile(terms);
+    }
+
+    /**
+     * Loads the term list from a UTF-8 file with one term per line.
+     * Blank lines and lines starting with {@code #} are ignored.
+     *
+     * @param file term file
+     * @throws IOException if the file cannot be read
+     */
+    public void reload(Path file) throws IOException {
+        List<String> terms = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank() && !line.strip().startsWith("#"))
+                .toList();
+        AhoCorasick compiled = AhoCorasick.compile(terms);
+        automaton = compiled;
+        LOG.info("Chat filter loaded {} terms from {}", compiled.termCount(), file);
+    }
+
+    /**
+     * Loads a term file and keeps reloading it whenever its modification time
+     * changes.
+     *
+     * @param file term file
+     * @throws IOException if the initial load fails
+     */
+    public void watch(Path file) throws IOException {
+        reload(file);
+        Thread watcher = new Thread(() -> watchLoop(file), "ChatFilter-Watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Applies the filter to one chat text.
+     *
+     * @param text chat text
+     * @return the text to relay (possibly masked), or {@code null} if the
+     *         message must be rejected
+     */
+    public String apply(String text) {
+        if (text == null) {
+            return null;
+        }
+        AhoCorasick current = automaton; // one read: a reload mid-scan cannot affect us
+        if (mode == Mode.REJECT) {
+            return current.containsMatch(text) ? null : text;
+        }
+        return current.mask(text, '*');
+    }
+
+    /**
+     * Polls the term file's modification time and reloads on change.
+     *
+     * @param file term file
+     */
+    private void watchLoop(Path file) {
+        FileTime lastModified = modifiedTime(file);
+        while (true) {
+            try {
+                Thread.sleep(WATCH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            FileTime current = modifiedTime(file);
+            if (current != null && !current.equals(lastModified)) {
+                lastModified = current;
+                try {
+                    reload(file);
+                } catch (IOException e) {
+                    LOG.warn("Chat filter reload failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static FileTime modifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
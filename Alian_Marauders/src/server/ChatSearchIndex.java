@@ -0,0 +1,480 @@
+package server;
+
+import alienmarauders.networking.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retained chat history with an incremental inverted index.
+ * <p>
+ * Every relayed {@code CHAT} message gets an increasing id and is tokenized
+ * (sender name and text, lower-cased, split on non letter/digit characters).
+ * The index is segmented:
+ * <ul>
+ *     <li>the <em>active</em> segment appends ids to per-term posting lists
+ *         encoded as delta varints,</li>
+ *     <li>after {@link #SEGMENT_SIZE} messages it is sealed into an immutable
+ *         segment: a sorted term dictionary plus one shared posting blob,</li>
+ *     <li>whenever {@link #MERGE_FACTOR} sealed segments of the same level
+ *         exist they are merged into one segment of the next level, dropping
+ *         messages that fell out of the retention window.</li>
+ * </ul>
+ * Only the newest {@link #DEFAULT_RETAINED_MESSAGES} messages are retained, so
+ * the index memory stays bounded. Queries are AND-ed terms and return the most
+ * recent matches first, visiting segments from newest to oldest and stopping
+ * once enough hits are found. Posting lists are intersected in their encoded
+ * form, without decoding them into arrays.
+ */
+final class ChatSearchIndex {
+
+    /** Messages per active segment before it is sealed. */
+    static final int SEGMENT_SIZE = 1024;
+
+    /** Number of same-level segments merged together. */
+    static final int MERGE_FACTOR = 4;
+
+    /** Default size of the retention window. */
+    static final int DEFAULT_RETAINED_MESSAGES = 100_000;
+
+    private final int retainedMessages;
+    private long nextId = 0;
+
+    private ActiveSegment active = new ActiveSegment(0);
+
+    /** Sealed segments, oldest first. */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * Creates an index with the default retention window.
+     */
+    ChatSearchIndex() {
+        this(DEFAULT_RETAINED_MESSAGES);
+    }
+
+    /**
+     * Creates an index that retains the given number of most recent messages.
+     *
+     * @param retainedMessages size of the retention window
+     */
+    ChatSearchIndex(int retainedMessages) {
+        this.retainedMessages = retainedMessages;
+    }
+
+    /**
+     * Adds a chat message to the history and the index.
+     *
+     * @param message a relayed {@code CHAT} message
+     */
+    synchronized void add(Message message) {
+        long id = nextId++;
+        Set<String> tokens = tokenize(message.getText());
+        tokens.addAll(tokenize(message.getFrom()));
+        active.add(id, message, tokens);
+
+        if (active.size() >= SEGMENT_SIZE) {
+            segments.add(active.seal(0));
+            active = new ActiveSegment(nextId);
+            mergeSegments();
+        }
+    }
+
+    /**
+     * Returns the most recent retained messages containing every query term.
+     *
+     * @param query free text; tokenized like indexed messages
+     * @param limit maximum number of results
+     * @return matches, newest first (empty if the query has no terms)
+     */
+    synchronized List<Message> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        List<Message> results = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        long oldestRetained = nextId - retainedMessages;
+        PostingCursor[] cursors = new PostingCursor[terms.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = new PostingCursor();
+        }
+        long[] newest = new long[limit];
+        active.search(terms, cursors, oldestRetained, limit, newest, results);
+        for (int i = segments.size() - 1; i >= 0 && results.size() < limit; i--) {
+            segments.get(i).search(terms, cursors, oldestRetained, limit, newest, results);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of messages currently retained.
+     *
+     * @return retained message count
+     */
+    synchronized int size() {
+        long total = active.size();
+        for (Segment segment : segments) {
+            total += segment.liveCount(nextId - retainedMessages);
+        }
+        return (int) Math.min(total, retainedMessages);
+    }
+
+    /**
+     * Merges runs of {@link #MERGE_FACTOR} same-level segments and drops
+     * segments that are entirely outside the retention window.
+     */
+    private void mergeSegments() {
+        long oldestRetained = nextId - retainedMessages;
+        segments.removeIf(s -> s.maxId() < oldestRetained);
+
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            // Segments are ordered oldest first; a run of equal levels is always newest
+            int n = segments.size();
+            if (n >= MERGE_FACTOR) {
+                int level = segments.get(n - 1).level();
+                boolean sameLevel = true;
+                for (int i = n - MERGE_FACTOR; i < n; i++) {
+                    sameLevel &= segments.get(i).level() == level;
+                }
+                if (sameLevel) {
+                    List<Segment> run = new ArrayList<>(segments.subList(n - MERGE_FACTOR, n));
+                    segments.subList(n - MERGE_FACTOR, n).clear();
+                    segments.add(Segment.merge(run, level + 1, oldestRetained));
+                    merged = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits text into lower-case letter/digit tokens, without duplicates.
+     *
+     * @param text text to tokenize, may be {@code null}
+     * @return distinct tokens in order of first appearance
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // ------------------------------------------------------------------
+    // Posting list encoding
+    // ------------------------------------------------------------------
+
+    /**
+     * Growable byte buffer of delta-varint encoded, increasing ids.
+     */
+    private static final class PostingWriter {
+
+        private byte[] bytes = new byte[8];
+        private int length = 0;
+        private long lastId = -1;
+        private int count = 0;
+
+        void add(long id) {
+            long delta = (lastId < 0) ? id : id - lastId;
+            lastId = id;
+            count++;
+            ensureCapacity(10);
+            while ((delta & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            bytes[length++] = (byte) delta;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    /**
+     * Decodes {@code count} delta-varint ids starting at {@code offset}.
+     */
+    private static long[] decode(byte[] bytes, int offset, int count) {
+        long[] ids = new long[count];
+        long id = 0;
+        int p = offset;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[p++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id = (i == 0) ? delta : id + delta;
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Forward reader over one encoded posting list.
+     */
+    private static final class PostingCursor {
+
+        private byte[] bytes;
+        private int position;
+        private int remaining;
+        private long id;
+
+        /**
+         * Points the cursor before the first id of a posting list.
+         */
+        void reset(byte[] bytes, int offset, int count) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.remaining = count;
+            this.id = -1;
+        }
+
+        /**
+         * Moves to the first id at or after {@code target}.
+         *
+         * @return {@code false} if the list has no such id
+         */
+        boolean advanceTo(long target) {
+            while (id < target) {
+                if (remaining == 0) {
+                    return false;
+                }
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id = (id < 0) ? delta : id + delta;
+                remaining--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Intersects posting lists and appends the newest matches.
+     * <p>
+     * Delta varints can only be read forward, so the cursors walk the lists
+     * together from the retention cutoff (each one advancing to the largest
+     * id any of them is on), and the last matches are kept in
+     * {@code newest}, used as a ring.
+     *
+     * @param cursors        one cursor per query term, already reset to its list
+     * @param firstId        id of element 0 in {@code messages}
+     * @param messages       stored messages of the segment (null = dropped)
+     * @param oldestRetained ids below this are outside the retention window
+     * @param limit          maximum total results
+     * @param newest         scratch ring with room for {@code limit} ids
+     * @param results        output, newest first
+     */
+    private static void collect(PostingCursor[] cursors, long firstId, Message[] messages,
+                                long oldestRetained, int limit, long[] newest, List<Message> results) {
+        int wanted = limit - results.size();
+        int found = 0;
+        long candidate = Math.max(firstId, oldestRetained);
+        search:
+        while (true) {
+            boolean all = true;
+            for (PostingCursor cursor : cursors) {
+                if (!cursor.advanceTo(candidate)) {
+                    break search;
+                }
+                if (cursor.id != candidate) {
+                    candidate = cursor.id;
+                    all = false;
+                }
+            }
+            if (all) {
+                newest[found++ % wanted] = candidate;
+                candidate++;
+            }
+        }
+
+        for (int k = 1; k <= Math.min(found, wanted); k++) {
+            Message message = messages[(int) (newest[(found - k) % wanted] - firstId)];
+            if (message != null) {
+                results.add(message);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Segments
+    // ------------------------------------------------------------------
+
+    /**
+     * Mutable segment receiving new messages.
+     */
+    private static final class ActiveSegment {
+
+        private final long firstId;
+        private Message[] messages;
+        private int size;
+        private final Map<String, PostingWriter> postings = new HashMap<>();
+
+        ActiveSegment(long firstId) {
+            this(firstId, new Message[SEGMENT_SIZE], 0);
+        }
+
+        private ActiveSegment(long firstId, Message[] messages, int size) {
+            this.firstId = firstId;
+            this.messages = messages;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(long id, Message message, Set<String> tokens) {
+            if (size == messages.length) {
+                messages = Arrays.copyOf(messages, size * 2);
+            }
+            messages[size++] = message;
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new PostingWriter()).add(id);
+            }
+        }
+
+        void search(List<String> terms, PostingCursor[] cursors, long oldestRetained,
+                    int limit, long[] newest, List<Message> results) {
+            for (int i = 0; i < cursors.length; i++) {
+                PostingWriter writer = postings.get(terms.get(i));
+                if (writer == null) {
+                    return;
+                }
+                cursors[i].reset(writer.bytes, 0, writer.count);
+            }
+            collect(cursors, firstId, messages, oldestRetained, limit, newest, results);
+        }
+
+        /**
+         * Freezes this segment into its compact, immutable form.
+         *
+         * @param level merge level of the new segment
+         * @return the sealed segment
+         */
+        Segment seal(int level) {
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+
+            int total = 0;
+            for (PostingWriter writer : postings.values()) {
+                total += writer.length;
+            }
+
+            byte[] blob = new byte[total];
+            int[] offsets = new int[terms.length];
+            int[] counts = new int[terms.length];
+            int p = 0;
+            for (int i = 0; i < terms.length; i++) {
+                PostingWriter writer = postings.get(terms[i]);
+                offsets[i] = p;
+                counts[i] = writer.count;
+                System.arraycopy(writer.bytes, 0, blob, p, writer.length);
+                p += writer.length;
+            }
+            return new Segment(level, firstId, (size == messages.length) ? messages : Arrays.copyOf(messages, size), terms, offsets, counts, blob);
+        }
+    }
+
+    /**
+     * Immutable segment: sorted term dictionary, offsets/counts into a single
+     * posting blob, and the messages it covers.
+     *
+     * @param level    merge level (0 = freshly sealed)
+     * @param firstId  id of {@code messages[0]}
+     * @param messages stored messages; entries outside retention are {@code null}
+     * @param terms    sorted terms
+     * @param offsets  start of each term's postings in {@code blob}
+     * @param counts   number of ids in each term's postings
+     * @param blob     concatenated delta-varint posting lists
+     */
+    private record Segment(int level, long firstId, Message[] messages,
+                           String[] terms, int[] offsets, int[] counts, byte[] blob) {
+
+        long maxId() {
+            return firstId + messages.length - 1;
+        }
+
+        long liveCount(long oldestRetained) {
+            return Math.max(0, maxId() - Math.max(firstId, oldestRetained) + 1);
+        }
+
+        void search(List<String> terms, PostingCursor[] cursors, long oldestRetained,
+                    int limit, long[] newest, List<Message> results) {
+            if (maxId() < oldestRetained) {
+                return;
+            }
+            for (int i = 0; i < cursors.length; i++) {
+                int t = Arrays.binarySearch(this.terms, terms.get(i));
+                if (t < 0) {
+                    return;
+                }
+                cursors[i].reset(blob, offsets[t], counts[t]);
+            }
+            collect(cursors, firstId, messages, oldestRetained, limit, newest, results);
+        }
+
+        /**
+         * Merges adjacent segments (oldest first) into one, dropping ids and
+         * messages below the retention cutoff.
+         */
+        static Segment merge(List<Segment> run, int level, long oldestRetained) {
+            Segment first = run.get(0);
+            long firstId = Math.max(first.firstId(), oldestRetained);
+            long lastId = run.get(run.size() - 1).maxId();
+
+            Message[] messages = new Message[(int) Math.max(0, lastId - firstId + 1)];
+            Map<String, PostingWriter> merged = new HashMap<>();
+            for (Segment segment : run) {
+                for (long id = Math.max(segment.firstId(), firstId); id <= segment.maxId(); id++) {
+                    messages[(int) (id - firstId)] = segment.messages()[(int) (id - segment.firstId())];
+                }
+                for (int t = 0; t < segment.terms().length; t++) {
+                    long[] ids = decode(segment.blob(), segment.offsets()[t], segment.counts()[t]);
+                    PostingWriter writer = null;
+                    for (long id : ids) {
+                        if (id >= firstId) {
+                            if (writer == null) {
+                                writer = merged.computeIfAbsent(segment.terms()[t], k -> new PostingWriter());
+                            }
+                            writer.add(id);
+                        }
+                    }
+                }
+            }
+
+            ActiveSegment builder = new ActiveSegment(firstId, messages, messages.length);
+            builder.postings.putAll(merged);
+            return builder.seal(level);
+        }
+    }
+}
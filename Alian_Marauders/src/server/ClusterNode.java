@@ -0,0 +1,441 @@
+package server;
+
+import alienmarauders.networking.Message;
+import alienmarauders.networking.MessageFactory;
+import alienmarauders.networking.MessageType;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster membership of one {@link Server} instance.
+ * <p>
+ * Several servers (on different ports or hosts) form a cluster by opening
+ * persistent peer links to each other. Each node:
+ * <ul>
+ *     <li>stamps locally originated {@link MessageType#CHAT},
+ *         {@link MessageType#USER_JOINED}, {@link MessageType#USER_LEFT} and
+ *         {@link MessageType#PEER_ROSTER} messages with its node id and a
+ *         sequence number and sends them to every peer,</li>
+ *     <li>drops messages it has already seen (per-origin sliding window), and
+ *         re-forwards new ones to its other peers so that partially connected
+ *         clusters still converge,</li>
+ *     <li>keeps the latest roster snapshot of every other node, so that
+ *         {@link MessageType#USER_LIST} can reflect the whole cluster.</li>
+ * </ul>
+ * Every node re-publishes its roster as a heartbeat, and a snapshot that is
+ * not refreshed within {@link #ROSTER_TTL_MILLIS} is dropped. This also
+ * expires rosters learned through another node (e.g. C's roster on A in an
+ * A&ndash;B&ndash;C chain) once the path to their node goes down, not only
+ * those of directly linked peers.
+ * Peer links use the same port and object-stream framing as clients; a link
+ * is recognised by its first message being {@link MessageType#PEER_HELLO}.
+ */
+final class ClusterNode {
+
+    private static final ServerLogger LOG = ServerLogger.getInstance();
+
+    /** Delay between reconnect attempts to an unreachable peer. */
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    /** Delay between roster heartbeats. */
+    private static final long ROSTER_REFRESH_MILLIS = 2000;
+
+    /** How long a remote roster is kept without a refresh (three missed heartbeats). */
+    private static final long ROSTER_TTL_MILLIS = 3 * ROSTER_REFRESH_MILLIS;
+
+    private final String nodeId;
+    private final Server server;
+    private final List<InetSocketAddress> peerAddresses;
+
+    /**
+     * Sequence numbers start at the wall-clock time (in microseconds) so a
+     * restarted node never reuses sequence numbers its peers have already seen.
+     */
+    private final AtomicLong nextSequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final List<PeerLink> links = new CopyOnWriteArrayList<>();
+    private final Map<String, DedupWindow> seen = new HashMap<>();
+    private final Map<String, Roster> remoteRosters = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates a cluster node.
+     *
+     * @param nodeId        unique id of this node within the cluster
+     * @param server        the local server that receives remote events
+     * @param peerAddresses addresses of the peers this node dials
+     */
+    ClusterNode(String nodeId, Server server, List<InetSocketAddress> peerAddresses) {
+        this.nodeId = nodeId;
+        this.server = server;
+        this.peerAddresses = List.copyOf(peerAddresses);
+    }
+
+    /**
+     * Returns the id of this node.
+     *
+     * @return the node id
+     */
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Starts one background dialer per configured peer and the roster
+     * heartbeat. Each dialer keeps reconnecting while the node is running.
+     */
+    void start() {
+        for (InetSocketAddress address : peerAddresses) {
+            Thread dialer = new Thread(() -> dialLoop(address), "ClusterDialer-" + address);
+            dialer.setDaemon(true);
+            dialer.start();
+        }
+        Thread heartbeat = new Thread(this::heartbeatLoop, "ClusterHeartbeat-" + nodeId);
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+    }
+
+    /**
+     * Stops dialing and closes all peer links.
+     */
+    void stop() {
+        running = false;
+        for (PeerLink link : links) {
+            link.closeQuietly();
+        }
+    }
+
+    /**
+     * Stamps a locally originated message and sends it to every peer.
+     *
+     * @param message a message created on this node
+     */
+    void publish(Message message) {
+        Message stamped = MessageFactory.stamped(message, nodeId, nextSequence.getAndIncrement());
+        for (PeerLink link : links) {
+            link.send(stamped);
+        }
+    }
+
+    /**
+     * Publishes this node's current local users to the cluster.
+     *
+     * @param localUsers users logged in on this node
+     */
+    void publishRoster(List<String> localUsers) {
+        publish(MessageFactory.peerRoster(List.copyOf(localUsers)));
+    }
+
+    /**
+     * Returns the users logged in on other nodes, in node order.
+     *
+     * @return remote usernames (may be empty)
+     */
+    List<String> remoteUsers() {
+        Set<String> users = new LinkedHashSet<>();
+        for (Roster roster : remoteRosters.values()) {
+            users.addAll(roster.users());
+        }
+        return new ArrayList<>(users);
+    }
+
+    /**
+     * Returns whether a username is taken on any other node.
+     *
+     * @param username name to check (case-insensitive)
+     * @return {@code true} if a remote node reports the user as logged in
+     */
+    boolean isRemoteUser(String username) {
+        for (Roster roster : remoteRosters.values()) {
+            for (String user : roster.users()) {
+                if (user.equalsIgnoreCase(username)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes over an accepted connection whose first message was
+     * {@link MessageType#PEER_HELLO} and serves it until it closes.
+     * Runs on the accepting handler's thread.
+     *
+     * @param socket accepted socket
+     * @param in     already opened input stream
+     * @param out    already opened output stream
+     * @param hello  the handshake message
+     */
+    void serveAcceptedPeer(Socket socket, ObjectInputStream in, ObjectOutputStream out, Message hello) {
+        PeerLink link = new PeerLink(socket, in, out, hello.getFrom());
+        link.send(MessageFactory.peerHello(nodeId));
+        runLink(link);
+    }
+
+    /**
+     * Dials one peer, serves the link, and retries after it drops.
+     *
+     * @param address peer address
+     */
+    private void dialLoop(InetSocketAddress address) {
+        while (running) {
+            try {
+                Socket socket = new Socket(address.getHostString(), address.getPort());
+                ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+
+                out.writeObject(MessageFactory.peerHello(nodeId));
+                out.flush();
+
+                Object reply = in.readObject();
+                if (!(reply instanceof Message hello) || hello.getType() != MessageType.PEER_HELLO) {
+                    LOG.warn("Peer {} did not answer the cluster handshake", address);
+                    socket.close();
+                } else {
+                    runLink(new PeerLink(socket, in, out, hello.getFrom()));
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                LOG.debug("Peer link to {} unavailable", address);
+            }
+
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-publishes the local roster and expires stale remote rosters until
+     * the node stops.
+     */
+    private void heartbeatLoop() {
+        while (running) {
+            try {
+                Thread.sleep(ROSTER_REFRESH_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!links.isEmpty()) {
+                publishRoster(server.localUsers());
+            }
+            expireRosters(System.nanoTime());
+        }
+    }
+
+    /**
+     * Drops remote rosters that have not been refreshed within the TTL.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    private void expireRosters(long nowNanos) {
+        long ttlNanos = ROSTER_TTL_MILLIS * 1_000_000L;
+        if (remoteRosters.values().removeIf(roster -> nowNanos - roster.receivedNanos() > ttlNanos)) {
+            server.onClusterRosterChanged();
+        }
+    }
+
+    /**
+     * Registers a link, sends our roster, and reads from it until it closes.
+     *
+     * @param link the established link
+     */
+    private void runLink(PeerLink link) {
+        if (nodeId.equals(link.remoteNodeId)) {
+            LOG.warn("Refusing peer link to self ({})", nodeId);
+            link.closeQuietly();
+            return;
+        }
+
+        links.add(link);
+        LOG.info("Peer link up: {} <-> {}", nodeId, link.remoteNodeId);
+        publishRoster(server.localUsers());
+
+        try {
+            while (running) {
+                Object obj = link.in.readObject();
+                if (obj instanceof Message message && message.getOrigin() != null) {
+                    onPeerMessage(link, message);
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            LOG.info("Peer link down: {} <-> {}", nodeId, link.remoteNodeId);
+        } finally {
+            links.remove(link);
+            link.closeQuietly();
+            onLinkLost(link.remoteNodeId);
+        }
+    }
+
+    /**
+     * Handles a stamped message received from a peer.
+     *
+     * @param source  link the message arrived on
+     * @param message the stamped message
+     */
+    private void onPeerMessage(PeerLink source, Message message) {
+        if (nodeId.equals(message.getOrigin()) || !markSeen(message.getOrigin(), message.getSequence())) {
+            return;
+        }
+
+        // Flood to the remaining peers so partially meshed clusters converge
+        for (PeerLink link : links) {
+            if (link != source) {
+                link.send(message);
+            }
+        }
+
+        if (message.getType() == MessageType.PEER_ROSTER) {
+            List<String> users = message.getUsers() != null ? message.getUsers() : List.of();
+            Roster fresh = new Roster(message.getSequence(), List.copyOf(users), System.nanoTime());
+            boolean[] changed = new boolean[1];
+            remoteRosters.compute(message.getOrigin(), (origin, old) -> {
+                if (old != null && old.sequence() >= fresh.sequence()) {
+                    return old;
+                }
+                // Heartbeats refresh the snapshot; only real changes reach the clients
+                changed[0] = old == null || !old.users().equals(fresh.users());
+                return fresh;
+            });
+            if (changed[0]) {
+                server.onClusterRosterChanged();
+            }
+        } else {
+            server.deliverFromCluster(message);
+        }
+    }
+
+    /**
+     * Forgets the roster of a node once no direct link to it remains.
+     *
+     * @param remoteNodeId id of the node whose link closed
+     */
+    private void onLinkLost(String remoteNodeId) {
+        for (PeerLink link : links) {
+            if (link.remoteNodeId.equals(remoteNodeId)) {
+                return;
+            }
+        }
+        if (remoteRosters.remove(remoteNodeId) != null) {
+            server.onClusterRosterChanged();
+        }
+    }
+
+    /**
+     * Records a sequence number for an origin node.
+     *
+     * @param origin   origin node id
+     * @param sequence sequence number
+     * @return {@code true} if the message is new, {@code false} if it is a duplicate
+     */
+    private synchronized boolean markSeen(String origin, long sequence) {
+        return seen.computeIfAbsent(origin, o -> new DedupWindow()).accept(sequence);
+    }
+
+    /**
+     * Latest roster snapshot of a remote node.
+     *
+     * @param sequence      origin sequence of the snapshot
+     * @param users         users logged in on that node
+     * @param receivedNanos {@link System#nanoTime()} when the snapshot arrived
+     */
+    private record Roster(long sequence, List<String> users, long receivedNanos) {}
+
+    /**
+     * Sliding-window duplicate filter over one origin's sequence numbers.
+     * <p>
+     * Tracks the highest sequence seen plus a 64-bit bitmap of the sequences
+     * just below it, so reordering across different paths is tolerated.
+     */
+    private static final class DedupWindow {
+
+        private static final int WIDTH = 64;
+
+        private long highest = Long.MIN_VALUE;
+        private long bitmap = 0;
+
+        /**
+         * Marks a sequence as seen.
+         *
+         * @param sequence sequence number to record
+         * @return {@code true} if it had not been seen before
+         */
+        boolean accept(long sequence) {
+            if (highest == Long.MIN_VALUE || sequence > highest) {
+                long shift = (highest == Long.MIN_VALUE) ? WIDTH : sequence - highest;
+                bitmap = (shift >= WIDTH) ? 1L : (bitmap << shift) | 1L;
+                highest = sequence;
+                return true;
+            }
+
+            long offset = highest - sequence;
+            if (offset >= WIDTH) {
+                return false; // too old to tell, treat as duplicate
+            }
+            long bit = 1L << offset;
+            if ((bitmap & bit) != 0) {
+                return false;
+            }
+            bitmap |= bit;
+            return true;
+        }
+    }
+
+    /**
+     * One persistent link to another node.
+     */
+    private static final class PeerLink {
+
+        private final Socket socket;
+        private final ObjectInputStream in;
+        private final ObjectOutputStream out;
+        private final String remoteNodeId;
+
+        PeerLink(Socket socket, ObjectInputStream in, ObjectOutputStream out, String remoteNodeId) {
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+            this.remoteNodeId = remoteNodeId != null ? remoteNodeId : "?";
+        }
+
+        /**
+         * Sends a message to the peer; failures close the link.
+         *
+         * @param message message to send
+         */
+        synchronized void send(Message message) {
+            try {
+                out.writeObject(message);
+                // Links are long-lived: do not let the stream's handle table grow forever
+                out.reset();
+                out.flush();
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
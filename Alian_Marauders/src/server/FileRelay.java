@@ -0,0 +1,191 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spools shared files to disk and streams them to downloaders.
+ * <p>
+ * Uploads arrive as {@code FILE_CHUNK} messages on the uploader's chat
+ * connection and are appended to a temp file. Downloads use a separate
+ * connection per file and are served with {@link FileChannel#transferTo},
+ * so the file content is copied from the page cache to the socket by the
+ * kernel instead of through the Java heap. Only the most recent
+ * {@link #RETAINED_FILES} files are kept.
+ * <p>
+ * Download ids are a plain counter, so each file also gets a random token
+ * that is only announced to logged-in users; a download must present both.
+ * Files are kept on the node they were uploaded to and are not shared
+ * across a cluster.
+ */
+final class FileRelay {
+
+    private static final ServerLogger LOG = ServerLogger.getInstance();
+
+    /** Largest file the server accepts. */
+    static final long MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+    /** Number of completed files kept available for download. */
+    private static final int RETAINED_FILES = 32;
+
+    /** Length of a download token in bytes. */
+    private static final int TOKEN_BYTES = 16;
+
+    private final SecureRandom tokens = new SecureRandom();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<Long, SharedFile> files = new ConcurrentHashMap<>();
+    private final ArrayDeque<Long> retention = new ArrayDeque<>();
+
+    /**
+     * Starts spooling an upload.
+     *
+     * @param from     uploading username
+     * @param fileName file name from the offer
+     * @param size     announced size in bytes
+     * @return the open upload
+     * @throws IOException if the temp file cannot be created
+     */
+    Upload begin(String from, String fileName, long size) throws IOException {
+        Path spool = Files.createTempFile("alienmarauders-", ".spool");
+        FileChannel channel = FileChannel.open(spool, StandardOpenOption.WRITE);
+        return new Upload(from, fileName, size, spool, channel);
+    }
+
+    /**
+     * Publishes a fully received upload for download.
+     *
+     * @param upload completed upload
+     * @return the shared file, with its download id
+     * @throws IOException if the spool file cannot be closed
+     */
+    SharedFile complete(Upload upload) throws IOException {
+        upload.channel.close();
+        byte[] token = new byte[TOKEN_BYTES];
+        tokens.nextBytes(token);
+        SharedFile file = new SharedFile(nextId.getAndIncrement(), token, upload.from, upload.fileName,
+                upload.size, upload.spool);
+        files.put(file.id(), file);
+
+        synchronized (retention) {
+            retention.addLast(file.id());
+            while (retention.size() > RETAINED_FILES) {
+                SharedFile expired = files.remove(retention.removeFirst());
+                if (expired != null) {
+                    deleteQuietly(expired.path());
+                }
+            }
+        }
+        LOG.info("File shared: {} ({} bytes)", file.fileName(), file.size());
+        return file;
+    }
+
+    /**
+     * Streams a shared file to a download connection.
+     *
+     * @param id     download id
+     * @param token  download token from the request
+     * @param target socket channel of the download connection
+     * @throws IOException if the file is unknown, the token is wrong or the transfer fails
+     */
+    void serve(long id, byte[] token, WritableByteChannel target) throws IOException {
+        SharedFile file = files.get(id);
+        if (file == null || token == null || !MessageDigest.isEqual(file.token(), token)) {
+            throw new IOException("Unknown file id or wrong token for " + id);
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < file.size()) {
+                position += channel.transferTo(position, file.size() - position, target);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.debug("Could not delete spool file {}", path);
+        }
+    }
+
+    /**
+     * A completed file available for download.
+     *
+     * @param id       download id
+     * @param token    random secret a download must present
+     * @param from     uploading username
+     * @param fileName file name
+     * @param size     size in bytes
+     * @param path     spool file
+     */
+    record SharedFile(long id, byte[] token, String from, String fileName, long size, Path path) {}
+
+    /**
+     * An upload in progress. Only touched by the uploader's handler thread.
+     */
+    static final class Upload {
+
+        private final String from;
+        private final String fileName;
+        private final long size;
+        private final Path spool;
+        private final FileChannel channel;
+        private long received;
+
+        private Upload(String from, String fileName, long size, Path spool, FileChannel channel) {
+            this.from = from;
+            this.fileName = fileName;
+            this.size = size;
+            this.spool = spool;
+            this.channel = channel;
+        }
+
+        /**
+         * Appends one chunk to the spool file.
+         *
+         * @param offset byte offset claimed by the chunk
+         * @param bytes  chunk bytes
+         * @throws IOException if the chunk is out of order, too large, or cannot be written
+         */
+        void write(long offset, byte[] bytes) throws IOException {
+            if (offset != received || received + bytes.length > size) {
+                throw new IOException("Unexpected chunk at offset " + offset);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            received += bytes.length;
+        }
+
+        long received() {
+            return received;
+        }
+
+        boolean isComplete() {
+            return received == size;
+        }
+
+        /**
+         * Closes and deletes an unfinished upload.
+         */
+        void abort() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            deleteQuietly(spool);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package server;
+
+/**
+ * Severity levels understood by {@link ServerLogger}, ordered from most to
+ * least verbose.
+ */
+public enum LogLevel {
+
+    /** Detailed diagnostic output (e.g. per-connection I/O errors). */
+    DEBUG,
+
+    /** Normal lifecycle events such as logins and new connections. */
+    INFO,
+
+    /** Unexpected but recoverable situations. */
+    WARN,
+
+    /** Failures that stop a component (e.g. the accept loop). */
+    ERROR;
+
+    /**
+     * Parses a level name, falling back to a default when the name is
+     * missing or unknown.
+     *
+     * @param name     level name (case-insensitive), may be {@code null}
+     * @param fallback level returned when {@code name} cannot be parsed
+     * @return the parsed level or {@code fallback}
+     */
+    public static LogLevel parse(String name, LogLevel fallback) {
+        if (name == null || name.isBlank()) {
+            return fallback;
+        }
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(name.trim())) {
+                return level;
+            }
+        }
+        return fallback;
+    }
+}
@@ -7,9 +7,15 @@ import alienmarauders.networking.MessageType;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -19,9 +25,22 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * <ul>
  *     <li>broadcasts {@link MessageType#USER_JOINED}</li>
  *     <li>sends {@link MessageType#USER_LIST} to all clients</li>
- *     <li>relays {@link MessageType#CHAT} messages to everyone</li>
+ *     <li>relays {@link MessageType#CHAT} messages to everyone, after an optional
+ *         {@link ChatFilter} has masked or rejected banned terms</li>
  * </ul>
  * <p>
+ * Several servers can be joined into a cluster (see {@link ClusterNode}): chat
+ * and presence events are then relayed between nodes, and the user list covers
+ * all nodes.
+ * <p>
+ * Files are shared with {@link MessageType#FILE_OFFER} / {@link MessageType#FILE_CHUNK}
+ * uploads and downloaded over separate connections (see {@link FileRelay}).
+ * Shared files stay on the node they were uploaded to, so a clustered server
+ * does not offer file sharing: it tells clients so with
+ * {@link MessageType#FILE_SHARING_DISABLED} after login and rejects offers.
+ * Relayed chat is retained and can be searched with {@link MessageType#SEARCH}
+ * (see {@link ChatSearchIndex}).
+ * <p>
  * Compatibility note:
  * This class supports both the "new" API {@code new Server(port).start()}
  * and the legacy API used by {@link ServerApp}: {@code new Server().start(8888)}.
@@ -31,9 +50,18 @@ public class Server {
     /** Default port used by the assignment / legacy launcher. */
     public static final int DEFAULT_PORT = 8888;
 
+    /** Maximum number of matches returned for one {@link MessageType#SEARCH}. */
+    private static final int SEARCH_LIMIT = 20;
+
+    private static final ServerLogger LOG = ServerLogger.getInstance();
+
     private final int port;
+    private final ClusterNode cluster;
+    private final FileRelay fileRelay = new FileRelay();
+    private final ChatSearchIndex history = new ChatSearchIndex();
     private final List<ClientHandler> clients = new CopyOnWriteArrayList<>();
     private volatile boolean running = true;
+    private volatile ChatFilter chatFilter;
 
     /**
      * Creates a server using {@link #DEFAULT_PORT}.
@@ -52,6 +80,28 @@ public class Server {
      */
     public Server(int port) {
         this.port = port;
+        this.cluster = null;
+    }
+
+    /**
+     * Creates a server listening on a given port that joins a cluster.
+     *
+     * @param port   server port
+     * @param nodeId unique id of this node within the cluster
+     * @param peers  addresses of other nodes this node should link to
+     */
+    public Server(int port, String nodeId, List<InetSocketAddress> peers) {
+        this.port = port;
+        this.cluster = new ClusterNode(nodeId, this, peers);
+    }
+
+    /**
+     * Sets the moderation filter applied to chat text before it is relayed.
+     *
+     * @param chatFilter the filter, or {@code null} to relay text unchanged
+     */
+    public void setChatFilter(ChatFilter chatFilter) {
+        this.chatFilter = chatFilter;
     }
 
     /**
@@ -70,21 +120,30 @@ public class Server {
      * Starts the accept loop and handles clients until stopped.
      */
     public void start() {
-        System.out.println("Server starting on port " + port);
+        LOG.info("Server starting on port {}", port);
 
-        try (ServerSocket serverSocket = new ServerSocket(port)) {
+        if (cluster != null) {
+            LOG.info("Cluster node id: {}", cluster.getNodeId());
+            cluster.start();
+        }
+
+        // Channel-backed sockets allow zero-copy FileChannel.transferTo for downloads
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
             while (running) {
-                Socket socket = serverSocket.accept();
-                System.out.println("New client connecting from " + socket.getRemoteSocketAddress());
+                Socket socket = serverChannel.accept().socket();
+                LOG.info("New client connecting from {}", socket.getRemoteSocketAddress());
                 ClientHandler handler = new ClientHandler(socket);
                 clients.add(handler);
                 handler.start();
             }
         } catch (IOException e) {
-            System.err.println("Server stopped due to error: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Server stopped due to error: {}", e.getMessage(), e);
         } finally {
             running = false;
+            if (cluster != null) {
+                cluster.stop();
+            }
             for (ClientHandler client : clients) {
                 client.closeQuietly();
             }
@@ -103,17 +162,73 @@ public class Server {
     }
 
     /**
-     * Sends an updated USER_LIST to all clients.
+     * Broadcasts a locally originated event to local clients and to the cluster.
+     *
+     * @param message message to send
      */
-    private void broadcastUserList() {
-        List<String> names = clients.stream()
+    private void broadcastAndRelay(Message message) {
+        broadcast(message);
+        if (cluster != null) {
+            cluster.publish(message);
+        }
+    }
+
+    /**
+     * Returns the users logged in on this node.
+     *
+     * @return local usernames in connection order
+     */
+    List<String> localUsers() {
+        return clients.stream()
                 .map(ClientHandler::getUsername)
                 .filter(n -> n != null && !n.isBlank())
                 .toList();
+    }
+
+    /**
+     * Sends an updated USER_LIST to all clients.
+     * <p>
+     * When clustered, the list contains the users of every node.
+     */
+    private void broadcastUserList() {
+        List<String> names = localUsers();
+        if (cluster != null) {
+            Set<String> merged = new LinkedHashSet<>(names);
+            merged.addAll(cluster.remoteUsers());
+            names = new ArrayList<>(merged);
+        }
 
         broadcast(MessageFactory.userList(names));
     }
 
+    /**
+     * Publishes this node's roster to the cluster after a local login/logout.
+     */
+    private void publishRoster() {
+        if (cluster != null) {
+            cluster.publishRoster(localUsers());
+        }
+    }
+
+    /**
+     * Delivers a chat or presence event that originated on another node.
+     *
+     * @param message relayed message
+     */
+    void deliverFromCluster(Message message) {
+        if (message.getType() == MessageType.CHAT) {
+            history.add(message);
+        }
+        broadcast(message);
+    }
+
+    /**
+     * Called when the roster of another node changed.
+     */
+    void onClusterRosterChanged() {
+        broadcastUserList();
+    }
+
     /**
      * Removes a client handler from the list and broadcasts left/user list.
      *
@@ -122,7 +237,8 @@ public class Server {
     private void removeClient(ClientHandler handler) {
         clients.remove(handler);
         if (handler.getUsername() != null) {
-            broadcast(MessageFactory.userLeft(handler.getUsername()));
+            broadcastAndRelay(MessageFactory.userLeft(handler.getUsername()));
+            publishRoster();
             broadcastUserList();
         }
     }
@@ -138,6 +254,9 @@ public class Server {
 
         private String username;
 
+        /** Uploads in progress on this connection, by client transfer id. */
+        private final Map<Long, FileRelay.Upload> uploads = new HashMap<>();
+
         /**
          * Creates a new handler thread for a socket.
          *
@@ -172,6 +291,24 @@ public class Server {
                     return;
                 }
 
+                // Another cluster node opening a peer link
+                if (first.getType() == MessageType.PEER_HELLO) {
+                    clients.remove(this);
+                    if (cluster != null) {
+                        cluster.serveAcceptedPeer(socket, in, out, first);
+                    } else {
+                        LOG.warn("Ignoring peer link from {}: clustering is disabled", socket.getRemoteSocketAddress());
+                    }
+                    return;
+                }
+
+                // Separate download connection for a shared file
+                if (first.getType() == MessageType.FILE_REQUEST) {
+                    clients.remove(this);
+                    fileRelay.serve(first.getTransferId(), first.getPayload(), socket.getChannel());
+                    return;
+                }
+
                 if (first.getType() != MessageType.LOGIN || first.getFrom() == null || first.getFrom().isBlank()) {
                     send(MessageFactory.loginRejected("Username required"));
                     closeQuietly();
@@ -183,7 +320,8 @@ public class Server {
 
                 // Reject duplicate usernames
                 boolean exists = clients.stream()
-                        .anyMatch(c -> c != this && requested.equalsIgnoreCase(c.getUsername()));
+                        .anyMatch(c -> c != this && requested.equalsIgnoreCase(c.getUsername()))
+                        || (cluster != null && cluster.isRemoteUser(requested));
 
                 if (exists) {
                     send(MessageFactory.loginRejected("Username already taken"));
@@ -194,10 +332,16 @@ public class Server {
 
                 this.username = requested;
 
-                System.out.println("User logged in: " + username);
+                LOG.info("User logged in: {}", username);
+
+                if (cluster != null) {
+                    // Before the user list, so the client knows by the time it shows the chat
+                    send(MessageFactory.fileSharingDisabled());
+                }
 
                 // Notify everyone and send list
-                broadcast(MessageFactory.userJoined(username));
+                broadcastAndRelay(MessageFactory.userJoined(username));
+                publishRoster();
                 broadcastUserList();
 
                 // Now handle normal messages
@@ -207,19 +351,115 @@ public class Server {
                         continue;
                     }
 
-                    if (message.getType() == MessageType.CHAT) {
-                        broadcast(MessageFactory.chat(message.getFrom(), message.getText()));
+                    switch (message.getType()) {
+                        case CHAT -> handleChat(message);
+                        case SEARCH -> send(MessageFactory.searchResults(message.getText(),
+                                history.search(message.getText(), SEARCH_LIMIT)));
+                        case FILE_OFFER -> handleFileOffer(message);
+                        case FILE_CHUNK -> handleFileChunk(message);
+                        default -> {
+                            // ignore
+                        }
                     }
                 }
 
             } catch (Exception e) {
-                System.out.println("Client disconnected: " + socket.getRemoteSocketAddress());
+                LOG.info("Client disconnected: {} ({})", socket.getRemoteSocketAddress(), e);
             } finally {
+                for (FileRelay.Upload upload : uploads.values()) {
+                    upload.abort();
+                }
+                uploads.clear();
                 closeQuietly();
                 removeClient(this);
             }
         }
 
+        /**
+         * Filters and relays a chat message.
+         *
+         * @param message the received {@link MessageType#CHAT} message
+         */
+        private void handleChat(Message message) {
+            ChatFilter filter = chatFilter;
+            String text = (filter != null) ? filter.apply(message.getText()) : message.getText();
+            if (text == null) {
+                send(MessageFactory.chatRejected("Message blocked by the chat filter"));
+                return;
+            }
+            Message chat = MessageFactory.chat(message.getFrom(), text);
+            history.add(chat);
+            broadcastAndRelay(chat);
+        }
+
+        /**
+         * Starts spooling an announced upload.
+         *
+         * Rejected offers are answered with {@link MessageType#FILE_ABORTED},
+         * so the client stops its upload.
+         *
+         * @param message the received {@link MessageType#FILE_OFFER} message
+         */
+        private void handleFileOffer(Message message) {
+            long id = message.getTransferId();
+            long size = message.getPosition();
+            if (cluster != null) {
+                send(MessageFactory.fileAborted(id, "File sharing is not available on clustered servers"));
+                return;
+            }
+            if (size <= 0 || size > FileRelay.MAX_FILE_BYTES || uploads.containsKey(id)) {
+                send(MessageFactory.fileAborted(id, "File rejected (empty, too large or duplicate)"));
+                return;
+            }
+            try {
+                uploads.put(id, fileRelay.begin(username, baseName(message.getText()), size));
+            } catch (IOException e) {
+                LOG.warn("Cannot spool upload: {}", e.getMessage());
+                send(MessageFactory.fileAborted(id, "File upload failed: server cannot store the file"));
+            }
+        }
+
+        /**
+         * Appends an upload chunk, acknowledges it, and announces the file once complete.
+         *
+         * @param message the received {@link MessageType#FILE_CHUNK} message
+         * @throws IOException if the chunk cannot be spooled
+         */
+        private void handleFileChunk(Message message) throws IOException {
+            long id = message.getTransferId();
+            FileRelay.Upload upload = uploads.get(id);
+            if (upload == null || message.getPayload() == null) {
+                return;
+            }
+
+            try {
+                upload.write(message.getPosition(), message.getPayload());
+            } catch (IOException e) {
+                uploads.remove(id).abort();
+                send(MessageFactory.fileAborted(id, "File upload failed: " + e.getMessage()));
+                return;
+            }
+            send(MessageFactory.fileAck(id, upload.received()));
+
+            if (upload.isComplete()) {
+                uploads.remove(id);
+                FileRelay.SharedFile file = fileRelay.complete(upload);
+                broadcast(MessageFactory.fileAvailable(file.from(), file.fileName(), file.id(), file.size(),
+                        file.token()));
+            }
+        }
+
+        /**
+         * Strips any directory part from a client-supplied file name.
+         */
+        private String baseName(String name) {
+            if (name == null || name.isBlank()) {
+                return "file";
+            }
+            int slash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+            return name.substring(slash + 1);
+        }
+
         /**
          * Sends a message to this client.
          *
@@ -230,7 +470,8 @@ public class Server {
             try {
                 out.writeObject(message);
                 out.flush();
-            } catch (IOException ignored) {
+            } catch (IOException e) {
+                LOG.debug("Send failed, closing connection: {}", e.getMessage());
                 closeQuietly();
             }
         }
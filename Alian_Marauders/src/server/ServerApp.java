@@ -1,19 +1,87 @@
 package server;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Standalone server application launcher.
  * <p>
  * Run this class to start the chat server before starting the game client.
+ * <p>
+ * Usage: {@code ServerApp [port] [nodeId peerHost:peerPort ...]}
+ * <ul>
+ *     <li>No arguments: a single server on port 8888.</li>
+ *     <li>{@code port}: a single server on the given port.</li>
+ *     <li>{@code port nodeId peers...}: a cluster node. For example, two nodes
+ *         on localhost:
+ *         {@code ServerApp 8888 A localhost:8889} and
+ *         {@code ServerApp 8889 B localhost:8888}.</li>
+ * </ul>
+ * Chat moderation is enabled with {@code -Dserver.filter.terms=<file>} (one
+ * banned term per line, reloaded when the file changes) and
+ * {@code -Dserver.filter.mode=mask|reject} (default {@code mask}).
  */
 public class ServerApp {
 
     /**
      * Entry point used to start the chat server.
      *
-     * @param args command-line arguments (not used)
+     * @param args optional port, node id and peer addresses
      */
     public static void main(String[] args) {
-        Server server = new Server();
-        server.start(8888); // use 8888 as default port, as in the assignment
+        Server server;
+        if (args.length == 0) {
+            server = new Server(); // use 8888 as default port, as in the assignment
+        } else if (args.length == 1) {
+            server = new Server(Integer.parseInt(args[0]));
+        } else {
+            List<InetSocketAddress> peers = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                peers.add(parsePeer(args[i]));
+            }
+            server = new Server(Integer.parseInt(args[0]), args[1], peers);
+        }
+
+        configureChatFilter(server);
+        server.start();
+    }
+
+    /**
+     * Installs a {@link ChatFilter} if a term file was configured.
+     *
+     * @param server server to configure
+     */
+    private static void configureChatFilter(Server server) {
+        String terms = System.getProperty("server.filter.terms");
+        if (terms == null || terms.isBlank()) {
+            return;
+        }
+        String modeName = System.getProperty("server.filter.mode", "mask");
+        ChatFilter filter = new ChatFilter(ChatFilter.Mode.valueOf(modeName.toUpperCase(Locale.ROOT)));
+        try {
+            filter.watch(Path.of(terms));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read chat filter terms: " + terms, e);
+        }
+        server.setChatFilter(filter);
+    }
+
+    /**
+     * Parses a {@code host:port} peer address.
+     *
+     * @param spec address in {@code host:port} form
+     * @return an unresolved socket address
+     */
+    private static InetSocketAddress parsePeer(String spec) {
+        int colon = spec.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Peer must be host:port, got " + spec);
+        }
+        return InetSocketAddress.createUnresolved(spec.substring(0, colon),
+                Integer.parseInt(spec.substring(colon + 1)));
     }
 }
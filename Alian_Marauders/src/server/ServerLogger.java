@@ -0,0 +1,311 @@
+package server;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous logger used by the chat server.
+ * <p>
+ * Client handler threads must never block on {@code System.out}, so logging
+ * calls only copy their arguments into a pre-allocated event slot of a
+ * bounded ring buffer. A single background appender thread formats and
+ * prints the events in order.
+ * <ul>
+ *     <li>Multiple producers claim slots with a CAS on the claim sequence;
+ *         the single consumer follows behind on its own cursor.</li>
+ *     <li>Events below the configured {@link LogLevel} are discarded before
+ *         any formatting or slot claim takes place.</li>
+ *     <li>When the ring is full the event is dropped (the caller is never
+ *         blocked) and counted; the appender reports drops periodically.</li>
+ * </ul>
+ * Messages use {@code {}} placeholders, which are only expanded on the
+ * appender thread.
+ */
+public final class ServerLogger {
+
+    /** Default ring capacity (must be a power of two). */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final ServerLogger INSTANCE = new ServerLogger(
+            DEFAULT_CAPACITY,
+            LogLevel.parse(System.getProperty("server.log.level"), LogLevel.INFO),
+            System.out,
+            System.err
+    );
+
+    /** How long the appender parks when the ring is empty. */
+    private static final long IDLE_PARK_NANOS = 200_000L;
+
+    private final LogEvent[] ring;
+    private final int mask;
+
+    /** Per-slot sequence number of the event currently published in that slot. */
+    private final AtomicLongArray published;
+
+    /** Next sequence to be claimed by a producer. */
+    private final AtomicLong claimSequence = new AtomicLong();
+
+    /** Next sequence the appender will consume (written only by the appender). */
+    private volatile long consumeSequence = 0;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported = 0;
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile LogLevel threshold;
+    private volatile boolean running = true;
+    private final Thread appender;
+
+    /**
+     * Creates a logger with its own appender thread.
+     *
+     * @param capacity  ring capacity, rounded up to a power of two
+     * @param threshold minimum level that is recorded
+     * @param out       stream for events below {@link LogLevel#WARN}
+     * @param err       stream for {@link LogLevel#WARN} and above
+     */
+    ServerLogger(int capacity, LogLevel threshold, PrintStream out, PrintStream err) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new LogEvent[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new LogEvent();
+            published.set(i, -1L);
+        }
+        this.threshold = threshold;
+        this.out = out;
+        this.err = err;
+
+        this.appender = new Thread(this::appendLoop, "ServerLogger-Appender");
+        appender.setDaemon(true);
+        appender.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "ServerLogger-Shutdown"));
+    }
+
+    /**
+     * Returns the process-wide server logger.
+     * <p>
+     * The level can be set with {@code -Dserver.log.level=DEBUG}.
+     *
+     * @return the shared logger instance
+     */
+    public static ServerLogger getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Changes the minimum level that is recorded.
+     *
+     * @param level new threshold
+     */
+    public void setLevel(LogLevel level) {
+        this.threshold = level;
+    }
+
+    /**
+     * Returns whether events of the given level are currently recorded.
+     *
+     * @param level level to test
+     * @return {@code true} if events of {@code level} pass the filter
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold.ordinal();
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full.
+     *
+     * @return total dropped events since startup
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void debug(String message, Object arg) { log(LogLevel.DEBUG, message, arg, null, null, null); }
+    public void info(String message) { log(LogLevel.INFO, message, null, null, null, null); }
+    public void info(String message, Object arg) { log(LogLevel.INFO, message, arg, null, null, null); }
+    public void info(String message, Object arg0, Object arg1) { log(LogLevel.INFO, message, arg0, arg1, null, null); }
+    public void warn(String message, Object arg) { log(LogLevel.WARN, message, arg, null, null, null); }
+    public void error(String message, Object arg, Throwable error) { log(LogLevel.ERROR, message, arg, null, null, error); }
+
+    /**
+     * Records an event.
+     * <p>
+     * Never blocks: if the ring is full the event is counted as dropped.
+     *
+     * @param level   event level
+     * @param message message with up to three {@code {}} placeholders
+     * @param arg0    first placeholder value, or {@code null}
+     * @param arg1    second placeholder value, or {@code null}
+     * @param arg2    third placeholder value, or {@code null}
+     * @param error   throwable whose stack trace is appended, or {@code null}
+     */
+    public void log(LogLevel level, String message,
+                    Object arg0, Object arg1, Object arg2,
+                    Throwable error) {
+        if (!isEnabled(level) || !running) {
+            return;
+        }
+
+        long seq;
+        do {
+            seq = claimSequence.get();
+            if (seq - consumeSequence >= ring.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimSequence.compareAndSet(seq, seq + 1));
+
+        int index = (int) (seq & mask);
+        LogEvent event = ring[index];
+        event.level = level;
+        event.timestampMillis = System.currentTimeMillis();
+        event.threadName = Thread.currentThread().getName();
+        event.message = message;
+        event.arg0 = arg0;
+        event.arg1 = arg1;
+        event.arg2 = arg2;
+        event.error = error;
+
+        // Publishing the sequence makes the slot visible to the appender
+        published.set(index, seq);
+    }
+
+    /**
+     * Stops accepting events and drains what is already in the ring.
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(appender);
+        try {
+            appender.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appender thread body: consumes events strictly in sequence order.
+     */
+    private void appendLoop() {
+        while (true) {
+            long next = consumeSequence;
+            int index = (int) (next & mask);
+
+            if (published.get(index) != next) {
+                // Nothing published at the cursor yet
+                reportDrops();
+                if (!running && claimSequence.get() == next) {
+                    out.flush();
+                    err.flush();
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            LogEvent event = ring[index];
+            try {
+                write(event);
+            } catch (Throwable t) {
+                // A bad argument must not take down the only appender thread
+                writeFailed(event, t);
+            }
+            event.clear();
+            consumeSequence = next + 1;
+        }
+    }
+
+    /**
+     * Prints a summary line when new events were dropped since the last report.
+     */
+    private void reportDrops() {
+        long total = dropped.get();
+        if (total != droppedReported) {
+            err.println("[ServerLogger] dropped " + (total - droppedReported)
+                    + " log events (ring buffer full, total " + total + ")");
+            droppedReported = total;
+        }
+    }
+
+    /**
+     * Formats one event into the reusable line buffer and prints it.
+     *
+     * @param event the event to print
+     */
+    private void write(LogEvent event) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(event.timestampMillis))
+                .append(' ').append(event.level)
+                .append(" [").append(event.threadName).append("] ");
+
+        String message = event.message;
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while ((at = message.indexOf("{}", from)) >= 0) {
+            line.append(message, from, at);
+            line.append(argIndex == 0 ? event.arg0 : argIndex == 1 ? event.arg1 : event.arg2);
+            argIndex++;
+            from = at + 2;
+        }
+        line.append(message, from, message.length());
+
+        PrintStream target = event.level.ordinal() >= LogLevel.WARN.ordinal() ? err : out;
+        target.println(line);
+        if (event.error != null) {
+            event.error.printStackTrace(target);
+        }
+    }
+
+    /**
+     * Reports an event that could not be formatted or printed. Only uses
+     * values that cannot throw themselves (no argument is touched).
+     *
+     * @param event   the event that failed
+     * @param failure what {@link #write} threw
+     */
+    private void writeFailed(LogEvent event, Throwable failure) {
+        err.println("[ServerLogger] could not write " + event.level + " event \""
+                + event.message + "\" from [" + event.threadName + "]: "
+                + failure.getClass().getName());
+    }
+
+    /**
+     * Reusable ring slot. Fields are written by one producer and read by the
+     * appender after the slot's sequence has been published.
+     */
+    private static final class LogEvent {
+        LogLevel level;
+        long timestampMillis;
+        String threadName;
+        String message;
+        Object arg0;
+        Object arg1;
+        Object arg2;
+        Throwable error;
+
+        /**
+         * Drops references so the slot does not keep arguments alive.
+         */
+        void clear() {
+            threadName = null;
+            message = null;
+            arg0 = null;
+            arg1 = null;
+            arg2 = null;
+            error = null;
+        }
+    }
+}